@@ -11,6 +11,7 @@ import org.springframework.stereotype.Component;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 @Component
@@ -80,7 +81,7 @@ public class DataSeeder implements CommandLineRunner {
             doctor1.setCity("New York");
             doctor1.setState("NY");
             doctor1.setZipCode("10001");
-            doctor1.setLanguages(Arrays.asList("English", "Spanish"));
+            doctor1.setLanguages(new LinkedHashSet<>(List.of("English", "Spanish")));
             doctor1.setRating(4.8);
             doctor1.setTotalReviews(156);
             doctor1.setConsultationFee(200.0);
@@ -99,7 +100,7 @@ public class DataSeeder implements CommandLineRunner {
             doctor2.setCity("Los Angeles");
             doctor2.setState("CA");
             doctor2.setZipCode("90001");
-            doctor2.setLanguages(Arrays.asList("English", "Mandarin"));
+            doctor2.setLanguages(new LinkedHashSet<>(List.of("English", "Mandarin")));
             doctor2.setRating(4.6);
             doctor2.setTotalReviews(89);
             doctor2.setConsultationFee(150.0);
@@ -118,7 +119,7 @@ public class DataSeeder implements CommandLineRunner {
             doctor3.setCity("Chicago");
             doctor3.setState("IL");
             doctor3.setZipCode("60601");
-            doctor3.setLanguages(Arrays.asList("English", "Spanish"));
+            doctor3.setLanguages(new LinkedHashSet<>(List.of("English", "Spanish")));
             doctor3.setRating(4.9);
             doctor3.setTotalReviews(234);
             doctor3.setConsultationFee(120.0);
@@ -137,7 +138,7 @@ public class DataSeeder implements CommandLineRunner {
             doctor4.setCity("Houston");
             doctor4.setState("TX");
             doctor4.setZipCode("77001");
-            doctor4.setLanguages(List.of("English"));
+            doctor4.setLanguages(new LinkedHashSet<>(List.of("English")));
             doctor4.setRating(4.7);
             doctor4.setTotalReviews(178);
             doctor4.setConsultationFee(180.0);
@@ -0,0 +1,158 @@
+package com.smartcare.controller;
+
+import com.smartcare.dto.ApiResponse;
+import com.smartcare.dto.admin.TokenRevocationRequest;
+import com.smartcare.dto.admin.UserImportResult;
+import com.smartcare.model.Role;
+import com.smartcare.model.User;
+import com.smartcare.service.AuthService;
+import com.smartcare.service.UserAvailabilityIndex;
+import com.smartcare.service.UserImportService;
+import com.smartcare.service.UserProfileService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/admin/users")
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "User Administration", description = "Administrative user management endpoints")
+public class AdminUserController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminUserController.class);
+
+    @Autowired
+    private UserProfileService userProfileService;
+
+    @Autowired
+    private UserAvailabilityIndex userAvailabilityIndex;
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private AuthService authService;
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    @PutMapping("/{userId}/roles")
+    @Operation(summary = "Update user roles", description = "Replace the roles assigned to a user")
+    public ResponseEntity<?> updateUserRoles(@PathVariable Long userId, @RequestBody Set<Role> roles) {
+        long startTime = System.currentTimeMillis();
+        logger.info("AdminUserController | updateUserRoles | method entry");
+
+        try {
+            User updatedUser = userProfileService.updateUserRoles(userId, roles);
+
+            long executionTime = System.currentTimeMillis() - startTime;
+            logger.info("AdminUserController | updateUserRoles | method exit with {}ms", executionTime);
+            return ResponseEntity.ok(new ApiResponse(true, "User roles updated successfully", updatedUser.getRoles()));
+        } catch (RuntimeException e) {
+            long executionTime = System.currentTimeMillis() - startTime;
+            logger.error("AdminUserController | updateUserRoles | method exit with Error : {}. after ms: {}",
+                        executionTime, e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{userId}")
+    @Operation(summary = "Delete user", description = "Remove a user account")
+    public ResponseEntity<?> deleteUser(@PathVariable Long userId) {
+        long startTime = System.currentTimeMillis();
+        logger.info("AdminUserController | deleteUser | method entry");
+
+        try {
+            userProfileService.deleteUser(userId);
+
+            long executionTime = System.currentTimeMillis() - startTime;
+            logger.info("AdminUserController | deleteUser | method exit with {}ms", executionTime);
+            return ResponseEntity.ok(new ApiResponse(true, "User deleted successfully"));
+        } catch (RuntimeException e) {
+            long executionTime = System.currentTimeMillis() - startTime;
+            logger.error("AdminUserController | deleteUser | method exit with Error : {}. after ms: {}",
+                        executionTime, e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+
+    @PostMapping("/availability-index/rebuild")
+    @Operation(summary = "Rebuild availability index", description = "Rebuild the username and email availability index from the users table")
+    public ResponseEntity<?> rebuildAvailabilityIndex() {
+        long startTime = System.currentTimeMillis();
+        logger.info("AdminUserController | rebuildAvailabilityIndex | method entry");
+
+        try {
+            userAvailabilityIndex.rebuild();
+
+            long executionTime = System.currentTimeMillis() - startTime;
+            logger.info("AdminUserController | rebuildAvailabilityIndex | method exit with {}ms", executionTime);
+            return ResponseEntity.ok(new ApiResponse(true, "Availability index rebuilt successfully"));
+        } catch (RuntimeException e) {
+            long executionTime = System.currentTimeMillis() - startTime;
+            logger.error("AdminUserController | rebuildAvailabilityIndex | method exit with Error : {}. after ms: {}",
+                        executionTime, e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Bulk import users", description = "Create users from a CSV (with header row) or NDJSON stream of sign-up rows and report the outcome of every row")
+    public ResponseEntity<?> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                         HttpServletRequest request) {
+        long startTime = System.currentTimeMillis();
+        logger.info("AdminUserController | importUsers | method entry");
+
+        try {
+            UserImportResult result = TEXT_CSV.isCompatibleWith(MediaType.parseMediaType(contentType))
+                    ? userImportService.importCsv(request.getInputStream())
+                    : userImportService.importNdjson(request.getInputStream());
+
+            long executionTime = System.currentTimeMillis() - startTime;
+            logger.info("AdminUserController | importUsers | method exit with {}ms", executionTime);
+            return ResponseEntity.ok(new ApiResponse(true,
+                    "Imported " + result.getCreated() + " of " + result.getTotal() + " users", result));
+        } catch (IOException | RuntimeException e) {
+            long executionTime = System.currentTimeMillis() - startTime;
+            logger.error("AdminUserController | importUsers | method exit with Error : {}. after ms: {}",
+                        executionTime, e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+
+    @PostMapping("/tokens/revoke")
+    @Operation(summary = "Revoke access token", description = "Reject an access token for the rest of its lifetime")
+    public ResponseEntity<?> revokeAccessToken(@Valid @RequestBody TokenRevocationRequest revocationRequest) {
+        long startTime = System.currentTimeMillis();
+        logger.info("AdminUserController | revokeAccessToken | method entry");
+
+        try {
+            authService.revokeAccessToken(revocationRequest.getToken());
+
+            long executionTime = System.currentTimeMillis() - startTime;
+            logger.info("AdminUserController | revokeAccessToken | method exit with {}ms", executionTime);
+            return ResponseEntity.ok(new ApiResponse(true, "Token revoked successfully"));
+        } catch (RuntimeException e) {
+            long executionTime = System.currentTimeMillis() - startTime;
+            logger.error("AdminUserController | revokeAccessToken | method exit with Error : {}. after ms: {}",
+                        executionTime, e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+}
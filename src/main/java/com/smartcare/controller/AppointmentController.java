@@ -1,6 +1,7 @@
 package com.smartcare.controller;
 
 import com.smartcare.dto.ApiResponse;
+import com.smartcare.dto.appointment.AppointmentDto;
 import com.smartcare.dto.AppointmentBookingRequest;
 import com.smartcare.model.Appointment;
 import com.smartcare.model.AppointmentStatus;
@@ -48,7 +49,7 @@ public class AppointmentController {
             
             long executionTime = System.currentTimeMillis() - startTime;
             logger.info("AppointmentController | bookAppointment | method exit with {}ms", executionTime);
-            return ResponseEntity.ok(new ApiResponse(true, "Appointment booked successfully", appointment));
+            return ResponseEntity.ok(new ApiResponse(true, "Appointment booked successfully", AppointmentDto.from(appointment)));
         } catch (RuntimeException e) {
             long executionTime = System.currentTimeMillis() - startTime;
             logger.error("AppointmentController | bookAppointment | method exit with Error : {}. after ms: {}", 
@@ -64,7 +65,7 @@ public class AppointmentController {
         long startTime = System.currentTimeMillis();
         logger.info("AppointmentController | getMyAppointments | method entry");
         
-        List<Appointment> appointments = appointmentService.getPatientAppointments(currentUser.getId());
+        List<AppointmentDto> appointments = appointmentService.getPatientAppointments(currentUser.getId());
         
         long executionTime = System.currentTimeMillis() - startTime;
         logger.info("AppointmentController | getMyAppointments | method exit with {}ms", executionTime);
@@ -77,7 +78,7 @@ public class AppointmentController {
         long startTime = System.currentTimeMillis();
         logger.info("AppointmentController | getDoctorAppointments | method entry");
         
-        List<Appointment> appointments = appointmentService.getDoctorAppointments(doctorId);
+        List<AppointmentDto> appointments = appointmentService.getDoctorAppointments(doctorId);
         
         long executionTime = System.currentTimeMillis() - startTime;
         logger.info("AppointmentController | getDoctorAppointments | method exit with {}ms", executionTime);
@@ -92,7 +93,7 @@ public class AppointmentController {
         long startTime = System.currentTimeMillis();
         logger.info("AppointmentController | getUpcomingAppointments | method entry");
         
-        List<Appointment> appointments = appointmentService.getUpcomingAppointments(currentUser.getId(), userType);
+        List<AppointmentDto> appointments = appointmentService.getUpcomingAppointments(currentUser.getId(), userType);
         
         long executionTime = System.currentTimeMillis() - startTime;
         logger.info("AppointmentController | getUpcomingAppointments | method exit with {}ms", executionTime);
@@ -127,7 +128,7 @@ public class AppointmentController {
             
             long executionTime = System.currentTimeMillis() - startTime;
             logger.info("AppointmentController | updateAppointmentStatus | method exit with {}ms", executionTime);
-            return ResponseEntity.ok(new ApiResponse(true, "Appointment status updated successfully", appointment));
+            return ResponseEntity.ok(new ApiResponse(true, "Appointment status updated successfully", AppointmentDto.from(appointment)));
         } catch (RuntimeException e) {
             long executionTime = System.currentTimeMillis() - startTime;
             logger.error("AppointmentController | updateAppointmentStatus | method exit with Error : {}. after ms: {}", 
@@ -150,7 +151,7 @@ public class AppointmentController {
             
             long executionTime = System.currentTimeMillis() - startTime;
             logger.info("AppointmentController | addAppointmentNotes | method exit with {}ms", executionTime);
-            return ResponseEntity.ok(new ApiResponse(true, "Notes added successfully", appointment));
+            return ResponseEntity.ok(new ApiResponse(true, "Notes added successfully", AppointmentDto.from(appointment)));
         } catch (RuntimeException e) {
             long executionTime = System.currentTimeMillis() - startTime;
             logger.error("AppointmentController | addAppointmentNotes | method exit with Error : {}. after ms: {}", 
@@ -4,6 +4,10 @@ import com.smartcare.dto.ApiResponse;
 import com.smartcare.dto.auth.JwtAuthenticationResponse;
 import com.smartcare.dto.auth.LoginRequest;
 import com.smartcare.dto.auth.SignUpRequest;
+import com.smartcare.dto.auth.TokenRefreshRequest;
+import com.smartcare.dto.auth.TokenRefreshResponse;
+import com.smartcare.security.InvalidRefreshTokenException;
+import com.smartcare.security.PasswordHashingUnavailableException;
 import com.smartcare.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -37,6 +41,12 @@ public class AuthController {
             long executionTime = System.currentTimeMillis() - startTime;
             logger.info("AuthController | authenticateUser | method exit with {}ms", executionTime);
             return ResponseEntity.ok(new ApiResponse(true, "User signed in successfully", response));
+        } catch (PasswordHashingUnavailableException e) {
+            long executionTime = System.currentTimeMillis() - startTime;
+            logger.warn("AuthController | authenticateUser | method exit with Error : {}. after ms: {}", 
+                        executionTime, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ApiResponse(false, "Too many sign-in attempts, please retry shortly"));
         } catch (Exception e) {
             long executionTime = System.currentTimeMillis() - startTime;
             logger.error("AuthController | authenticateUser | method exit with Error : {}. after ms: {}", 
@@ -46,6 +56,57 @@ public class AuthController {
         }
     }
 
+    @PostMapping("/refresh")
+    @Operation(summary = "Refresh access token", description = "Exchange a refresh token for a new access token and a rotated refresh token")
+    public ResponseEntity<?> refreshToken(@Valid @RequestBody TokenRefreshRequest refreshRequest) {
+        long startTime = System.currentTimeMillis();
+        logger.info("AuthController | refreshToken | method entry");
+
+        try {
+            TokenRefreshResponse response = authService.refreshToken(refreshRequest.getRefreshToken());
+
+            long executionTime = System.currentTimeMillis() - startTime;
+            logger.info("AuthController | refreshToken | method exit with {}ms", executionTime);
+            return ResponseEntity.ok(new ApiResponse(true, "Token refreshed successfully", response));
+        } catch (InvalidRefreshTokenException e) {
+            long executionTime = System.currentTimeMillis() - startTime;
+            logger.warn("AuthController | refreshToken | method exit with Error : {}. after ms: {}",
+                        executionTime, e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new ApiResponse(false, e.getMessage()));
+        } catch (RuntimeException e) {
+            long executionTime = System.currentTimeMillis() - startTime;
+            logger.error("AuthController | refreshToken | method exit with Error : {}. after ms: {}",
+                        executionTime, e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+
+    @PostMapping("/logout")
+    @Operation(summary = "User logout", description = "Revoke the bearer access token and, if supplied, the refresh token's session")
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authorization,
+                                    @RequestBody(required = false) TokenRefreshRequest refreshRequest) {
+        long startTime = System.currentTimeMillis();
+        logger.info("AuthController | logout | method entry");
+
+        try {
+            String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                    ? authorization.substring(7) : null;
+            authService.logout(accessToken, refreshRequest != null ? refreshRequest.getRefreshToken() : null);
+
+            long executionTime = System.currentTimeMillis() - startTime;
+            logger.info("AuthController | logout | method exit with {}ms", executionTime);
+            return ResponseEntity.ok(new ApiResponse(true, "User logged out successfully"));
+        } catch (RuntimeException e) {
+            long executionTime = System.currentTimeMillis() - startTime;
+            logger.error("AuthController | logout | method exit with Error : {}. after ms: {}",
+                        executionTime, e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+
     @PostMapping("/signup")
     @Operation(summary = "User registration", description = "Register a new user account")
     public ResponseEntity<?> registerUser(@Valid @RequestBody SignUpRequest signUpRequest) {
@@ -58,6 +119,12 @@ public class AuthController {
             long executionTime = System.currentTimeMillis() - startTime;
             logger.info("AuthController | registerUser | method exit with {}ms", executionTime);
             return ResponseEntity.ok(new ApiResponse(true, "User registered successfully"));
+        } catch (PasswordHashingUnavailableException e) {
+            long executionTime = System.currentTimeMillis() - startTime;
+            logger.warn("AuthController | registerUser | method exit with Error : {}. after ms: {}", 
+                        executionTime, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ApiResponse(false, "Too many requests, please retry shortly"));
         } catch (RuntimeException e) {
             long executionTime = System.currentTimeMillis() - startTime;
             logger.error("AuthController | registerUser | method exit with Error : {}. after ms: {}", 
@@ -73,10 +140,11 @@ public class AuthController {
         long startTime = System.currentTimeMillis();
         logger.info("AuthController | checkUsernameAvailability | method entry");
         
-        // Implementation would check username availability
+        boolean available = authService.isUsernameAvailable(username);
+
         long executionTime = System.currentTimeMillis() - startTime;
         logger.info("AuthController | checkUsernameAvailability | method exit with {}ms", executionTime);
-        return ResponseEntity.ok(new ApiResponse(true, "Username is available"));
+        return ResponseEntity.ok(new ApiResponse(true, available ? "Username is available" : "Username is already taken", available));
     }
 
     @GetMapping("/check-email")
@@ -85,9 +153,10 @@ public class AuthController {
         long startTime = System.currentTimeMillis();
         logger.info("AuthController | checkEmailAvailability | method entry");
         
-        // Implementation would check email availability
+        boolean available = authService.isEmailAvailable(email);
+
         long executionTime = System.currentTimeMillis() - startTime;
         logger.info("AuthController | checkEmailAvailability | method exit with {}ms", executionTime);
-        return ResponseEntity.ok(new ApiResponse(true, "Email is available"));
+        return ResponseEntity.ok(new ApiResponse(true, available ? "Email is available" : "Email is already in use", available));
     }
 }
@@ -1,6 +1,11 @@
 package com.smartcare.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.smartcare.dto.ApiResponse;
+import com.smartcare.dto.doctor.DoctorSummaryDto;
+import com.smartcare.dto.doctor.DoctorDto;
+import com.smartcare.dto.doctor.DoctorSearchSlice;
+import com.smartcare.dto.doctor.NearbyDoctorDto;
 import com.smartcare.model.Doctor;
 import com.smartcare.service.DoctorService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -9,6 +14,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -38,7 +44,7 @@ public class DoctorController {
         long startTime = System.currentTimeMillis();
         logger.info("DoctorController | searchDoctors | method entry");
         
-        Page<Doctor> doctors = doctorService.searchDoctors(specialization, city, state, 
+        Page<DoctorSummaryDto> doctors = doctorService.searchDoctors(specialization, city, state, 
                                                           language, minRating, page, size);
         
         long executionTime = System.currentTimeMillis() - startTime;
@@ -46,6 +52,86 @@ public class DoctorController {
         return ResponseEntity.ok(new ApiResponse(true, "Doctors retrieved successfully", doctors));
     }
 
+    @GetMapping("/search/scroll")
+    @Operation(summary = "Scroll doctor search", description = "Search doctors with cursor-based pagination for infinite scrolling")
+    public ResponseEntity<?> scrollDoctors(
+            @RequestParam(required = false) String specialization,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String state,
+            @RequestParam(required = false) String language,
+            @RequestParam(required = false) Double minRating,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        long startTime = System.currentTimeMillis();
+        logger.info("DoctorController | scrollDoctors | method entry");
+        
+        try {
+            DoctorSearchSlice doctors = doctorService.scrollDoctors(specialization, city, state, language,
+                                                                    minRating, cursor, size, includeTotal);
+            
+            long executionTime = System.currentTimeMillis() - startTime;
+            logger.info("DoctorController | scrollDoctors | method exit with {}ms", executionTime);
+            return ResponseEntity.ok(new ApiResponse(true, "Doctors retrieved successfully", doctors));
+        } catch (RuntimeException e) {
+            long executionTime = System.currentTimeMillis() - startTime;
+            logger.error("DoctorController | scrollDoctors | method exit with Error : {}. after ms: {}", 
+                        executionTime, e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+
+    @GetMapping("/search/fuzzy")
+    @Operation(summary = "Fuzzy doctor search", description = "Typo-tolerant search over doctor name, specialization, qualifications and bio, ranked by match and rating")
+    public ResponseEntity<?> fuzzySearchDoctors(
+            @RequestParam String q,
+            @RequestParam(required = false) Double minRating,
+            @RequestParam(defaultValue = "10") int size) {
+        long startTime = System.currentTimeMillis();
+        logger.info("DoctorController | fuzzySearchDoctors | method entry");
+        
+        try {
+            List<DoctorSummaryDto> doctors = doctorService.fuzzySearchDoctors(q, minRating, size);
+            
+            long executionTime = System.currentTimeMillis() - startTime;
+            logger.info("DoctorController | fuzzySearchDoctors | method exit with {}ms", executionTime);
+            return ResponseEntity.ok(new ApiResponse(true, "Doctors retrieved successfully", doctors));
+        } catch (RuntimeException e) {
+            long executionTime = System.currentTimeMillis() - startTime;
+            logger.error("DoctorController | fuzzySearchDoctors | method exit with Error : {}. after ms: {}", 
+                        executionTime, e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+
+    @GetMapping("/search/nearby")
+    @Operation(summary = "Nearby doctor search", description = "Find the k nearest active doctors to a zip code that match the filters, sorted by distance")
+    public ResponseEntity<?> findNearbyDoctors(
+            @RequestParam String zip,
+            @RequestParam(defaultValue = "10") int k,
+            @RequestParam(required = false) String specialization,
+            @RequestParam(required = false) String language,
+            @RequestParam(required = false) Double minRating) {
+        long startTime = System.currentTimeMillis();
+        logger.info("DoctorController | findNearbyDoctors | method entry");
+        
+        try {
+            List<NearbyDoctorDto> doctors = doctorService.findNearbyDoctors(zip, k, specialization, language, minRating);
+            
+            long executionTime = System.currentTimeMillis() - startTime;
+            logger.info("DoctorController | findNearbyDoctors | method exit with {}ms", executionTime);
+            return ResponseEntity.ok(new ApiResponse(true, "Doctors retrieved successfully", doctors));
+        } catch (RuntimeException e) {
+            long executionTime = System.currentTimeMillis() - startTime;
+            logger.error("DoctorController | findNearbyDoctors | method exit with Error : {}. after ms: {}", 
+                        executionTime, e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+
     @GetMapping
     @Operation(summary = "Get all active doctors", description = "Retrieve all active doctors")
     @PreAuthorize("hasRole('ADMIN')")
@@ -53,7 +139,7 @@ public class DoctorController {
         long startTime = System.currentTimeMillis();
         logger.info("DoctorController | getAllDoctors | method entry");
         
-        List<Doctor> doctors = doctorService.getAllActiveDoctors();
+        List<DoctorDto> doctors = doctorService.getAllActiveDoctors();
         
         long executionTime = System.currentTimeMillis() - startTime;
         logger.info("DoctorController | getAllDoctors | method exit with {}ms", executionTime);
@@ -62,13 +148,29 @@ public class DoctorController {
 
     @GetMapping("/{id}")
     @Operation(summary = "Get doctor by ID", description = "Retrieve doctor details by ID")
-    public ResponseEntity<?> getDoctorById(@PathVariable Long id) {
+    public ResponseEntity<?> getDoctorById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         long startTime = System.currentTimeMillis();
         logger.info("DoctorController | getDoctorById | method entry");
         
         try {
+            if (ifNoneMatch != null) {
+                String etag = doctorService.getDoctorVersion(id)
+                        .map(updatedAt -> ETags.of("doctor", id, updatedAt))
+                        .orElse(null);
+                if (etag != null && ETags.matches(ifNoneMatch, etag)) {
+                    long executionTime = System.currentTimeMillis() - startTime;
+                    logger.info("DoctorController | getDoctorById | method exit not modified with {}ms", executionTime);
+                    return ETags.notModified(etag);
+                }
+            }
+            
             ResponseEntity<?> response = doctorService.getDoctorById(id)
-                    .map(doctor -> ResponseEntity.ok(new ApiResponse(true, "Doctor found", doctor)))
+                    .<ResponseEntity<?>>map(doctor -> ResponseEntity.ok()
+                            .eTag(ETags.of("doctor", doctor.getId(), doctor.getUpdatedAt()))
+                            .cacheControl(ETags.REVALIDATE)
+                            .body(new ApiResponse(true, "Doctor found", doctor)))
                     .orElse(ResponseEntity.notFound().build());
             
             long executionTime = System.currentTimeMillis() - startTime;
@@ -93,7 +195,7 @@ public class DoctorController {
         
         long executionTime = System.currentTimeMillis() - startTime;
         logger.info("DoctorController | createDoctor | method exit with {}ms", executionTime);
-        return ResponseEntity.ok(new ApiResponse(true, "Doctor created successfully", savedDoctor));
+        return ResponseEntity.ok(new ApiResponse(true, "Doctor created successfully", DoctorDto.from(savedDoctor)));
     }
 
     @PutMapping("/{id}")
@@ -108,7 +210,7 @@ public class DoctorController {
             
             long executionTime = System.currentTimeMillis() - startTime;
             logger.info("DoctorController | updateDoctor | method exit with {}ms", executionTime);
-            return ResponseEntity.ok(new ApiResponse(true, "Doctor updated successfully", updatedDoctor));
+            return ResponseEntity.ok(new ApiResponse(true, "Doctor updated successfully", DoctorDto.from(updatedDoctor)));
         } catch (RuntimeException e) {
             long executionTime = System.currentTimeMillis() - startTime;
             logger.error("DoctorController | updateDoctor | method exit with Error : {}. after ms: {}", 
@@ -117,6 +219,30 @@ public class DoctorController {
         }
     }
 
+    @PatchMapping(value = "/{id}", consumes = "application/merge-patch+json")
+    @Operation(summary = "Patch doctor", description = "Apply a JSON Merge Patch to doctor information")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('DOCTOR')")
+    public ResponseEntity<?> patchDoctor(
+            @PathVariable Long id,
+            @RequestBody JsonNode patch) {
+        long startTime = System.currentTimeMillis();
+        logger.info("DoctorController | patchDoctor | method entry");
+        
+        try {
+            Doctor updatedDoctor = doctorService.patchDoctor(id, patch);
+            
+            long executionTime = System.currentTimeMillis() - startTime;
+            logger.info("DoctorController | patchDoctor | method exit with {}ms", executionTime);
+            return ResponseEntity.ok(new ApiResponse(true, "Doctor updated successfully", DoctorDto.from(updatedDoctor)));
+        } catch (RuntimeException e) {
+            long executionTime = System.currentTimeMillis() - startTime;
+            logger.error("DoctorController | patchDoctor | method exit with Error : {}. after ms: {}", 
+                        executionTime, e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete doctor", description = "Remove doctor from the system")
     @PreAuthorize("hasRole('ADMIN')")
@@ -137,7 +263,7 @@ public class DoctorController {
         long startTime = System.currentTimeMillis();
         logger.info("DoctorController | getDoctorsBySpecialization | method entry");
         
-        List<Doctor> doctors = doctorService.getDoctorsBySpecialization(specialization);
+        List<DoctorSummaryDto> doctors = doctorService.getDoctorsBySpecialization(specialization);
         
         long executionTime = System.currentTimeMillis() - startTime;
         logger.info("DoctorController | getDoctorsBySpecialization | method exit with {}ms", executionTime);
@@ -0,0 +1,63 @@
+package com.smartcare.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Versioned ETags for polled read endpoints. A tag is built from the updatedAt column (plus the
+ * row count for lists), so a conditional request can be answered from that column alone, before
+ * the full rows are loaded and serialized.
+ */
+final class ETags {
+
+    // Clients may keep the response but must revalidate it on every use
+    static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ETags() {
+    }
+
+    static String of(String kind, Long id, LocalDateTime updatedAt) {
+        return "W/\"" + kind + "-" + id + "-" + version(updatedAt) + "\"";
+    }
+
+    static String ofList(String kind, long count, LocalDateTime lastUpdated) {
+        return "W/\"" + kind + "-" + count + "-" + version(lastUpdated) + "\"";
+    }
+
+    /**
+     * Weak comparison as used for If-None-Match: the W/ prefix is ignored on both sides.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || opaque(tag).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static ResponseEntity<?> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private static String version(LocalDateTime updatedAt) {
+        if (updatedAt == null) {
+            return "0";
+        }
+        long micros = updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + updatedAt.getNano() / 1_000;
+        return Long.toString(micros, 36);
+    }
+}
@@ -1,8 +1,11 @@
 package com.smartcare.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.smartcare.dto.ApiResponse;
+import com.smartcare.dto.medication.MedicationDto;
 import com.smartcare.model.Medication;
 import com.smartcare.model.MedicationStatus;
+import com.smartcare.repository.MedicationRepository;
 import com.smartcare.security.UserPrincipal;
 import com.smartcare.service.MedicationService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -11,11 +14,15 @@ import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/medications")
@@ -40,7 +47,7 @@ public class MedicationController {
             
             long executionTime = System.currentTimeMillis() - startTime;
             logger.info("MedicationController | addMedication | method exit with {}ms", executionTime);
-            return ResponseEntity.ok(new ApiResponse(true, "Medication added successfully", savedMedication));
+            return ResponseEntity.ok(new ApiResponse(true, "Medication added successfully", MedicationDto.from(savedMedication)));
         } catch (RuntimeException e) {
             long executionTime = System.currentTimeMillis() - startTime;
             logger.error("MedicationController | addMedication | method exit with Error : {}. after ms: {}", 
@@ -52,15 +59,35 @@ public class MedicationController {
 
     @GetMapping
     @Operation(summary = "Get user medications", description = "Retrieve all medications for current user")
-    public ResponseEntity<?> getUserMedications(@AuthenticationPrincipal UserPrincipal currentUser) {
+    public ResponseEntity<?> getUserMedications(
+            @AuthenticationPrincipal UserPrincipal currentUser,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         long startTime = System.currentTimeMillis();
         logger.info("MedicationController | getUserMedications | method entry");
         
-        List<Medication> medications = medicationService.getUserMedications(currentUser.getId());
+        if (ifNoneMatch != null) {
+            MedicationRepository.ListVersion version = medicationService.getUserMedicationsVersion(currentUser.getId());
+            String etag = ETags.ofList("medications", version.getTotal(), version.getLastUpdated());
+            if (ETags.matches(ifNoneMatch, etag)) {
+                long executionTime = System.currentTimeMillis() - startTime;
+                logger.info("MedicationController | getUserMedications | method exit not modified with {}ms", executionTime);
+                return ETags.notModified(etag);
+            }
+        }
+        
+        List<MedicationDto> medications = medicationService.getUserMedications(currentUser.getId());
+        LocalDateTime lastUpdated = medications.stream()
+                .map(MedicationDto::getUpdatedAt)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
         
         long executionTime = System.currentTimeMillis() - startTime;
         logger.info("MedicationController | getUserMedications | method exit with {}ms", executionTime);
-        return ResponseEntity.ok(new ApiResponse(true, "Medications retrieved successfully", medications));
+        return ResponseEntity.ok()
+                .eTag(ETags.ofList("medications", medications.size(), lastUpdated))
+                .cacheControl(ETags.REVALIDATE)
+                .body(new ApiResponse(true, "Medications retrieved successfully", medications));
     }
 
     @GetMapping("/active")
@@ -69,7 +96,7 @@ public class MedicationController {
         long startTime = System.currentTimeMillis();
         logger.info("MedicationController | getActiveMedications | method entry");
         
-        List<Medication> medications = medicationService.getActiveMedications(currentUser.getId());
+        List<MedicationDto> medications = medicationService.getActiveMedications(currentUser.getId());
         
         long executionTime = System.currentTimeMillis() - startTime;
         logger.info("MedicationController | getActiveMedications | method exit with {}ms", executionTime);
@@ -111,7 +138,7 @@ public class MedicationController {
             
             long executionTime = System.currentTimeMillis() - startTime;
             logger.info("MedicationController | updateMedication | method exit with {}ms", executionTime);
-            return ResponseEntity.ok(new ApiResponse(true, "Medication updated successfully", updatedMedication));
+            return ResponseEntity.ok(new ApiResponse(true, "Medication updated successfully", MedicationDto.from(updatedMedication)));
         } catch (RuntimeException e) {
             long executionTime = System.currentTimeMillis() - startTime;
             logger.error("MedicationController | updateMedication | method exit with Error : {}. after ms: {}", 
@@ -121,6 +148,29 @@ public class MedicationController {
         }
     }
 
+    @PatchMapping(value = "/{id}", consumes = "application/merge-patch+json")
+    @Operation(summary = "Patch medication", description = "Apply a JSON Merge Patch to medication information")
+    public ResponseEntity<?> patchMedication(
+            @PathVariable Long id,
+            @RequestBody JsonNode patch) {
+        long startTime = System.currentTimeMillis();
+        logger.info("MedicationController | patchMedication | method entry");
+        
+        try {
+            Medication updatedMedication = medicationService.patchMedication(id, patch);
+            
+            long executionTime = System.currentTimeMillis() - startTime;
+            logger.info("MedicationController | patchMedication | method exit with {}ms", executionTime);
+            return ResponseEntity.ok(new ApiResponse(true, "Medication updated successfully", MedicationDto.from(updatedMedication)));
+        } catch (RuntimeException e) {
+            long executionTime = System.currentTimeMillis() - startTime;
+            logger.error("MedicationController | patchMedication | method exit with Error : {}. after ms: {}", 
+                        executionTime, e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+
     @PutMapping("/{id}/status")
     @Operation(summary = "Update medication status", description = "Update the status of a medication")
     public ResponseEntity<?> updateMedicationStatus(
@@ -134,7 +184,7 @@ public class MedicationController {
             
             long executionTime = System.currentTimeMillis() - startTime;
             logger.info("MedicationController | updateMedicationStatus | method exit with {}ms", executionTime);
-            return ResponseEntity.ok(new ApiResponse(true, "Medication status updated successfully", medication));
+            return ResponseEntity.ok(new ApiResponse(true, "Medication status updated successfully", MedicationDto.from(medication)));
         } catch (RuntimeException e) {
             long executionTime = System.currentTimeMillis() - startTime;
             logger.error("MedicationController | updateMedicationStatus | method exit with Error : {}. after ms: {}", 
@@ -157,7 +207,7 @@ public class MedicationController {
             
             long executionTime = System.currentTimeMillis() - startTime;
             logger.info("MedicationController | updateRemainingQuantity | method exit with {}ms", executionTime);
-            return ResponseEntity.ok(new ApiResponse(true, "Quantity updated successfully", medication));
+            return ResponseEntity.ok(new ApiResponse(true, "Quantity updated successfully", MedicationDto.from(medication)));
         } catch (RuntimeException e) {
             long executionTime = System.currentTimeMillis() - startTime;
             logger.error("MedicationController | updateRemainingQuantity | method exit with Error : {}. after ms: {}", 
@@ -194,7 +244,7 @@ public class MedicationController {
         long startTime = System.currentTimeMillis();
         logger.info("MedicationController | getMedicationsNeedingRefill | method entry");
         
-        List<Medication> medications = medicationService.getMedicationsNeedingRefill();
+        List<MedicationDto> medications = medicationService.getMedicationsNeedingRefill();
         
         long executionTime = System.currentTimeMillis() - startTime;
         logger.info("MedicationController | getMedicationsNeedingRefill | method exit with {}ms", executionTime);
@@ -209,7 +259,7 @@ public class MedicationController {
         long startTime = System.currentTimeMillis();
         logger.info("MedicationController | getMedicationsByStatus | method entry");
         
-        List<Medication> medications = medicationService.getMedicationsByStatus(currentUser.getId(), status);
+        List<MedicationDto> medications = medicationService.getMedicationsByStatus(currentUser.getId(), status);
         
         long executionTime = System.currentTimeMillis() - startTime;
         logger.info("MedicationController | getMedicationsByStatus | method exit with {}ms", executionTime);
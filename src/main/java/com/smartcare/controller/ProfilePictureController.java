@@ -0,0 +1,166 @@
+package com.smartcare.controller;
+
+import com.smartcare.service.ProfilePictureStorage;
+import com.smartcare.service.ProfilePictureStorage.StoredPicture;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Serves stored profile pictures to signed-in users. Files are content addressed, so the hash is a
+ * strong ETag and responses may be kept forever, though only in the client's private cache.
+ * Bodies are handed to Tomcat's sendfile when the connector supports it, and otherwise copied
+ * channel to channel without staging the file in heap.
+ */
+@RestController
+@RequestMapping("/profile-pictures")
+@Tag(name = "Profile Pictures", description = "Profile picture file serving endpoints")
+public class ProfilePictureController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProfilePictureController.class);
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Pictures are personal data, so shared caches must not keep them
+    private static final String IMMUTABLE = "private, max-age=31536000, immutable";
+
+    @Autowired
+    private ProfilePictureStorage profilePictureStorage;
+
+    @GetMapping("/{fileName}")
+    @Operation(summary = "Get profile picture", description = "Download a stored profile picture, with ETag and Range support")
+    public void getProfilePicture(@PathVariable String fileName,
+                                  HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long startTime = System.currentTimeMillis();
+        logger.info("ProfilePictureController | getProfilePicture | method entry");
+
+        serve(profilePictureStorage.find(fileName, false), request, response);
+
+        long executionTime = System.currentTimeMillis() - startTime;
+        logger.info("ProfilePictureController | getProfilePicture | method exit with {}ms", executionTime);
+    }
+
+    @GetMapping("/{fileName}/thumbnail")
+    @Operation(summary = "Get profile picture thumbnail", description = "Download the fixed-size thumbnail of a stored profile picture")
+    public void getThumbnail(@PathVariable String fileName,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long startTime = System.currentTimeMillis();
+        logger.info("ProfilePictureController | getThumbnail | method entry");
+
+        serve(profilePictureStorage.find(fileName, true), request, response);
+
+        long executionTime = System.currentTimeMillis() - startTime;
+        logger.info("ProfilePictureController | getThumbnail | method exit with {}ms", executionTime);
+    }
+
+    private void serve(Optional<StoredPicture> found, HttpServletRequest request,
+                       HttpServletResponse response) throws IOException {
+        if (found.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        StoredPicture picture = found.get();
+        String etag = picture.getEtag();
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, picture.isImmutable() ? IMMUTABLE : "no-cache");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (ETags.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(picture.getPath(), StandardOpenOption.READ)) {
+            long length = channel.size();
+            long start = 0;
+            long end = length - 1;
+
+            String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+            String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+            if (rangeHeader != null && (ifRange == null || ifRange.equals(etag))) {
+                HttpRange range = singleRange(rangeHeader);
+                if (range != null) {
+                    if (length == 0 || !satisfiable(range, length)) {
+                        response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                        return;
+                    }
+                    start = range.getRangeStart(length);
+                    end = range.getRangeEnd(length);
+                    response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+                }
+            }
+
+            long count = end - start + 1;
+            response.setContentType(picture.getContentType().toString());
+            response.setContentLengthLong(count);
+            if ("HEAD".equals(request.getMethod()) || count == 0) {
+                return;
+            }
+
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                // The connector streams the file itself once the response is committed
+                request.setAttribute(SENDFILE_FILENAME, picture.getPath().toString());
+                request.setAttribute(SENDFILE_START, start);
+                request.setAttribute(SENDFILE_END, end + 1);
+                return;
+            }
+
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (count > 0) {
+                long written = channel.transferTo(position, count, out);
+                if (written <= 0) {
+                    break;
+                }
+                position += written;
+                count -= written;
+            }
+        }
+    }
+
+    /**
+     * Returns the requested range, or null to send the whole file, which is what a server may do
+     * for a malformed header or for multiple ranges.
+     */
+    private static HttpRange singleRange(String rangeHeader) {
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // HttpRange does not reject a first position at or past the end of the file, e.g. "bytes=<length>-"
+    private static boolean satisfiable(HttpRange range, long length) {
+        try {
+            long start = range.getRangeStart(length);
+            return start < length && start <= range.getRangeEnd(length);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.smartcare.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.smartcare.dto.ApiResponse;
+import com.smartcare.dto.profile.UserProfileDto;
+import com.smartcare.dto.profile.HealthProfileDto;
 import com.smartcare.model.HealthProfile;
 import com.smartcare.model.User;
 import com.smartcare.security.UserPrincipal;
@@ -11,9 +14,12 @@ import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 @RestController
 @RequestMapping("/profile")
@@ -27,15 +33,31 @@ public class UserProfileController {
 
     @GetMapping
     @Operation(summary = "Get user profile", description = "Retrieve current user's profile information")
-    public ResponseEntity<?> getUserProfile(@AuthenticationPrincipal UserPrincipal currentUser) {
+    public ResponseEntity<?> getUserProfile(
+            @AuthenticationPrincipal UserPrincipal currentUser,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         long startTime = System.currentTimeMillis();
         logger.info("UserProfileController | getUserProfile | method entry");
         
-        User user = userProfileService.getUserProfile(currentUser.getId());
+        if (ifNoneMatch != null) {
+            String etag = userProfileService.getUserProfileVersion(currentUser.getId())
+                    .map(updatedAt -> ETags.of("profile", currentUser.getId(), updatedAt))
+                    .orElse(null);
+            if (etag != null && ETags.matches(ifNoneMatch, etag)) {
+                long executionTime = System.currentTimeMillis() - startTime;
+                logger.info("UserProfileController | getUserProfile | method exit not modified with {}ms", executionTime);
+                return ETags.notModified(etag);
+            }
+        }
+        
+        UserProfileDto user = userProfileService.getUserProfile(currentUser.getId());
         
         long executionTime = System.currentTimeMillis() - startTime;
         logger.info("UserProfileController | getUserProfile | method exit with {}ms", executionTime);
-        return ResponseEntity.ok(new ApiResponse(true, "Profile retrieved successfully", user));
+        return ResponseEntity.ok()
+                .eTag(ETags.of("profile", user.getId(), user.getUpdatedAt()))
+                .cacheControl(ETags.REVALIDATE)
+                .body(new ApiResponse(true, "Profile retrieved successfully", user));
     }
 
     @PutMapping
@@ -51,7 +73,7 @@ public class UserProfileController {
             
             long executionTime = System.currentTimeMillis() - startTime;
             logger.info("UserProfileController | updateUserProfile | method exit with {}ms", executionTime);
-            return ResponseEntity.ok(new ApiResponse(true, "Profile updated successfully", updatedUser));
+            return ResponseEntity.ok(new ApiResponse(true, "Profile updated successfully", UserProfileDto.from(updatedUser)));
         } catch (RuntimeException e) {
             long executionTime = System.currentTimeMillis() - startTime;
             logger.error("UserProfileController | updateUserProfile | method exit with Error : {}. after ms: {}", 
@@ -61,6 +83,29 @@ public class UserProfileController {
         }
     }
 
+    @PatchMapping(consumes = "application/merge-patch+json")
+    @Operation(summary = "Patch user profile", description = "Apply a JSON Merge Patch to the user's basic profile information")
+    public ResponseEntity<?> patchUserProfile(
+            @AuthenticationPrincipal UserPrincipal currentUser,
+            @RequestBody JsonNode patch) {
+        long startTime = System.currentTimeMillis();
+        logger.info("UserProfileController | patchUserProfile | method entry");
+        
+        try {
+            User updatedUser = userProfileService.patchUserProfile(currentUser.getId(), patch);
+            
+            long executionTime = System.currentTimeMillis() - startTime;
+            logger.info("UserProfileController | patchUserProfile | method exit with {}ms", executionTime);
+            return ResponseEntity.ok(new ApiResponse(true, "Profile updated successfully", UserProfileDto.from(updatedUser)));
+        } catch (RuntimeException e) {
+            long executionTime = System.currentTimeMillis() - startTime;
+            logger.error("UserProfileController | patchUserProfile | method exit with Error : {}. after ms: {}", 
+                        executionTime, e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+
     @GetMapping("/health")
     @Operation(summary = "Get health profile", description = "Retrieve user's health profile information")
     public ResponseEntity<?> getHealthProfile(@AuthenticationPrincipal UserPrincipal currentUser) {
@@ -97,7 +142,7 @@ public class UserProfileController {
             
             long executionTime = System.currentTimeMillis() - startTime;
             logger.info("UserProfileController | createOrUpdateHealthProfile | method exit with {}ms", executionTime);
-            return ResponseEntity.ok(new ApiResponse(true, "Health profile saved successfully", savedProfile));
+            return ResponseEntity.ok(new ApiResponse(true, "Health profile saved successfully", HealthProfileDto.from(savedProfile)));
         } catch (RuntimeException e) {
             long executionTime = System.currentTimeMillis() - startTime;
             logger.error("UserProfileController | createOrUpdateHealthProfile | method exit with Error : {}. after ms: {}", 
@@ -118,7 +163,7 @@ public class UserProfileController {
             
             long executionTime = System.currentTimeMillis() - startTime;
             logger.info("UserProfileController | completeTour | method exit with {}ms", executionTime);
-            return ResponseEntity.ok(new ApiResponse(true, "Tour completed successfully", updatedUser));
+            return ResponseEntity.ok(new ApiResponse(true, "Tour completed successfully", UserProfileDto.from(updatedUser)));
         } catch (RuntimeException e) {
             long executionTime = System.currentTimeMillis() - startTime;
             logger.error("UserProfileController | completeTour | method exit with Error : {}. after ms: {}", 
@@ -141,7 +186,7 @@ public class UserProfileController {
             
             long executionTime = System.currentTimeMillis() - startTime;
             logger.info("UserProfileController | updateProfilePicture | method exit with {}ms", executionTime);
-            return ResponseEntity.ok(new ApiResponse(true, "Profile picture updated successfully", updatedUser));
+            return ResponseEntity.ok(new ApiResponse(true, "Profile picture updated successfully", UserProfileDto.from(updatedUser)));
         } catch (RuntimeException e) {
             long executionTime = System.currentTimeMillis() - startTime;
             logger.error("UserProfileController | updateProfilePicture | method exit with Error : {}. after ms: {}", 
@@ -150,4 +195,27 @@ public class UserProfileController {
                     .body(new ApiResponse(false, e.getMessage()));
         }
     }
+
+    @PostMapping(value = "/profile-picture/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Upload profile picture", description = "Upload a JPEG, PNG or GIF image as the user's profile picture")
+    public ResponseEntity<?> uploadProfilePicture(
+            @AuthenticationPrincipal UserPrincipal currentUser,
+            @RequestParam("file") MultipartFile file) {
+        long startTime = System.currentTimeMillis();
+        logger.info("UserProfileController | uploadProfilePicture | method entry");
+        
+        try {
+            User updatedUser = userProfileService.uploadProfilePicture(currentUser.getId(), file);
+            
+            long executionTime = System.currentTimeMillis() - startTime;
+            logger.info("UserProfileController | uploadProfilePicture | method exit with {}ms", executionTime);
+            return ResponseEntity.ok(new ApiResponse(true, "Profile picture uploaded successfully", UserProfileDto.from(updatedUser)));
+        } catch (RuntimeException e) {
+            long executionTime = System.currentTimeMillis() - startTime;
+            logger.error("UserProfileController | uploadProfilePicture | method exit with Error : {}. after ms: {}", 
+                        executionTime, e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, e.getMessage()));
+        }
+    }
 }
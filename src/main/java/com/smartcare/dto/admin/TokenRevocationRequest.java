@@ -0,0 +1,19 @@
+package com.smartcare.dto.admin;
+
+import jakarta.validation.constraints.NotBlank;
+
+public class TokenRevocationRequest {
+    @NotBlank
+    private String token;
+
+    // Constructors
+    public TokenRevocationRequest() {}
+
+    public TokenRevocationRequest(String token) {
+        this.token = token;
+    }
+
+    // Getters and Setters
+    public String getToken() { return token; }
+    public void setToken(String token) { this.token = token; }
+}
@@ -0,0 +1,52 @@
+package com.smartcare.dto.admin;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class UserImportResult {
+    private int total;
+    private int created;
+    private int invalid;
+    private int duplicate;
+    private int failed;
+    private long durationMs;
+    private List<UserImportRowResult> rows = new ArrayList<>();
+
+    public UserImportResult() {}
+
+    public void summarize(long durationMs) {
+        this.durationMs = durationMs;
+        total = rows.size();
+        created = invalid = duplicate = failed = 0;
+        for (UserImportRowResult row : rows) {
+            switch (row.getStatus()) {
+                case CREATED -> created++;
+                case INVALID -> invalid++;
+                case DUPLICATE -> duplicate++;
+                case ERROR -> failed++;
+            }
+        }
+    }
+
+    // Getters and Setters
+    public int getTotal() { return total; }
+    public void setTotal(int total) { this.total = total; }
+
+    public int getCreated() { return created; }
+    public void setCreated(int created) { this.created = created; }
+
+    public int getInvalid() { return invalid; }
+    public void setInvalid(int invalid) { this.invalid = invalid; }
+
+    public int getDuplicate() { return duplicate; }
+    public void setDuplicate(int duplicate) { this.duplicate = duplicate; }
+
+    public int getFailed() { return failed; }
+    public void setFailed(int failed) { this.failed = failed; }
+
+    public long getDurationMs() { return durationMs; }
+    public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+
+    public List<UserImportRowResult> getRows() { return rows; }
+    public void setRows(List<UserImportRowResult> rows) { this.rows = rows; }
+}
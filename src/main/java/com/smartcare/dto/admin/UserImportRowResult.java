@@ -0,0 +1,37 @@
+package com.smartcare.dto.admin;
+
+public class UserImportRowResult {
+
+    public enum Status {
+        CREATED, INVALID, DUPLICATE, ERROR
+    }
+
+    private int row;
+    private String username;
+    private Status status;
+    private String message;
+    private Long userId;
+
+    public UserImportRowResult() {}
+
+    public UserImportRowResult(int row, String username) {
+        this.row = row;
+        this.username = username;
+    }
+
+    // Getters and Setters
+    public int getRow() { return row; }
+    public void setRow(int row) { this.row = row; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+}
@@ -0,0 +1,86 @@
+package com.smartcare.dto.appointment;
+
+import com.smartcare.model.Appointment;
+import com.smartcare.model.AppointmentStatus;
+import com.smartcare.model.AppointmentType;
+import com.smartcare.model.Doctor;
+import com.smartcare.model.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model for appointments. Patient and doctor are flattened to the few columns a listing shows
+ * instead of embedding the full user and doctor graphs.
+ */
+public class AppointmentDto {
+    private final Long id;
+    private final Long patientId;
+    private final String patientFirstName;
+    private final String patientLastName;
+    private final Long doctorId;
+    private final String doctorFirstName;
+    private final String doctorLastName;
+    private final String doctorSpecialization;
+    private final LocalDateTime appointmentDateTime;
+    private final AppointmentStatus status;
+    private final AppointmentType type;
+    private final String reason;
+    private final String notes;
+    private final Double consultationFee;
+    private final String meetingLink;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+
+    public AppointmentDto(Long id, Long patientId, String patientFirstName, String patientLastName,
+                          Long doctorId, String doctorFirstName, String doctorLastName, String doctorSpecialization,
+                          LocalDateTime appointmentDateTime, AppointmentStatus status, AppointmentType type,
+                          String reason, String notes, Double consultationFee, String meetingLink,
+                          LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.patientId = patientId;
+        this.patientFirstName = patientFirstName;
+        this.patientLastName = patientLastName;
+        this.doctorId = doctorId;
+        this.doctorFirstName = doctorFirstName;
+        this.doctorLastName = doctorLastName;
+        this.doctorSpecialization = doctorSpecialization;
+        this.appointmentDateTime = appointmentDateTime;
+        this.status = status;
+        this.type = type;
+        this.reason = reason;
+        this.notes = notes;
+        this.consultationFee = consultationFee;
+        this.meetingLink = meetingLink;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public static AppointmentDto from(Appointment appointment) {
+        User patient = appointment.getPatient();
+        Doctor doctor = appointment.getDoctor();
+        return new AppointmentDto(appointment.getId(), patient.getId(), patient.getFirstName(), patient.getLastName(),
+                doctor.getId(), doctor.getFirstName(), doctor.getLastName(), doctor.getSpecialization(),
+                appointment.getAppointmentDateTime(), appointment.getStatus(), appointment.getType(),
+                appointment.getReason(), appointment.getNotes(), appointment.getConsultationFee(),
+                appointment.getMeetingLink(), appointment.getCreatedAt(), appointment.getUpdatedAt());
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public Long getPatientId() { return patientId; }
+    public String getPatientFirstName() { return patientFirstName; }
+    public String getPatientLastName() { return patientLastName; }
+    public Long getDoctorId() { return doctorId; }
+    public String getDoctorFirstName() { return doctorFirstName; }
+    public String getDoctorLastName() { return doctorLastName; }
+    public String getDoctorSpecialization() { return doctorSpecialization; }
+    public LocalDateTime getAppointmentDateTime() { return appointmentDateTime; }
+    public AppointmentStatus getStatus() { return status; }
+    public AppointmentType getType() { return type; }
+    public String getReason() { return reason; }
+    public String getNotes() { return notes; }
+    public Double getConsultationFee() { return consultationFee; }
+    public String getMeetingLink() { return meetingLink; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
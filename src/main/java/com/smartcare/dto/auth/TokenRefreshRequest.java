@@ -0,0 +1,19 @@
+package com.smartcare.dto.auth;
+
+import jakarta.validation.constraints.NotBlank;
+
+public class TokenRefreshRequest {
+    @NotBlank
+    private String refreshToken;
+
+    // Constructors
+    public TokenRefreshRequest() {}
+
+    public TokenRefreshRequest(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
+    // Getters and Setters
+    public String getRefreshToken() { return refreshToken; }
+    public void setRefreshToken(String refreshToken) { this.refreshToken = refreshToken; }
+}
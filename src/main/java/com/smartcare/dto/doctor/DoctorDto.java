@@ -0,0 +1,65 @@
+package com.smartcare.dto.doctor;
+
+import com.smartcare.model.Doctor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+/**
+ * Full doctor record for the detail and admin endpoints. Appointments and availabilities are
+ * deliberately absent; they have endpoints of their own.
+ */
+public class DoctorDto extends DoctorSummaryDto {
+    private final String qualifications;
+    private final String licenseNumber;
+    private final String phoneNumber;
+    private final String email;
+    private final String clinicAddress;
+    private final String zipCode;
+    private final String bio;
+    private final Boolean isActive;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+
+    public DoctorDto(Long id, String firstName, String lastName, String specialization, String qualifications,
+                     String licenseNumber, String phoneNumber, String email, String clinicAddress, String city,
+                     String state, String zipCode, Double rating, Integer totalReviews, Double consultationFee,
+                     String profilePicture, String bio, Boolean isActive, LocalDateTime createdAt,
+                     LocalDateTime updatedAt) {
+        super(id, firstName, lastName, specialization, city, state, rating, totalReviews, consultationFee,
+                profilePicture);
+        this.qualifications = qualifications;
+        this.licenseNumber = licenseNumber;
+        this.phoneNumber = phoneNumber;
+        this.email = email;
+        this.clinicAddress = clinicAddress;
+        this.zipCode = zipCode;
+        this.bio = bio;
+        this.isActive = isActive;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public static DoctorDto from(Doctor doctor) {
+        DoctorDto dto = new DoctorDto(doctor.getId(), doctor.getFirstName(), doctor.getLastName(),
+                doctor.getSpecialization(), doctor.getQualifications(), doctor.getLicenseNumber(),
+                doctor.getPhoneNumber(), doctor.getEmail(), doctor.getClinicAddress(), doctor.getCity(),
+                doctor.getState(), doctor.getZipCode(), doctor.getRating(), doctor.getTotalReviews(),
+                doctor.getConsultationFee(), doctor.getProfilePicture(), doctor.getBio(), doctor.getIsActive(),
+                doctor.getCreatedAt(), doctor.getUpdatedAt());
+        dto.setLanguages(new ArrayList<>(doctor.getLanguages()));
+        return dto;
+    }
+
+    // Getters
+    public String getQualifications() { return qualifications; }
+    public String getLicenseNumber() { return licenseNumber; }
+    public String getPhoneNumber() { return phoneNumber; }
+    public String getEmail() { return email; }
+    public String getClinicAddress() { return clinicAddress; }
+    public String getZipCode() { return zipCode; }
+    public String getBio() { return bio; }
+    public Boolean getIsActive() { return isActive; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
@@ -0,0 +1,25 @@
+package com.smartcare.dto.doctor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated doctor search. Pass nextCursor back to get the following page;
+ * it is null on the last one. approximateTotal is only filled in when the client asks for it and
+ * may lag behind recent changes.
+ */
+public class DoctorSearchSlice {
+    private final List<DoctorSummaryDto> content;
+    private final String nextCursor;
+    private final Long approximateTotal;
+
+    public DoctorSearchSlice(List<DoctorSummaryDto> content, String nextCursor, Long approximateTotal) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.approximateTotal = approximateTotal;
+    }
+
+    // Getters
+    public List<DoctorSummaryDto> getContent() { return content; }
+    public String getNextCursor() { return nextCursor; }
+    public Long getApproximateTotal() { return approximateTotal; }
+}
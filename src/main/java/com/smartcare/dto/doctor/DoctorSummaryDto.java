@@ -0,0 +1,66 @@
+package com.smartcare.dto.doctor;
+
+import com.smartcare.model.Doctor;
+
+import java.util.List;
+
+/**
+ * Doctor card used by search and listing endpoints. Languages are not part of the constructor
+ * expression; they are attached for a whole page at once from a single query on doctor_languages.
+ * The in-memory indexes hand the same card to every caller, so a card is never changed once its
+ * languages are attached, and the languages list itself is unmodifiable.
+ */
+public class DoctorSummaryDto {
+    private final Long id;
+    private final String firstName;
+    private final String lastName;
+    private final String specialization;
+    private final String city;
+    private final String state;
+    private List<String> languages = List.of();
+    private final Double rating;
+    private final Integer totalReviews;
+    private final Double consultationFee;
+    private final String profilePicture;
+
+    public DoctorSummaryDto(Long id, String firstName, String lastName, String specialization, String city,
+                            String state, Double rating, Integer totalReviews, Double consultationFee,
+                            String profilePicture) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.specialization = specialization;
+        this.city = city;
+        this.state = state;
+        this.rating = rating;
+        this.totalReviews = totalReviews;
+        this.consultationFee = consultationFee;
+        this.profilePicture = profilePicture;
+    }
+
+    public static DoctorSummaryDto from(Doctor doctor) {
+        DoctorSummaryDto summary = new DoctorSummaryDto(doctor.getId(), doctor.getFirstName(), doctor.getLastName(),
+                doctor.getSpecialization(), doctor.getCity(), doctor.getState(), doctor.getRating(),
+                doctor.getTotalReviews(), doctor.getConsultationFee(), doctor.getProfilePicture());
+        summary.setLanguages(doctor.getLanguages() == null ? List.of() : List.copyOf(doctor.getLanguages()));
+        return summary;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public String getFirstName() { return firstName; }
+    public String getLastName() { return lastName; }
+    public String getSpecialization() { return specialization; }
+    public String getCity() { return city; }
+    public String getState() { return state; }
+
+    public List<String> getLanguages() { return languages; }
+    public void setLanguages(List<String> languages) {
+        this.languages = languages == null ? List.of() : List.copyOf(languages);
+    }
+
+    public Double getRating() { return rating; }
+    public Integer getTotalReviews() { return totalReviews; }
+    public Double getConsultationFee() { return consultationFee; }
+    public String getProfilePicture() { return profilePicture; }
+}
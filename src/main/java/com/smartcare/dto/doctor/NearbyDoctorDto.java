@@ -0,0 +1,19 @@
+package com.smartcare.dto.doctor;
+
+/**
+ * A doctor card from nearby search with its distance from the searched zip code, measured in
+ * miles between zip code centroids.
+ */
+public class NearbyDoctorDto {
+    private final DoctorSummaryDto doctor;
+    private final double distanceMiles;
+
+    public NearbyDoctorDto(DoctorSummaryDto doctor, double distanceMiles) {
+        this.doctor = doctor;
+        this.distanceMiles = distanceMiles;
+    }
+
+    // Getters
+    public DoctorSummaryDto getDoctor() { return doctor; }
+    public double getDistanceMiles() { return distanceMiles; }
+}
@@ -0,0 +1,73 @@
+package com.smartcare.dto.medication;
+
+import com.smartcare.model.Medication;
+import com.smartcare.model.MedicationStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model for medications; carries the owning user's id rather than the user itself.
+ */
+public class MedicationDto {
+    private final Long id;
+    private final Long userId;
+    private final String medicationName;
+    private final String dosage;
+    private final String frequency;
+    private final LocalDateTime startDate;
+    private final LocalDateTime endDate;
+    private final String reminderTimes;
+    private final String instructions;
+    private final MedicationStatus status;
+    private final Integer refillReminderDays;
+    private final Integer remainingQuantity;
+    private final String prescribedBy;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+
+    public MedicationDto(Long id, Long userId, String medicationName, String dosage, String frequency,
+                         LocalDateTime startDate, LocalDateTime endDate, String reminderTimes, String instructions,
+                         MedicationStatus status, Integer refillReminderDays, Integer remainingQuantity,
+                         String prescribedBy, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.userId = userId;
+        this.medicationName = medicationName;
+        this.dosage = dosage;
+        this.frequency = frequency;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.reminderTimes = reminderTimes;
+        this.instructions = instructions;
+        this.status = status;
+        this.refillReminderDays = refillReminderDays;
+        this.remainingQuantity = remainingQuantity;
+        this.prescribedBy = prescribedBy;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public static MedicationDto from(Medication medication) {
+        return new MedicationDto(medication.getId(), medication.getUser().getId(), medication.getMedicationName(),
+                medication.getDosage(), medication.getFrequency(), medication.getStartDate(),
+                medication.getEndDate(), medication.getReminderTimes(), medication.getInstructions(),
+                medication.getStatus(), medication.getRefillReminderDays(), medication.getRemainingQuantity(),
+                medication.getPrescribedBy(), medication.getCreatedAt(), medication.getUpdatedAt());
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public Long getUserId() { return userId; }
+    public String getMedicationName() { return medicationName; }
+    public String getDosage() { return dosage; }
+    public String getFrequency() { return frequency; }
+    public LocalDateTime getStartDate() { return startDate; }
+    public LocalDateTime getEndDate() { return endDate; }
+    public String getReminderTimes() { return reminderTimes; }
+    public String getInstructions() { return instructions; }
+    public MedicationStatus getStatus() { return status; }
+    public Integer getRefillReminderDays() { return refillReminderDays; }
+    public Integer getRemainingQuantity() { return remainingQuantity; }
+    public String getPrescribedBy() { return prescribedBy; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
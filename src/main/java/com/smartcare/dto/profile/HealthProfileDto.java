@@ -0,0 +1,76 @@
+package com.smartcare.dto.profile;
+
+import com.smartcare.model.BloodType;
+import com.smartcare.model.HealthProfile;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read model for the health profile. Scalar columns come from a constructor expression; the
+ * condition and allergy lists are filled in from their collection tables afterwards.
+ */
+public class HealthProfileDto {
+    private final Long id;
+    private final Long userId;
+    private final Double height;
+    private final Double weight;
+    private final BloodType bloodType;
+    private List<String> medicalConditions = new ArrayList<>();
+    private List<String> allergies = new ArrayList<>();
+    private final String emergencyContactName;
+    private final String emergencyContactPhone;
+    private final String emergencyContactRelationship;
+    private final String additionalNotes;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+
+    public HealthProfileDto(Long id, Long userId, Double height, Double weight, BloodType bloodType,
+                            String emergencyContactName, String emergencyContactPhone,
+                            String emergencyContactRelationship, String additionalNotes,
+                            LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.userId = userId;
+        this.height = height;
+        this.weight = weight;
+        this.bloodType = bloodType;
+        this.emergencyContactName = emergencyContactName;
+        this.emergencyContactPhone = emergencyContactPhone;
+        this.emergencyContactRelationship = emergencyContactRelationship;
+        this.additionalNotes = additionalNotes;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public static HealthProfileDto from(HealthProfile profile) {
+        HealthProfileDto dto = new HealthProfileDto(profile.getId(), profile.getUser().getId(),
+                profile.getHeight(), profile.getWeight(), profile.getBloodType(),
+                profile.getEmergencyContactName(), profile.getEmergencyContactPhone(),
+                profile.getEmergencyContactRelationship(), profile.getAdditionalNotes(),
+                profile.getCreatedAt(), profile.getUpdatedAt());
+        dto.setMedicalConditions(new ArrayList<>(profile.getMedicalConditions()));
+        dto.setAllergies(new ArrayList<>(profile.getAllergies()));
+        return dto;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public Long getUserId() { return userId; }
+    public Double getHeight() { return height; }
+    public Double getWeight() { return weight; }
+    public BloodType getBloodType() { return bloodType; }
+
+    public List<String> getMedicalConditions() { return medicalConditions; }
+    public void setMedicalConditions(List<String> medicalConditions) { this.medicalConditions = medicalConditions; }
+
+    public List<String> getAllergies() { return allergies; }
+    public void setAllergies(List<String> allergies) { this.allergies = allergies; }
+
+    public String getEmergencyContactName() { return emergencyContactName; }
+    public String getEmergencyContactPhone() { return emergencyContactPhone; }
+    public String getEmergencyContactRelationship() { return emergencyContactRelationship; }
+    public String getAdditionalNotes() { return additionalNotes; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
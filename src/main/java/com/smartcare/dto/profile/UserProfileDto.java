@@ -0,0 +1,75 @@
+package com.smartcare.dto.profile;
+
+import com.smartcare.model.Gender;
+import com.smartcare.model.Role;
+import com.smartcare.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Read model for the profile endpoints. Built straight from a JPQL constructor expression so the
+ * password hash and the user's associations are never loaded or serialized.
+ */
+public class UserProfileDto {
+    private final Long id;
+    private final String username;
+    private final String email;
+    private final String firstName;
+    private final String lastName;
+    private final String phoneNumber;
+    private final LocalDateTime dateOfBirth;
+    private final Gender gender;
+    private final String profilePicture;
+    private final boolean emailVerified;
+    private final boolean profileCompleted;
+    private final boolean tourCompleted;
+    private final Set<Role> roles;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+
+    public UserProfileDto(Long id, String username, String email, String firstName, String lastName,
+                          String phoneNumber, LocalDateTime dateOfBirth, Gender gender, String profilePicture,
+                          boolean emailVerified, boolean profileCompleted, boolean tourCompleted, int roleMask,
+                          LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.phoneNumber = phoneNumber;
+        this.dateOfBirth = dateOfBirth;
+        this.gender = gender;
+        this.profilePicture = profilePicture;
+        this.emailVerified = emailVerified;
+        this.profileCompleted = profileCompleted;
+        this.tourCompleted = tourCompleted;
+        this.roles = Role.fromMask(roleMask);
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public static UserProfileDto from(User user) {
+        return new UserProfileDto(user.getId(), user.getUsername(), user.getEmail(), user.getFirstName(),
+                user.getLastName(), user.getPhoneNumber(), user.getDateOfBirth(), user.getGender(),
+                user.getProfilePicture(), user.isEmailVerified(), user.isProfileCompleted(),
+                user.isTourCompleted(), Role.toMask(user.getRoles()), user.getCreatedAt(), user.getUpdatedAt());
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public String getUsername() { return username; }
+    public String getEmail() { return email; }
+    public String getFirstName() { return firstName; }
+    public String getLastName() { return lastName; }
+    public String getPhoneNumber() { return phoneNumber; }
+    public LocalDateTime getDateOfBirth() { return dateOfBirth; }
+    public Gender getGender() { return gender; }
+    public String getProfilePicture() { return profilePicture; }
+    public boolean isEmailVerified() { return emailVerified; }
+    public boolean isProfileCompleted() { return profileCompleted; }
+    public boolean isTourCompleted() { return tourCompleted; }
+    public Set<Role> getRoles() { return roles; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
@@ -3,13 +3,17 @@ package com.smartcare.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 @Entity
 @Table(name = "doctors")
+@DynamicUpdate
 public class Doctor {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -54,7 +58,7 @@ public class Doctor {
     @ElementCollection
     @CollectionTable(name = "doctor_languages", joinColumns = @JoinColumn(name = "doctor_id"))
     @Column(name = "language")
-    private List<String> languages = new ArrayList<>();
+    private Set<String> languages = new LinkedHashSet<>();
 
     private Double rating = 0.0;
     private Integer totalReviews = 0;
@@ -130,8 +134,8 @@ public class Doctor {
     public String getZipCode() { return zipCode; }
     public void setZipCode(String zipCode) { this.zipCode = zipCode; }
 
-    public List<String> getLanguages() { return languages; }
-    public void setLanguages(List<String> languages) { this.languages = languages; }
+    public Set<String> getLanguages() { return languages; }
+    public void setLanguages(Set<String> languages) { this.languages = languages; }
 
     public Double getRating() { return rating; }
     public void setRating(Double rating) { this.rating = rating; }
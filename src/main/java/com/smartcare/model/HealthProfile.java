@@ -3,10 +3,11 @@ package com.smartcare.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 @Entity
 @Table(name = "health_profiles")
@@ -25,15 +26,18 @@ public class HealthProfile {
     @Enumerated(EnumType.STRING)
     private BloodType bloodType;
 
+    // Sets rather than bags so Hibernate can delete and insert single rows instead of recreating the table
     @ElementCollection
     @CollectionTable(name = "medical_conditions", joinColumns = @JoinColumn(name = "health_profile_id"))
     @Column(name = "condition_name")
-    private List<String> medicalConditions = new ArrayList<>();
+    @BatchSize(size = 50)
+    private Set<String> medicalConditions = new LinkedHashSet<>();
 
     @ElementCollection
     @CollectionTable(name = "allergies", joinColumns = @JoinColumn(name = "health_profile_id"))
     @Column(name = "allergy_name")
-    private List<String> allergies = new ArrayList<>();
+    @BatchSize(size = 50)
+    private Set<String> allergies = new LinkedHashSet<>();
 
     @Column(name = "emergency_contact_name")
     private String emergencyContactName;
@@ -80,11 +84,11 @@ public class HealthProfile {
     public BloodType getBloodType() { return bloodType; }
     public void setBloodType(BloodType bloodType) { this.bloodType = bloodType; }
 
-    public List<String> getMedicalConditions() { return medicalConditions; }
-    public void setMedicalConditions(List<String> medicalConditions) { this.medicalConditions = medicalConditions; }
+    public Set<String> getMedicalConditions() { return medicalConditions; }
+    public void setMedicalConditions(Set<String> medicalConditions) { this.medicalConditions = medicalConditions; }
 
-    public List<String> getAllergies() { return allergies; }
-    public void setAllergies(List<String> allergies) { this.allergies = allergies; }
+    public Set<String> getAllergies() { return allergies; }
+    public void setAllergies(Set<String> allergies) { this.allergies = allergies; }
 
     public String getEmergencyContactName() { return emergencyContactName; }
     public void setEmergencyContactName(String emergencyContactName) { this.emergencyContactName = emergencyContactName; }
@@ -3,11 +3,13 @@ package com.smartcare.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 @Entity
 @Table(name = "medications")
+@DynamicUpdate
 public class Medication {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
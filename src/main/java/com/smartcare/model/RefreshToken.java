@@ -0,0 +1,75 @@
+package com.smartcare.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * Server-side record of an issued refresh token. The token itself is a signed JWT, so only its id,
+ * rotation family, owner and expiry are stored. Used rows are kept until they expire so that a
+ * replayed token can be recognised and its whole family revoked.
+ */
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_expires_at", columnList = "expires_at"),
+        @Index(name = "idx_refresh_tokens_family_id", columnList = "family_id"),
+        @Index(name = "idx_refresh_tokens_user_id", columnList = "user_id")
+})
+public class RefreshToken implements Persistable<String> {
+    @Id
+    @Column(length = 22)
+    private String id;
+
+    @Column(name = "family_id", nullable = false, length = 22)
+    private String familyId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    private boolean used = false;
+
+    // Ids are assigned by the application; without this flag save() would merge and select first
+    @Transient
+    private boolean newEntity = true;
+
+    public RefreshToken() {}
+
+    public RefreshToken(String id, String familyId, Long userId, Instant expiresAt) {
+        this.id = id;
+        this.familyId = familyId;
+        this.userId = userId;
+        this.expiresAt = expiresAt;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        newEntity = false;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    // Getters and Setters
+    @Override
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getFamilyId() { return familyId; }
+    public void setFamilyId(String familyId) { this.familyId = familyId; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Instant getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; }
+
+    public boolean isUsed() { return used; }
+    public void setUsed(boolean used) { this.used = used; }
+}
@@ -0,0 +1,72 @@
+package com.smartcare.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * Durable copy of a revoked access token id. Rows are only needed until the token would have
+ * expired anyway; they are reloaded into the in-memory revocation list on startup, and rows
+ * revoked since the last poll are picked up by every instance.
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at"),
+        @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revoked_at")
+})
+public class RevokedToken implements Persistable<Long> {
+    @Id
+    @Column(name = "token_id")
+    private Long tokenId;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "revoked_at", nullable = false)
+    private Instant revokedAt;
+
+    @Transient
+    private boolean newEntity = true;
+
+    public RevokedToken() {}
+
+    public RevokedToken(Long tokenId, Long userId, Instant expiresAt) {
+        this.tokenId = tokenId;
+        this.userId = userId;
+        this.expiresAt = expiresAt;
+        this.revokedAt = Instant.now();
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        newEntity = false;
+    }
+
+    @Override
+    public Long getId() {
+        return tokenId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    // Getters and Setters
+    public Long getTokenId() { return tokenId; }
+    public void setTokenId(Long tokenId) { this.tokenId = tokenId; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Instant getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; }
+
+    public Instant getRevokedAt() { return revokedAt; }
+    public void setRevokedAt(Instant revokedAt) { this.revokedAt = revokedAt; }
+}
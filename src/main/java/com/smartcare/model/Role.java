@@ -1,8 +1,83 @@
 package com.smartcare.model;
 
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Roles are persisted as a bitmask ({@code users.role_mask}). Bits are explicit so reordering or
+ * adding constants never changes the meaning of stored values.
+ */
 public enum Role {
-    USER,
-    DOCTOR,
-    ADMIN,
-    PHARMACY
+    USER(1),
+    DOCTOR(1 << 1),
+    ADMIN(1 << 2),
+    PHARMACY(1 << 3);
+
+    private static final int ALL_BITS;
+    // Immutable role sets and authority lists for every possible mask, shared by all users
+    private static final Set<Role>[] ROLE_SETS;
+    private static final List<GrantedAuthority>[] AUTHORITIES;
+
+    static {
+        int all = 0;
+        for (Role role : values()) {
+            all |= role.bit;
+        }
+        ALL_BITS = all;
+
+        @SuppressWarnings("unchecked")
+        Set<Role>[] roleSets = new Set[all + 1];
+        @SuppressWarnings("unchecked")
+        List<GrantedAuthority>[] authorities = new List[all + 1];
+        for (int mask = 0; mask <= all; mask++) {
+            EnumSet<Role> roles = EnumSet.noneOf(Role.class);
+            List<GrantedAuthority> grants = new ArrayList<>();
+            for (Role role : values()) {
+                if ((mask & role.bit) != 0) {
+                    roles.add(role);
+                    grants.add(new SimpleGrantedAuthority("ROLE_" + role.name()));
+                }
+            }
+            roleSets[mask] = Collections.unmodifiableSet(roles);
+            authorities[mask] = List.copyOf(grants);
+        }
+        ROLE_SETS = roleSets;
+        AUTHORITIES = authorities;
+    }
+
+    private final int bit;
+
+    Role(int bit) {
+        this.bit = bit;
+    }
+
+    public int getBit() {
+        return bit;
+    }
+
+    public static int toMask(Collection<Role> roles) {
+        int mask = 0;
+        if (roles != null) {
+            for (Role role : roles) {
+                mask |= role.bit;
+            }
+        }
+        return mask;
+    }
+
+    /** Unknown bits (e.g. written by a newer version) are ignored. */
+    public static Set<Role> fromMask(int mask) {
+        return ROLE_SETS[mask & ALL_BITS];
+    }
+
+    public static List<GrantedAuthority> authoritiesFor(int mask) {
+        return AUTHORITIES[mask & ALL_BITS];
+    }
 }
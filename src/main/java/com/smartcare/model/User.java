@@ -4,8 +4,8 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.time.LocalDateTime;
@@ -13,6 +13,7 @@ import java.util.*;
 
 @Entity
 @Table(name = "users")
+@DynamicUpdate
 public class User implements UserDetails {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -56,12 +57,9 @@ public class User implements UserDetails {
     private boolean profileCompleted = false;
     private boolean tourCompleted = false;
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @Enumerated(EnumType.STRING)
-    private Set<Role> roles = new HashSet<>();
-
-    @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    private HealthProfile healthProfile;
+    // Bitmask of Role bits; exposed as Set<Role> through getRoles()/setRoles()
+    @Column(name = "role_mask", nullable = false)
+    private int roleMask;
 
     @OneToMany(mappedBy = "patient", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Appointment> appointments = new ArrayList<>();
@@ -96,9 +94,7 @@ public class User implements UserDetails {
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return roles.stream()
-                .map(role -> new SimpleGrantedAuthority("ROLE_" + role.name()))
-                .collect(java.util.stream.Collectors.toList());
+        return Role.authoritiesFor(roleMask);
     }
 
     @Override
@@ -161,11 +157,8 @@ public class User implements UserDetails {
     public boolean isTourCompleted() { return tourCompleted; }
     public void setTourCompleted(boolean tourCompleted) { this.tourCompleted = tourCompleted; }
 
-    public Set<Role> getRoles() { return roles; }
-    public void setRoles(Set<Role> roles) { this.roles = roles; }
-
-    public HealthProfile getHealthProfile() { return healthProfile; }
-    public void setHealthProfile(HealthProfile healthProfile) { this.healthProfile = healthProfile; }
+    public Set<Role> getRoles() { return Role.fromMask(roleMask); }
+    public void setRoles(Set<Role> roles) { this.roleMask = Role.toMask(roles); }
 
     public List<Appointment> getAppointments() { return appointments; }
     public void setAppointments(List<Appointment> appointments) { this.appointments = appointments; }
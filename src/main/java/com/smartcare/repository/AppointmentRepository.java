@@ -1,9 +1,8 @@
 package com.smartcare.repository;
 
+import com.smartcare.dto.appointment.AppointmentDto;
 import com.smartcare.model.Appointment;
 import com.smartcare.model.AppointmentStatus;
-import com.smartcare.model.Doctor;
-import com.smartcare.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -11,38 +10,50 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
-    
-    List<Appointment> findByPatientOrderByAppointmentDateTimeDesc(User patient);
-    
-    List<Appointment> findByDoctorOrderByAppointmentDateTimeDesc(Doctor doctor);
-    
-    List<Appointment> findByPatientAndStatus(User patient, AppointmentStatus status);
-    
-    List<Appointment> findByDoctorAndStatus(Doctor doctor, AppointmentStatus status);
-    
-    @Query("SELECT a FROM Appointment a WHERE a.doctor = :doctor AND " +
+
+    String DTO_SELECT = "SELECT new com.smartcare.dto.appointment.AppointmentDto(a.id, p.id, p.firstName, " +
+            "p.lastName, d.id, d.firstName, d.lastName, d.specialization, a.appointmentDateTime, a.status, " +
+            "a.type, a.reason, a.notes, a.consultationFee, a.meetingLink, a.createdAt, a.updatedAt) " +
+            "FROM Appointment a JOIN a.patient p JOIN a.doctor d ";
+
+    List<Appointment> findByPatientIdAndStatus(Long patientId, AppointmentStatus status);
+
+    List<Appointment> findByDoctorIdAndStatus(Long doctorId, AppointmentStatus status);
+
+    @Query("SELECT CASE WHEN COUNT(a) > 0 THEN true ELSE false END FROM Appointment a " +
+           "WHERE a.doctor.id = :doctorId AND " +
            "a.appointmentDateTime BETWEEN :startDate AND :endDate AND " +
            "a.status IN ('SCHEDULED', 'CONFIRMED')")
-    List<Appointment> findDoctorAppointmentsInRange(
-        @Param("doctor") Doctor doctor,
+    boolean existsDoctorAppointmentInRange(
+        @Param("doctorId") Long doctorId,
         @Param("startDate") LocalDateTime startDate,
         @Param("endDate") LocalDateTime endDate
     );
-    
-    @Query("SELECT a FROM Appointment a WHERE a.patient = :patient AND " +
-           "a.appointmentDateTime >= :now ORDER BY a.appointmentDateTime ASC")
-    List<Appointment> findUpcomingAppointmentsByPatient(
-        @Param("patient") User patient,
+
+    @Query(DTO_SELECT + "WHERE a.id = :id")
+    Optional<AppointmentDto> findDtoById(@Param("id") Long id);
+
+    @Query(DTO_SELECT + "WHERE p.id = :patientId ORDER BY a.appointmentDateTime DESC")
+    List<AppointmentDto> findDtosByPatientId(@Param("patientId") Long patientId);
+
+    @Query(DTO_SELECT + "WHERE d.id = :doctorId ORDER BY a.appointmentDateTime DESC")
+    List<AppointmentDto> findDtosByDoctorId(@Param("doctorId") Long doctorId);
+
+    @Query(DTO_SELECT + "WHERE p.id = :patientId AND a.appointmentDateTime >= :now " +
+           "ORDER BY a.appointmentDateTime ASC")
+    List<AppointmentDto> findUpcomingDtosByPatientId(
+        @Param("patientId") Long patientId,
         @Param("now") LocalDateTime now
     );
-    
-    @Query("SELECT a FROM Appointment a WHERE a.doctor = :doctor AND " +
-           "a.appointmentDateTime >= :now ORDER BY a.appointmentDateTime ASC")
-    List<Appointment> findUpcomingAppointmentsByDoctor(
-        @Param("doctor") Doctor doctor,
+
+    @Query(DTO_SELECT + "WHERE d.id = :doctorId AND a.appointmentDateTime >= :now " +
+           "ORDER BY a.appointmentDateTime ASC")
+    List<AppointmentDto> findUpcomingDtosByDoctorId(
+        @Param("doctorId") Long doctorId,
         @Param("now") LocalDateTime now
     );
 }
@@ -1,5 +1,7 @@
 package com.smartcare.repository;
 
+import com.smartcare.dto.doctor.DoctorDto;
+import com.smartcare.dto.doctor.DoctorSummaryDto;
 import com.smartcare.model.Doctor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -8,31 +10,162 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
-    
-    List<Doctor> findByIsActiveTrue();
-    
-    Page<Doctor> findByIsActiveTrue(Pageable pageable);
-    
-    @Query("SELECT d FROM Doctor d WHERE d.isActive = true AND " +
-           "(:specialization IS NULL OR LOWER(d.specialization) LIKE LOWER(CONCAT('%', :specialization, '%'))) AND " +
-           "(:city IS NULL OR LOWER(d.city) LIKE LOWER(CONCAT('%', :city, '%'))) AND " +
-           "(:state IS NULL OR LOWER(d.state) LIKE LOWER(CONCAT('%', :state, '%'))) AND " +
-           "(:minRating IS NULL OR d.rating >= :minRating)")
-    Page<Doctor> findDoctorsWithFilters(
+
+    String SUMMARY_SELECT = "SELECT new com.smartcare.dto.doctor.DoctorSummaryDto(d.id, d.firstName, d.lastName, " +
+            "d.specialization, d.city, d.state, d.rating, d.totalReviews, d.consultationFee, d.profilePicture) ";
+
+    String DTO_SELECT = "SELECT new com.smartcare.dto.doctor.DoctorDto(d.id, d.firstName, d.lastName, " +
+            "d.specialization, d.qualifications, d.licenseNumber, d.phoneNumber, d.email, d.clinicAddress, " +
+            "d.city, d.state, d.zipCode, d.rating, d.totalReviews, d.consultationFee, d.profilePicture, d.bio, " +
+            "d.isActive, d.createdAt, d.updatedAt) FROM Doctor d ";
+
+    String FILTERS = "FROM Doctor d WHERE d.isActive = true AND " +
+            "(:specialization IS NULL OR LOWER(d.specialization) LIKE LOWER(CONCAT('%', :specialization, '%'))) AND " +
+            "(:city IS NULL OR LOWER(d.city) LIKE LOWER(CONCAT('%', :city, '%'))) AND " +
+            "(:state IS NULL OR LOWER(d.state) LIKE LOWER(CONCAT('%', :state, '%'))) AND " +
+            "(:minRating IS NULL OR d.rating >= :minRating) AND " +
+            // Semi-join: a doctor matches once however many of its languages do, so no DISTINCT is needed
+            "(:language IS NULL OR EXISTS (SELECT l FROM d.languages l " +
+            "WHERE LOWER(l) LIKE LOWER(CONCAT('%', :language, '%'))))";
+
+    // Keyset seeks in (rating desc nulls last, id asc) order; doctors without a rating sort last
+    String AFTER_RATED = " AND ((d.rating <= :afterRating AND (d.rating < :afterRating OR d.id > :afterId)) " +
+            "OR d.rating IS NULL)";
+
+    String AFTER_UNRATED = " AND d.rating IS NULL AND d.id > :afterId";
+
+    // One row per (doctor, language) so a whole page of cards is filled from a single query
+    interface LanguageEntry {
+        Long getDoctorId();
+        String getLanguage();
+    }
+
+    // Where a doctor practices, for nearby search; the rating breaks ties between equal distances
+    interface LocationEntry {
+        Long getDoctorId();
+        String getZipCode();
+        Double getRating();
+    }
+
+    // The long text fields that only the fuzzy index needs beyond the doctor card
+    interface TextEntry {
+        Long getDoctorId();
+        String getQualifications();
+        String getBio();
+    }
+
+    @Query(value = SUMMARY_SELECT + FILTERS, countQuery = "SELECT COUNT(d) " + FILTERS)
+    Page<DoctorSummaryDto> findSummariesWithFilters(
+        @Param("specialization") String specialization,
+        @Param("city") String city,
+        @Param("state") String state,
+        @Param("minRating") Double minRating,
+        @Param("language") String language,
+        Pageable pageable
+    );
+
+    @Query(SUMMARY_SELECT + FILTERS)
+    List<DoctorSummaryDto> findSummaries(
+        @Param("specialization") String specialization,
+        @Param("city") String city,
+        @Param("state") String state,
+        @Param("minRating") Double minRating,
+        @Param("language") String language,
+        Pageable pageable
+    );
+
+    @Query(SUMMARY_SELECT + FILTERS + AFTER_RATED)
+    List<DoctorSummaryDto> findSummariesAfter(
+        @Param("specialization") String specialization,
+        @Param("city") String city,
+        @Param("state") String state,
+        @Param("minRating") Double minRating,
+        @Param("language") String language,
+        @Param("afterRating") Double afterRating,
+        @Param("afterId") Long afterId,
+        Pageable pageable
+    );
+
+    @Query(SUMMARY_SELECT + FILTERS + AFTER_UNRATED)
+    List<DoctorSummaryDto> findSummariesAfterUnrated(
+        @Param("specialization") String specialization,
+        @Param("city") String city,
+        @Param("state") String state,
+        @Param("minRating") Double minRating,
+        @Param("language") String language,
+        @Param("afterId") Long afterId,
+        Pageable pageable
+    );
+
+    @Query("SELECT COUNT(d) " + FILTERS)
+    long countWithFilters(
         @Param("specialization") String specialization,
         @Param("city") String city,
         @Param("state") String state,
         @Param("minRating") Double minRating,
+        @Param("language") String language
+    );
+
+    // Exact-substring stand-in for the fuzzy search while its index is not built
+    @Query(SUMMARY_SELECT + "FROM Doctor d WHERE d.isActive = true AND " +
+            "(:minRating IS NULL OR d.rating >= :minRating) AND " +
+            "(LOWER(CONCAT(d.firstName, ' ', d.lastName)) LIKE LOWER(CONCAT('%', :text, '%')) OR " +
+            "LOWER(d.specialization) LIKE LOWER(CONCAT('%', :text, '%')) OR " +
+            "LOWER(d.qualifications) LIKE LOWER(CONCAT('%', :text, '%')) OR " +
+            "LOWER(d.bio) LIKE LOWER(CONCAT('%', :text, '%')))")
+    List<DoctorSummaryDto> findSummariesByText(
+        @Param("text") String text,
+        @Param("minRating") Double minRating,
         Pageable pageable
     );
-    
-    @Query("SELECT d FROM Doctor d JOIN d.languages l WHERE d.isActive = true AND " +
-           "LOWER(l) LIKE LOWER(CONCAT('%', :language, '%'))")
-    Page<Doctor> findByLanguage(@Param("language") String language, Pageable pageable);
-    
-    List<Doctor> findBySpecializationContainingIgnoreCase(String specialization);
+
+    @Query("SELECT d.id AS doctorId, d.zipCode AS zipCode, d.rating AS rating " + FILTERS +
+            " AND d.zipCode IS NOT NULL")
+    List<LocationEntry> findLocationsWithFilters(
+        @Param("specialization") String specialization,
+        @Param("city") String city,
+        @Param("state") String state,
+        @Param("minRating") Double minRating,
+        @Param("language") String language
+    );
+
+    @Query(SUMMARY_SELECT + "FROM Doctor d WHERE d.id IN :ids")
+    List<DoctorSummaryDto> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    @Query(SUMMARY_SELECT + "FROM Doctor d WHERE LOWER(d.specialization) LIKE LOWER(CONCAT('%', :specialization, '%'))")
+    List<DoctorSummaryDto> findSummariesBySpecialization(@Param("specialization") String specialization);
+
+    @Query(DTO_SELECT + "WHERE d.id = :id")
+    Optional<DoctorDto> findDtoById(@Param("id") Long id);
+
+    @Query("SELECT d.updatedAt FROM Doctor d WHERE d.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    @Query(DTO_SELECT + "WHERE d.isActive = true")
+    List<DoctorDto> findActiveDtos();
+
+    @Query("SELECT d.id AS doctorId, l AS language FROM Doctor d JOIN d.languages l WHERE d.id IN :ids")
+    List<LanguageEntry> findLanguagesByDoctorIds(@Param("ids") Collection<Long> doctorIds);
+
+    // Full scans that feed DoctorSearchIndex, DoctorFuzzyIndex and DoctorGeoIndex
+    @Query(SUMMARY_SELECT + "FROM Doctor d WHERE d.isActive = true")
+    List<DoctorSummaryDto> findActiveSummaries();
+
+    @Query("SELECT d.id AS doctorId, l AS language FROM Doctor d JOIN d.languages l WHERE d.isActive = true")
+    List<LanguageEntry> findActiveLanguages();
+
+    @Query("SELECT d.id AS doctorId, d.qualifications AS qualifications, d.bio AS bio FROM Doctor d " +
+            "WHERE d.isActive = true")
+    List<TextEntry> findActiveTexts();
+
+    @Query("SELECT d.id AS doctorId, d.zipCode AS zipCode, d.rating AS rating FROM Doctor d " +
+            "WHERE d.isActive = true AND d.zipCode IS NOT NULL")
+    List<LocationEntry> findActiveLocations();
 }
@@ -1,13 +1,27 @@
 package com.smartcare.repository;
 
+import com.smartcare.dto.profile.HealthProfileDto;
 import com.smartcare.model.HealthProfile;
-import com.smartcare.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface HealthProfileRepository extends JpaRepository<HealthProfile, Long> {
-    Optional<HealthProfile> findByUser(User user);
+    Optional<HealthProfile> findByUserId(Long userId);
+
+    @Query("SELECT new com.smartcare.dto.profile.HealthProfileDto(h.id, h.user.id, h.height, h.weight, " +
+           "h.bloodType, h.emergencyContactName, h.emergencyContactPhone, h.emergencyContactRelationship, " +
+           "h.additionalNotes, h.createdAt, h.updatedAt) FROM HealthProfile h WHERE h.user.id = :userId")
+    Optional<HealthProfileDto> findDtoByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT c FROM HealthProfile h JOIN h.medicalConditions c WHERE h.id = :id")
+    List<String> findMedicalConditions(@Param("id") Long healthProfileId);
+
+    @Query("SELECT a FROM HealthProfile h JOIN h.allergies a WHERE h.id = :id")
+    List<String> findAllergies(@Param("id") Long healthProfileId);
 }
@@ -1,10 +1,16 @@
 package com.smartcare.repository;
 
 import com.smartcare.model.HealthTracking;
-import com.smartcare.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.util.Optional;
 
 public interface HealthTrackingRepository extends JpaRepository<HealthTracking, Long> {
-    Optional<HealthTracking> findByUser(User user);
+    @Query("SELECT DISTINCT ht FROM HealthTracking ht LEFT JOIN FETCH ht.goals WHERE ht.user.id = :userId")
+    Optional<HealthTracking> findWithGoalsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT ht.id FROM HealthTracking ht WHERE ht.user.id = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
 }
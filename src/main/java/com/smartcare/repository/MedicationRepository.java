@@ -1,8 +1,8 @@
 package com.smartcare.repository;
 
+import com.smartcare.dto.medication.MedicationDto;
 import com.smartcare.model.Medication;
 import com.smartcare.model.MedicationStatus;
-import com.smartcare.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -10,18 +10,29 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface MedicationRepository extends JpaRepository<Medication, Long> {
+
+    String DTO_SELECT = "SELECT new com.smartcare.dto.medication.MedicationDto(m.id, m.user.id, m.medicationName, " +
+            "m.dosage, m.frequency, m.startDate, m.endDate, m.reminderTimes, m.instructions, m.status, " +
+            "m.refillReminderDays, m.remainingQuantity, m.prescribedBy, m.createdAt, m.updatedAt) " +
+            "FROM Medication m ";
+
+    interface ListVersion {
+        long getTotal();
+        LocalDateTime getLastUpdated();
+    }
     
-    List<Medication> findByUserOrderByCreatedAtDesc(User user);
+    List<Medication> findByUserIdOrderByCreatedAtDesc(Long userId);
     
-    List<Medication> findByUserAndStatus(User user, MedicationStatus status);
+    List<Medication> findByUserIdAndStatus(Long userId, MedicationStatus status);
     
-    @Query("SELECT m FROM Medication m WHERE m.user = :user AND m.status = 'ACTIVE' AND " +
+    @Query("SELECT m FROM Medication m WHERE m.user.id = :userId AND m.status = 'ACTIVE' AND " +
            "(m.endDate IS NULL OR m.endDate >= :now)")
-    List<Medication> findActiveMedicationsByUser(
-        @Param("user") User user,
+    List<Medication> findActiveMedicationsByUserId(
+        @Param("userId") Long userId,
         @Param("now") LocalDateTime now
     );
     
@@ -29,4 +40,30 @@ public interface MedicationRepository extends JpaRepository<Medication, Long> {
            "m.remainingQuantity IS NOT NULL AND " +
            "m.remainingQuantity <= m.refillReminderDays")
     List<Medication> findMedicationsNeedingRefill();
+
+    @Query(DTO_SELECT + "WHERE m.id = :id")
+    Optional<MedicationDto> findDtoById(@Param("id") Long id);
+
+    @Query(DTO_SELECT + "WHERE m.user.id = :userId ORDER BY m.createdAt DESC")
+    List<MedicationDto> findDtosByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT COUNT(m) AS total, MAX(m.updatedAt) AS lastUpdated FROM Medication m WHERE m.user.id = :userId")
+    ListVersion findListVersionByUserId(@Param("userId") Long userId);
+
+    @Query(DTO_SELECT + "WHERE m.user.id = :userId AND m.status = :status")
+    List<MedicationDto> findDtosByUserIdAndStatus(
+        @Param("userId") Long userId,
+        @Param("status") MedicationStatus status
+    );
+
+    @Query(DTO_SELECT + "WHERE m.user.id = :userId AND m.status = 'ACTIVE' AND " +
+           "(m.endDate IS NULL OR m.endDate >= :now)")
+    List<MedicationDto> findActiveDtosByUserId(
+        @Param("userId") Long userId,
+        @Param("now") LocalDateTime now
+    );
+
+    @Query(DTO_SELECT + "WHERE m.status = 'ACTIVE' AND m.remainingQuantity IS NOT NULL AND " +
+           "m.remainingQuantity <= m.refillReminderDays")
+    List<MedicationDto> findDtosNeedingRefill();
 }
@@ -0,0 +1,37 @@
+package com.smartcare.repository;
+
+import com.smartcare.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    // Compare-and-set: exactly one concurrent caller can consume a given token
+    @Transactional
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.used = true WHERE t.id = :id AND t.used = false AND t.expiresAt > :now")
+    int markUsed(@Param("id") String id, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.familyId = :familyId")
+    int deleteByFamilyId(@Param("familyId") String familyId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    // Range delete over the expires_at index
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
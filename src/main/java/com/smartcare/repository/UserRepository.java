@@ -1,10 +1,18 @@
 package com.smartcare.repository;
 
+import com.smartcare.dto.profile.UserProfileDto;
 import com.smartcare.model.User;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -12,4 +20,32 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     Boolean existsByUsername(String username);
     Boolean existsByEmail(String email);
+    boolean existsByProfilePicture(String profilePicture);
+
+    // Username matches win over email matches, mirroring the old findByUsername().or(findByEmail()) order
+    @Query("SELECT u FROM User u WHERE u.username = :login OR u.email = :login " +
+           "ORDER BY CASE WHEN u.username = :login THEN 0 ELSE 1 END")
+    List<User> findLoginCandidates(@Param("login") String usernameOrEmail);
+
+    default Optional<User> findByUsernameOrEmail(String usernameOrEmail) {
+        return findLoginCandidates(usernameOrEmail).stream().findFirst();
+    }
+
+    @Query("SELECT new com.smartcare.dto.profile.UserProfileDto(u.id, u.username, u.email, u.firstName, " +
+           "u.lastName, u.phoneNumber, u.dateOfBirth, u.gender, u.profilePicture, u.emailVerified, " +
+           "u.profileCompleted, u.tourCompleted, u.roleMask, u.createdAt, u.updatedAt) " +
+           "FROM User u WHERE u.id = :id")
+    Optional<UserProfileDto> findProfileById(@Param("id") Long id);
+
+    @Query("SELECT u.updatedAt FROM User u WHERE u.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    // Streamed scans used to build the availability index; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT u.username FROM User u")
+    Stream<String> streamAllUsernames();
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT u.email FROM User u")
+    Stream<String> streamAllEmails();
 }
@@ -0,0 +1,12 @@
+package com.smartcare.security;
+
+/**
+ * Thrown when a refresh token cannot be exchanged (invalid, expired, revoked or replayed);
+ * surfaced to clients as 401.
+ */
+public class InvalidRefreshTokenException extends RuntimeException {
+
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
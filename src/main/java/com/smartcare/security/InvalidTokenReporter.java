@@ -0,0 +1,68 @@
+package com.smartcare.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts rejected tokens per failure reason ("security.jwt.invalid") and logs at most one line
+ * per reason per interval, so a client replaying garbage tokens cannot flood the log appenders.
+ */
+@Component
+public class InvalidTokenReporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvalidTokenReporter.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.jwt.invalid-token-log-interval:10s}")
+    private Duration logInterval;
+
+    private final JwtValidationResult.Status[] statuses = JwtValidationResult.Status.values();
+    private final Counter[] counters = new Counter[statuses.length];
+    private final AtomicLong[] lastLoggedAt = new AtomicLong[statuses.length];
+    private final AtomicLong[] suppressed = new AtomicLong[statuses.length];
+    private long logIntervalNanos;
+
+    @PostConstruct
+    public void init() {
+        logIntervalNanos = logInterval.toNanos();
+        long start = System.nanoTime() - logIntervalNanos;
+        for (JwtValidationResult.Status status : statuses) {
+            if (status == JwtValidationResult.Status.VALID) {
+                continue;
+            }
+            int i = status.ordinal();
+            counters[i] = Counter.builder("security.jwt.invalid")
+                    .description("Rejected bearer tokens by failure reason")
+                    .tag("reason", status.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry);
+            lastLoggedAt[i] = new AtomicLong(start);
+            suppressed[i] = new AtomicLong();
+        }
+    }
+
+    public void report(JwtValidationResult.Status status) {
+        int i = status.ordinal();
+        counters[i].increment();
+
+        long now = System.nanoTime();
+        long last = lastLoggedAt[i].get();
+        if (now - last >= logIntervalNanos && lastLoggedAt[i].compareAndSet(last, now)) {
+            long skipped = suppressed[i].getAndSet(0);
+            logger.warn("Rejected JWT token: {} ({} similar rejections not logged)", status, skipped);
+        } else {
+            suppressed[i].incrementAndGet();
+        }
+    }
+}
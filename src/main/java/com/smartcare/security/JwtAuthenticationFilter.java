@@ -8,13 +8,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.function.Supplier;
 
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
@@ -22,31 +26,100 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtTokenProvider tokenProvider;
 
     @Autowired
-    private CustomUserDetailsService customUserDetailsService;
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private InvalidTokenReporter invalidTokenReporter;
+
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    private PrincipalChangeRegistry principalChangeRegistry;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private JwtFilterMetrics filterMetrics;
 
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
+    private final SecurityContextHolderStrategy securityContextHolderStrategy =
+            SecurityContextHolder.getContextHolderStrategy();
+
+    // Public routes never read the principal, so a stale Authorization header costs nothing there
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return PublicRoutes.isPublic(request);
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
                                   FilterChain filterChain) throws ServletException, IOException {
-        try {
-            String jwt = getJwtFromRequest(request);
+        long startedAt = System.nanoTime();
+        String jwt = getJwtFromRequest(request);
+        filterMetrics.recordHeader(jwt != null, System.nanoTime() - startedAt);
+
+        if (StringUtils.hasText(jwt)) {
+            // Verification and the principal lookup run on first access to the security context
+            Supplier<SecurityContext> previous = securityContextHolderStrategy.getDeferredContext();
+            securityContextHolderStrategy.setDeferredContext(
+                    new MemoizedContext(() -> authenticate(jwt, request, previous)));
+        }
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                Long userId = tokenProvider.getUserIdFromJWT(jwt);
+        filterChain.doFilter(request, response);
+    }
 
-                UserDetails userDetails = customUserDetailsService.loadUserById(userId);
-                UsernamePasswordAuthenticationToken authentication = 
-                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+    private SecurityContext authenticate(String jwt, HttpServletRequest request, Supplier<SecurityContext> previous) {
+        try {
+            long startedAt = System.nanoTime();
+            JwtValidationResult result = verifiedTokenCache.resolve(jwt);
+            JwtValidationResult.Status status = result.isValid() && tokenRevocationList.isRevoked(result)
+                    ? JwtValidationResult.Status.REVOKED : result.getStatus();
+            long verifiedAt = System.nanoTime();
+            filterMetrics.recordVerify(status, verifiedAt - startedAt);
+            if (status != JwtValidationResult.Status.VALID) {
+                invalidTokenReporter.report(status);
+                return previous.get();
+            }
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+            UserDetails userDetails;
+            try {
+                userDetails = resolvePrincipal(result);
+            } catch (UsernameNotFoundException ex) {
+                filterMetrics.recordUserMissing(System.nanoTime() - verifiedAt);
+                logger.debug("Token subject no longer exists: {}", ex.getMessage());
+                return previous.get();
             }
+            long loadedAt = System.nanoTime();
+            filterMetrics.recordUserLoaded(loadedAt - verifiedAt);
+
+            UsernamePasswordAuthenticationToken authentication = 
+                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+            SecurityContext context = securityContextHolderStrategy.createEmptyContext();
+            context.setAuthentication(authentication);
+            filterMetrics.recordContext(System.nanoTime() - loadedAt);
+            return context;
         } catch (Exception ex) {
             logger.error("Could not set user authentication in security context", ex);
         }
+        return previous.get();
+    }
 
-        filterChain.doFilter(request, response);
+    private UserDetails resolvePrincipal(JwtValidationResult result) {
+        if (tokenProvider.isStatelessPrincipal()
+                && !principalChangeRegistry.isStale(result.getUserId(),
+                        tokenProvider.getPrincipalIssuedAt(result.getClaims()))) {
+            UserPrincipal principal = tokenProvider.getUserPrincipalFromClaims(result.getClaims());
+            if (principal != null) {
+                return principal;
+            }
+        }
+        // Legacy tokens and tokens issued before a role change are resolved against the database
+        return userPrincipalCache.getOrLoad(result.getUserId());
     }
 
     private String getJwtFromRequest(HttpServletRequest request) {
@@ -56,4 +129,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         return null;
     }
+
+    private static final class MemoizedContext implements Supplier<SecurityContext> {
+        private final Supplier<SecurityContext> delegate;
+        private SecurityContext context;
+
+        MemoizedContext(Supplier<SecurityContext> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public SecurityContext get() {
+            if (context == null) {
+                context = delegate.get();
+            }
+            return context;
+        }
+    }
 }
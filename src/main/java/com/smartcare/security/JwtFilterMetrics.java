@@ -0,0 +1,72 @@
+package com.smartcare.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-stage timers for {@link JwtAuthenticationFilter}, published as "security.jwt.filter" with
+ * stage and outcome tags. Every stage/outcome pair is registered up front so recording is a
+ * plain array lookup and a histogram update, with no tag building or registry lookup per request.
+ */
+@Component
+public class JwtFilterMetrics {
+
+    public static final String METRIC_NAME = "security.jwt.filter";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer headerPresent;
+    private Timer headerAbsent;
+    private final Timer[] verify = new Timer[JwtValidationResult.Status.values().length];
+    private Timer userLoaded;
+    private Timer userMissing;
+    private Timer context;
+
+    @PostConstruct
+    public void init() {
+        headerPresent = timer("header", "present");
+        headerAbsent = timer("header", "absent");
+        for (JwtValidationResult.Status status : JwtValidationResult.Status.values()) {
+            verify[status.ordinal()] = timer("verify", status.name().toLowerCase(Locale.ROOT));
+        }
+        userLoaded = timer("load_user", "valid");
+        userMissing = timer("load_user", "user_missing");
+        context = timer("context", "valid");
+    }
+
+    public void recordHeader(boolean present, long nanos) {
+        (present ? headerPresent : headerAbsent).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordVerify(JwtValidationResult.Status status, long nanos) {
+        verify[status.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordUserLoaded(long nanos) {
+        userLoaded.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordUserMissing(long nanos) {
+        userMissing.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordContext(long nanos) {
+        context.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(String stage, String outcome) {
+        return Timer.builder(METRIC_NAME)
+                .description("Time spent in each stage of JWT request authentication")
+                .tag("stage", stage)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -2,71 +2,299 @@ package com.smartcare.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Component
 public class JwtTokenProvider {
 
-    private static final Logger logger = LoggerFactory.getLogger(JwtTokenProvider.class);
-
     @Value("${app.jwt.secret}")
     private String jwtSecret;
 
     @Value("${app.jwt.expiration}")
     private int jwtExpirationInMs;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    // When enabled, tokens carry the principal so the filter can skip the users lookup
+    @Value("${app.jwt.stateless-principal:false}")
+    private boolean statelessPrincipal;
+
+    private static final int MAX_TOKEN_LENGTH = 8192;
+    private static final byte[] EXP_KEY = "\"exp\"".getBytes(StandardCharsets.US_ASCII);
+
+    private static final String CLAIM_USERNAME = "username";
+    private static final String CLAIM_EMAIL = "email";
+    private static final String CLAIM_FIRST_NAME = "firstName";
+    private static final String CLAIM_LAST_NAME = "lastName";
+    private static final String CLAIM_ROLES = "roles";
+    private static final String CLAIM_TOKEN_TYPE = "typ";
+    private static final String CLAIM_FAMILY = "fam";
+    // When the embedded principal was read from the database, in epoch seconds; unlike iat it is
+    // copied unchanged into tokens minted from this one, so they cannot hide a later change
+    private static final String CLAIM_PRINCIPAL_ISSUED_AT = "pat";
+    private static final String TOKEN_TYPE_REFRESH = "refresh";
+
+    // Built once: the key and parser are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
 
     public String generateToken(Authentication authentication) {
-        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        return generateToken((UserPrincipal) authentication.getPrincipal());
+    }
+
+    public String generateToken(UserPrincipal userPrincipal) {
+        return generateToken(userPrincipal, new Date());
+    }
 
+    /** Access token for a principal read from the database at principalIssuedAt. */
+    public String generateToken(UserPrincipal userPrincipal, Date principalIssuedAt) {
         Date expiryDate = new Date(System.currentTimeMillis() + jwtExpirationInMs);
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
+                .setSubject(Long.toString(userPrincipal.getId()))
+                .setId(newTokenId())
+                .setIssuedAt(new Date())
+                .setExpiration(expiryDate);
+
+        if (statelessPrincipal) {
+            addPrincipalClaims(builder, userPrincipal, principalIssuedAt);
+        }
+
+        return builder.signWith(signingKey).compact();
+    }
+
+    /**
+     * Refresh tokens always embed the principal so a refresh can mint the next access token
+     * without reading the users table. They are rejected by {@link #parseToken}.
+     */
+    public String generateRefreshToken(UserPrincipal userPrincipal, Date principalIssuedAt, String tokenId,
+                                       String familyId, Date expiryDate) {
+        JwtBuilder builder = Jwts.builder()
                 .setSubject(Long.toString(userPrincipal.getId()))
+                .setId(tokenId)
                 .setIssuedAt(new Date())
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey())
-                .compact();
+                .claim(CLAIM_TOKEN_TYPE, TOKEN_TYPE_REFRESH)
+                .claim(CLAIM_FAMILY, familyId);
+        addPrincipalClaims(builder, userPrincipal, principalIssuedAt);
+
+        return builder.signWith(signingKey).compact();
+    }
+
+    // 16 hex digits so revocation can key on a primitive long; 0 is reserved for "no id"
+    private static String newTokenId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0L);
+        String hex = Long.toHexString(id);
+        return "0000000000000000".substring(hex.length()) + hex;
+    }
+
+    private void addPrincipalClaims(JwtBuilder builder, UserPrincipal userPrincipal, Date principalIssuedAt) {
+        List<String> roles = new ArrayList<>();
+        for (GrantedAuthority authority : userPrincipal.getAuthorities()) {
+            roles.add(authority.getAuthority());
+        }
+        builder.claim(CLAIM_USERNAME, userPrincipal.getUsername())
+                .claim(CLAIM_EMAIL, userPrincipal.getEmail())
+                .claim(CLAIM_FIRST_NAME, userPrincipal.getFirstName())
+                .claim(CLAIM_LAST_NAME, userPrincipal.getLastName())
+                .claim(CLAIM_ROLES, roles)
+                .claim(CLAIM_PRINCIPAL_ISSUED_AT, principalIssuedAt.getTime() / 1000);
     }
 
-    public Long getUserIdFromJWT(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * When the embedded principal was read from the database, for the staleness check. Tokens
+     * issued before the claim existed fall back to their own issue time.
+     */
+    public Date getPrincipalIssuedAt(Claims claims) {
+        Number seconds = claims.get(CLAIM_PRINCIPAL_ISSUED_AT, Number.class);
+        return seconds == null ? claims.getIssuedAt() : new Date(seconds.longValue() * 1000);
+    }
+
+    public boolean isStatelessPrincipal() {
+        return statelessPrincipal;
+    }
+
+    /**
+     * Rebuilds the principal embedded by {@link #generateToken} in stateless mode.
+     * Returns null when the token does not carry one (e.g. it was issued before the mode was enabled).
+     */
+    public UserPrincipal getUserPrincipalFromClaims(Claims claims) {
+        String username = claims.get(CLAIM_USERNAME, String.class);
+        List<?> roles = claims.get(CLAIM_ROLES, List.class);
+        if (username == null || roles == null) {
+            return null;
+        }
+
+        List<GrantedAuthority> authorities = new ArrayList<>(roles.size());
+        for (Object role : roles) {
+            authorities.add(new SimpleGrantedAuthority(String.valueOf(role)));
+        }
 
-        return Long.parseLong(claims.getSubject());
+        return new UserPrincipal(
+                Long.parseLong(claims.getSubject()),
+                claims.get(CLAIM_FIRST_NAME, String.class),
+                claims.get(CLAIM_LAST_NAME, String.class),
+                username,
+                claims.get(CLAIM_EMAIL, String.class),
+                null,
+                authorities
+        );
     }
 
-    public boolean validateToken(String authToken) {
+    /**
+     * Verifies the token signature and expiry in a single pass and returns either the
+     * parsed claims or the reason the token was rejected. Structurally invalid and already
+     * expired tokens are rejected by a cheap pre-check before any parsing or HMAC work, and
+     * no failure is logged here; callers report rejections through {@link InvalidTokenReporter}.
+     * Refresh tokens are not accepted as access tokens and are reported as UNSUPPORTED.
+     */
+    public JwtValidationResult parseToken(String authToken) {
+        JwtValidationResult result = verify(authToken);
+        if (result.isValid() && isRefreshToken(result.getClaims())) {
+            return JwtValidationResult.failure(JwtValidationResult.Status.UNSUPPORTED);
+        }
+        return result;
+    }
+
+    /** Counterpart of {@link #parseToken} that only accepts refresh tokens. */
+    public JwtValidationResult parseRefreshToken(String refreshToken) {
+        JwtValidationResult result = verify(refreshToken);
+        if (result.isValid() && !isRefreshToken(result.getClaims())) {
+            return JwtValidationResult.failure(JwtValidationResult.Status.UNSUPPORTED);
+        }
+        return result;
+    }
+
+    public String getRefreshFamily(Claims claims) {
+        return claims.get(CLAIM_FAMILY, String.class);
+    }
+
+    private static boolean isRefreshToken(Claims claims) {
+        return TOKEN_TYPE_REFRESH.equals(claims.get(CLAIM_TOKEN_TYPE));
+    }
+
+    private JwtValidationResult verify(String authToken) {
+        JwtValidationResult.Status precheck = precheck(authToken, System.currentTimeMillis());
+        if (precheck != null) {
+            return JwtValidationResult.failure(precheck);
+        }
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
-        } catch (SecurityException ex) {
-            logger.error("Invalid JWT signature");
-        } catch (MalformedJwtException ex) {
-            logger.error("Invalid JWT token");
+            Claims claims = jwtParser.parseClaimsJws(authToken).getBody();
+            return JwtValidationResult.valid(claims);
         } catch (ExpiredJwtException ex) {
-            logger.error("Expired JWT token");
+            return JwtValidationResult.failure(JwtValidationResult.Status.EXPIRED);
+        } catch (io.jsonwebtoken.security.SecurityException ex) {
+            return JwtValidationResult.failure(JwtValidationResult.Status.INVALID_SIGNATURE);
         } catch (UnsupportedJwtException ex) {
-            logger.error("Unsupported JWT token");
-        } catch (IllegalArgumentException ex) {
-            logger.error("JWT claims string is empty.");
+            return JwtValidationResult.failure(JwtValidationResult.Status.UNSUPPORTED);
+        } catch (JwtException | IllegalArgumentException ex) {
+            // NumberFormatException (non-numeric subject) is an IllegalArgumentException too
+            return JwtValidationResult.failure(JwtValidationResult.Status.MALFORMED);
+        }
+    }
+
+    /**
+     * Exception-free structural check: three base64url segments, a signature, and an exp claim
+     * (if present) that is still in the future. Returns null when the token deserves full verification.
+     */
+    static JwtValidationResult.Status precheck(String token, long nowMillis) {
+        if (token == null || token.isEmpty()) {
+            return JwtValidationResult.Status.EMPTY;
+        }
+        int length = token.length();
+        if (length > MAX_TOKEN_LENGTH) {
+            return JwtValidationResult.Status.MALFORMED;
+        }
+
+        int firstDot = -1;
+        int secondDot = -1;
+        for (int i = 0; i < length; i++) {
+            char c = token.charAt(i);
+            if (c == '.') {
+                if (firstDot < 0) {
+                    firstDot = i;
+                } else if (secondDot < 0) {
+                    secondDot = i;
+                } else {
+                    return JwtValidationResult.Status.MALFORMED;
+                }
+            } else if (!isBase64UrlChar(c)) {
+                return JwtValidationResult.Status.MALFORMED;
+            }
+        }
+        if (firstDot <= 0 || secondDot <= firstDot + 1) {
+            return JwtValidationResult.Status.MALFORMED;
+        }
+        if (secondDot == length - 1) {
+            // Unsigned (alg=none) tokens are never accepted
+            return JwtValidationResult.Status.UNSUPPORTED;
+        }
+        if ((secondDot - firstDot - 1) % 4 == 1 || firstDot % 4 == 1 || (length - secondDot - 1) % 4 == 1) {
+            // No base64 encoding produces a final group of a single character
+            return JwtValidationResult.Status.MALFORMED;
+        }
+
+        byte[] payload = Base64.getUrlDecoder().decode(token.substring(firstDot + 1, secondDot));
+        long expiresAt = readExpiration(payload);
+        if (expiresAt >= 0 && expiresAt * 1000 <= nowMillis) {
+            return JwtValidationResult.Status.EXPIRED;
+        }
+        return null;
+    }
+
+    private static boolean isBase64UrlChar(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_';
+    }
+
+    /**
+     * Finds a numeric "exp" member in the raw payload JSON. Returns -1 when absent or not a plain
+     * integer, in which case the full parser decides.
+     */
+    private static long readExpiration(byte[] json) {
+        outer:
+        for (int i = 0; i + EXP_KEY.length <= json.length; i++) {
+            for (int j = 0; j < EXP_KEY.length; j++) {
+                if (json[i + j] != EXP_KEY[j]) {
+                    continue outer;
+                }
+            }
+            int pos = i + EXP_KEY.length;
+            while (pos < json.length && (json[pos] == ' ' || json[pos] == ':')) {
+                pos++;
+            }
+            long value = 0;
+            int digits = 0;
+            while (pos < json.length && json[pos] >= '0' && json[pos] <= '9') {
+                if (++digits > 12) {
+                    return -1;
+                }
+                value = value * 10 + (json[pos] - '0');
+                pos++;
+            }
+            return digits > 0 ? value : -1;
         }
-        return false;
+        return -1;
     }
 }
@@ -0,0 +1,95 @@
+package com.smartcare.security;
+
+import io.jsonwebtoken.Claims;
+
+public final class JwtValidationResult {
+
+    public enum Status {
+        VALID,
+        EMPTY,
+        MALFORMED,
+        EXPIRED,
+        INVALID_SIGNATURE,
+        UNSUPPORTED,
+        REVOKED
+    }
+
+    private static final JwtValidationResult EMPTY = new JwtValidationResult(Status.EMPTY, null);
+    private static final JwtValidationResult MALFORMED = new JwtValidationResult(Status.MALFORMED, null);
+    private static final JwtValidationResult EXPIRED = new JwtValidationResult(Status.EXPIRED, null);
+    private static final JwtValidationResult INVALID_SIGNATURE = new JwtValidationResult(Status.INVALID_SIGNATURE, null);
+    private static final JwtValidationResult UNSUPPORTED = new JwtValidationResult(Status.UNSUPPORTED, null);
+    private static final JwtValidationResult REVOKED = new JwtValidationResult(Status.REVOKED, null);
+
+    private final Status status;
+    private final Claims claims;
+    private final Long userId;
+    // Primitive copies so the per-request revocation check does not touch the claims map
+    private final long tokenId;
+    private final long expiresAtMillis;
+
+    private JwtValidationResult(Status status, Claims claims) {
+        this.status = status;
+        this.claims = claims;
+        this.userId = claims != null ? Long.valueOf(claims.getSubject()) : null;
+        this.tokenId = claims != null ? parseTokenId(claims.getId()) : 0L;
+        this.expiresAtMillis = claims != null && claims.getExpiration() != null ? claims.getExpiration().getTime() : 0L;
+    }
+
+    public static JwtValidationResult valid(Claims claims) {
+        return new JwtValidationResult(Status.VALID, claims);
+    }
+
+    public static JwtValidationResult failure(Status status) {
+        switch (status) {
+            case EMPTY: return EMPTY;
+            case EXPIRED: return EXPIRED;
+            case INVALID_SIGNATURE: return INVALID_SIGNATURE;
+            case UNSUPPORTED: return UNSUPPORTED;
+            case MALFORMED: return MALFORMED;
+            case REVOKED: return REVOKED;
+            default: throw new IllegalArgumentException("Not a failure status: " + status);
+        }
+    }
+
+    public boolean isValid() {
+        return status == Status.VALID;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Claims getClaims() {
+        return claims;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    /** The numeric token id (jti), or 0 when the token has none. */
+    public long getTokenId() {
+        return tokenId;
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    /** Access token ids are 16 hex digits; anything else (e.g. refresh token ids) maps to 0. */
+    static long parseTokenId(String jti) {
+        if (jti == null || jti.length() != 16) {
+            return 0L;
+        }
+        long value = 0L;
+        for (int i = 0; i < 16; i++) {
+            int digit = Character.digit(jti.charAt(i), 16);
+            if (digit < 0) {
+                return 0L;
+            }
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+}
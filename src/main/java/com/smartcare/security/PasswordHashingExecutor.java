@@ -0,0 +1,118 @@
+package com.smartcare.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool that runs BCrypt work off the request threads. When the queue is full, or a task
+ * waits longer than the configured timeout, callers get {@link PasswordHashingUnavailableException}
+ * instead of piling up behind the hashing backlog.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.security.password-hashing.threads:0}")
+    private int threads;
+
+    @Value("${app.security.password-hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${app.security.password-hashing.timeout:5s}")
+    private Duration timeout;
+
+    private ThreadPoolExecutor executor;
+    private Timer queueWaitTimer;
+    private Timer matchesTimer;
+    private Timer encodeTimer;
+
+    @PostConstruct
+    public void init() {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        new ExecutorServiceMetrics(executor, "passwordHashing", Tags.empty()).bindTo(meterRegistry);
+        queueWaitTimer = Timer.builder("security.password.hashing.queue.wait")
+                .description("Time a password hashing task waited for a worker")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        matchesTimer = Timer.builder("security.password.hashing")
+                .tag("operation", "matches")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        encodeTimer = Timer.builder("security.password.hashing")
+                .tag("operation", "encode")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public boolean matches(Supplier<Boolean> task) {
+        return submit(task, matchesTimer);
+    }
+
+    public String encode(Supplier<String> task) {
+        return submit(task, encodeTimer);
+    }
+
+    private <T> T submit(Supplier<T> task, Timer hashTimer) {
+        long enqueuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                queueWaitTimer.record(startedAt - enqueuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return task.get();
+                } finally {
+                    hashTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw new PasswordHashingUnavailableException("Password hashing queue is full");
+        }
+
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new PasswordHashingUnavailableException("Password hashing timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new PasswordHashingUnavailableException("Password hashing interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
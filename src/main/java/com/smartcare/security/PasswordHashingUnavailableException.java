@@ -0,0 +1,11 @@
+package com.smartcare.security;
+
+/**
+ * Thrown when the password hashing pool cannot take more work; surfaced to clients as 503.
+ */
+public class PasswordHashingUnavailableException extends RuntimeException {
+
+    public PasswordHashingUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,73 @@
+package com.smartcare.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smartcare.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * Tells whether a principal embedded in a token is older than the user's last persisted change
+ * ({@code User.updatedAt}), so it is no longer trusted. The timestamp lives in the database, so
+ * it survives restarts and is shared by every instance; lookups are cached for a short ttl, which
+ * bounds how long another instance can keep trusting an outdated token. A user that no longer
+ * exists is always stale.
+ */
+@Component
+public class PrincipalChangeRegistry {
+
+    private static final long USER_REMOVED = Long.MAX_VALUE;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.security.principal-changes.max-size:100000}")
+    private long maxSize;
+
+    @Value("${app.security.principal-changes.ttl:30s}")
+    private Duration ttl;
+
+    // User id -> epoch millis of the last change
+    private Cache<Long, Long> changedAt;
+
+    @PostConstruct
+    public void init() {
+        changedAt = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Drops the cached timestamp so this instance sees the change on its next check. Call it once
+     * the change is committed, otherwise the old timestamp may be read back in the meantime.
+     */
+    public void markChanged(Long userId) {
+        changedAt.invalidate(userId);
+    }
+
+    public boolean isStale(Long userId, Date issuedAt) {
+        long changed = changedAt.get(userId, this::loadChangedAt);
+        // JWT iat has second precision, so a token issued in the same second as the change is treated as stale
+        return issuedAt == null || issuedAt.getTime() <= changed;
+    }
+
+    // Expired entries are otherwise only dropped as a side effect of later cache activity
+    @Scheduled(fixedDelayString = "${app.security.principal-changes.cleanup-interval:PT1M}")
+    public void pruneExpired() {
+        changedAt.cleanUp();
+    }
+
+    private long loadChangedAt(Long userId) {
+        return userRepository.findUpdatedAtById(userId)
+                .map(updatedAt -> updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+                .orElse(USER_REMOVED);
+    }
+}
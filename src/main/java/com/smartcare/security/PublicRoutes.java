@@ -0,0 +1,78 @@
+package com.smartcare.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routes that are open to anonymous callers. Patterns are relative to the servlet context path
+ * and are shared by the authorization rules in {@link SecurityConfig} and by
+ * {@link JwtAuthenticationFilter}, which skips token handling on these routes altogether.
+ */
+public final class PublicRoutes {
+
+    private static final String[] PATTERNS = {
+            "/auth/**",
+            "/doctors/search/**",
+            "/h2-console/**",
+            "/swagger-ui.html",
+            "/swagger-ui/**",
+            "/v3/api-docs/**"
+    };
+
+    private static final RequestMatcher MATCHER;
+    // Precompiled form of PATTERNS for the per-request check in the JWT filter
+    private static final String[] EXACT_PATHS;
+    private static final String[] PREFIXES;
+
+    static {
+        List<RequestMatcher> matchers = new ArrayList<>(PATTERNS.length);
+        List<String> exactPaths = new ArrayList<>();
+        List<String> prefixes = new ArrayList<>();
+        for (String pattern : PATTERNS) {
+            matchers.add(AntPathRequestMatcher.antMatcher(pattern));
+            if (pattern.endsWith("/**")) {
+                String base = pattern.substring(0, pattern.length() - 3);
+                exactPaths.add(base);
+                prefixes.add(base + "/");
+            } else {
+                exactPaths.add(pattern);
+            }
+        }
+        MATCHER = new OrRequestMatcher(matchers);
+        EXACT_PATHS = exactPaths.toArray(new String[0]);
+        PREFIXES = prefixes.toArray(new String[0]);
+    }
+
+    private PublicRoutes() {
+    }
+
+    public static RequestMatcher matcher() {
+        return MATCHER;
+    }
+
+    /**
+     * Allocation-free classification of the request path (request URI minus context path).
+     * The firewall has already rejected non-normalized paths by the time filters run.
+     */
+    public static boolean isPublic(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        int offset = request.getContextPath().length();
+        int pathLength = uri.length() - offset;
+        for (String path : EXACT_PATHS) {
+            if (pathLength == path.length() && uri.startsWith(path, offset)) {
+                return true;
+            }
+        }
+        for (String prefix : PREFIXES) {
+            if (uri.startsWith(prefix, offset)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,261 @@
+package com.smartcare.security;
+
+import com.smartcare.model.RevokedToken;
+import com.smartcare.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Revoked access token ids, grouped into a ring of buckets by expiry time. A token can only be
+ * in the bucket for its own exp, so a lookup is one array read plus a probe of a primitive long
+ * hash set, and a bucket is dropped as a whole once every token in it has expired. Revocations
+ * are written through to the revoked_tokens table and reloaded on startup. Every poll-interval
+ * the rows revoked since the previous load are read back, so a token revoked on another instance
+ * is rejected here within about one interval. Instance clocks are assumed to agree to within
+ * that interval.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.jwt.expiration}")
+    private long jwtExpirationInMs;
+
+    @Value("${app.jwt.revocation.bucket-width:PT1M}")
+    private Duration bucketWidth;
+
+    @Value("${app.jwt.revocation.poll-interval:PT10S}")
+    private Duration pollInterval;
+
+    private long bucketWidthMillis;
+    private AtomicReferenceArray<Bucket> ring;
+    // Tokens expiring beyond the ring horizon, e.g. issued before the access token lifetime was lowered
+    private final Map<Long, Long> overflow = new ConcurrentHashMap<>();
+    private Counter revocations;
+    // Start of the last load; the next poll reads rows revoked after it
+    private volatile Instant loadedAt;
+
+    @PostConstruct
+    public void init() {
+        bucketWidthMillis = Math.max(1000, bucketWidth.toMillis());
+        ring = new AtomicReferenceArray<>((int) (jwtExpirationInMs / bucketWidthMillis) + 2);
+
+        revocations = Counter.builder("security.jwt.revocations")
+                .description("Access tokens revoked before expiry")
+                .register(meterRegistry);
+        Gauge.builder("security.jwt.revocation.size", this, TokenRevocationList::size)
+                .description("Revoked access tokens that have not expired yet")
+                .register(meterRegistry);
+
+        Instant startTime = Instant.now();
+        load(() -> revokedTokenRepository.findByExpiresAtAfter(startTime));
+        loadedAt = startTime;
+        logger.info("TokenRevocationList | init | loaded {} revoked tokens", size());
+    }
+
+    /** Picks up tokens revoked by other instances since the previous load. */
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.poll-interval:PT10S}",
+               initialDelayString = "${app.jwt.revocation.poll-interval:PT10S}")
+    public void pollRevocations() {
+        Instant startTime = Instant.now();
+        // Looks back one more interval for rows that committed after the previous poll had read past them
+        Instant since = loadedAt.minus(pollInterval);
+        load(() -> revokedTokenRepository.findByRevokedAtAfter(since));
+        loadedAt = startTime;
+    }
+
+    /**
+     * Allocation-free for tokens within the ring horizon; tokenId 0 (no jti) is never revoked.
+     */
+    public boolean isRevoked(long tokenId, long expiresAtMillis) {
+        if (tokenId == 0L) {
+            return false;
+        }
+        long slot = expiresAtMillis / bucketWidthMillis;
+        Bucket bucket = ring.get((int) (slot % ring.length()));
+        if (bucket != null && bucket.slot == slot && bucket.ids.contains(tokenId)) {
+            return true;
+        }
+        return !overflow.isEmpty() && overflow.containsKey(tokenId);
+    }
+
+    public boolean isRevoked(JwtValidationResult result) {
+        return isRevoked(result.getTokenId(), result.getExpiresAtMillis());
+    }
+
+    /** Revokes a verified access token. Returns false when the token has no id or is already revoked. */
+    public boolean revoke(JwtValidationResult result) {
+        long tokenId = result.getTokenId();
+        long expiresAtMillis = result.getExpiresAtMillis();
+        if (tokenId == 0L || expiresAtMillis <= System.currentTimeMillis() || isRevoked(tokenId, expiresAtMillis)) {
+            return false;
+        }
+
+        addInMemory(tokenId, expiresAtMillis);
+        revocations.increment();
+        try {
+            revokedTokenRepository.save(new RevokedToken(tokenId, result.getUserId(), Instant.ofEpochMilli(expiresAtMillis)));
+        } catch (DataIntegrityViolationException e) {
+            // Revoked concurrently by another request; the row is already there
+        }
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.bucket-width:PT1M}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        long currentSlot = now / bucketWidthMillis;
+        for (int i = 0; i < ring.length(); i++) {
+            Bucket bucket = ring.get(i);
+            if (bucket != null && bucket.slot < currentSlot) {
+                ring.compareAndSet(i, bucket, null);
+            }
+        }
+        overflow.values().removeIf(expiresAt -> expiresAt <= now);
+        revokedTokenRepository.deleteExpired(Instant.ofEpochMilli(now));
+    }
+
+    public long size() {
+        long size = overflow.size();
+        for (int i = 0; i < ring.length(); i++) {
+            Bucket bucket = ring.get(i);
+            if (bucket != null) {
+                size += bucket.ids.size();
+            }
+        }
+        return size;
+    }
+
+    private void load(Supplier<Stream<RevokedTokenRepository.Entry>> query) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<RevokedTokenRepository.Entry> entries = query.get()) {
+                entries.forEach(entry -> addInMemory(entry.getTokenId(), entry.getExpiresAt().toEpochMilli()));
+            }
+        });
+    }
+
+    private synchronized void addInMemory(long tokenId, long expiresAtMillis) {
+        long now = System.currentTimeMillis();
+        if (expiresAtMillis <= now) {
+            return;
+        }
+        long slot = expiresAtMillis / bucketWidthMillis;
+        if (slot - now / bucketWidthMillis >= ring.length()) {
+            overflow.put(tokenId, expiresAtMillis);
+            return;
+        }
+
+        int index = (int) (slot % ring.length());
+        Bucket bucket = ring.get(index);
+        // Any other slot mapping to this index is at least a full ring older, so already expired
+        if (bucket == null || bucket.slot != slot) {
+            bucket = new Bucket(slot);
+            ring.set(index, bucket);
+        }
+        bucket.ids.add(tokenId);
+    }
+
+    private static final class Bucket {
+        final long slot;
+        final LongHashSet ids = new LongHashSet();
+
+        Bucket(long slot) {
+            this.slot = slot;
+        }
+    }
+
+    /**
+     * Open-addressing set of non-zero longs (8 bytes per slot, at most half full). Writers are
+     * serialized by the enclosing list; readers never lock and see a fully built table on resize.
+     */
+    static final class LongHashSet {
+        private volatile AtomicLongArray table = new AtomicLongArray(16);
+        private volatile int size;
+
+        boolean contains(long key) {
+            AtomicLongArray t = table;
+            int mask = t.length() - 1;
+            int i = index(key, mask);
+            long value;
+            while ((value = t.get(i)) != 0L) {
+                if (value == key) {
+                    return true;
+                }
+                i = (i + 1) & mask;
+            }
+            return false;
+        }
+
+        void add(long key) {
+            if ((size + 1) * 2 > table.length()) {
+                AtomicLongArray grown = new AtomicLongArray(table.length() * 2);
+                AtomicLongArray old = table;
+                for (int i = 0; i < old.length(); i++) {
+                    long value = old.get(i);
+                    if (value != 0L) {
+                        insert(grown, value);
+                    }
+                }
+                table = grown;
+            }
+            if (insert(table, key)) {
+                size++;
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        private static boolean insert(AtomicLongArray t, long key) {
+            int mask = t.length() - 1;
+            int i = index(key, mask);
+            long value;
+            while ((value = t.get(i)) != 0L) {
+                if (value == key) {
+                    return false;
+                }
+                i = (i + 1) & mask;
+            }
+            t.set(i, key);
+            return true;
+        }
+
+        private static int index(long key, int mask) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+}
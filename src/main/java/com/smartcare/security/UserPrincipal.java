@@ -15,6 +15,8 @@ public class UserPrincipal implements UserDetails {
     private String email;
     private String password;
     private Collection<? extends GrantedAuthority> authorities;
+    private boolean profileCompleted;
+    private boolean tourCompleted;
 
     public UserPrincipal(Long id, String firstName, String lastName, String username, 
                         String email, String password, Collection<? extends GrantedAuthority> authorities) {
@@ -27,6 +29,14 @@ public class UserPrincipal implements UserDetails {
         this.authorities = authorities;
     }
 
+    public UserPrincipal(Long id, String firstName, String lastName, String username, 
+                        String email, String password, Collection<? extends GrantedAuthority> authorities,
+                        boolean profileCompleted, boolean tourCompleted) {
+        this(id, firstName, lastName, username, email, password, authorities);
+        this.profileCompleted = profileCompleted;
+        this.tourCompleted = tourCompleted;
+    }
+
     public static UserPrincipal create(User user) {
         return new UserPrincipal(
                 user.getId(),
@@ -35,7 +45,9 @@ public class UserPrincipal implements UserDetails {
                 user.getUsername(),
                 user.getEmail(),
                 user.getPassword(),
-                user.getAuthorities()
+                user.getAuthorities(),
+                user.isProfileCompleted(),
+                user.isTourCompleted()
         );
     }
 
@@ -55,6 +67,14 @@ public class UserPrincipal implements UserDetails {
         return email;
     }
 
+    public boolean isProfileCompleted() {
+        return profileCompleted;
+    }
+
+    public boolean isTourCompleted() {
+        return tourCompleted;
+    }
+
     @Override
     public String getUsername() {
         return username;
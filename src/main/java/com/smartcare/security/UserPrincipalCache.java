@@ -0,0 +1,59 @@
+package com.smartcare.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Bounded cache of principals in front of {@link CustomUserDetailsService#loadUserById}.
+ * Hit, miss and eviction counts are published as the "userPrincipals" cache metrics.
+ */
+@Component
+public class UserPrincipalCache {
+
+    @Autowired
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.security.principal-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.security.principal-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${app.security.principal-cache.ttl:5m}")
+    private Duration ttl;
+
+    private Cache<Long, UserDetails> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userPrincipals");
+    }
+
+    public UserDetails getOrLoad(Long userId) {
+        if (!enabled) {
+            return customUserDetailsService.loadUserById(userId);
+        }
+        return cache.get(userId, customUserDetailsService::loadUserById);
+    }
+
+    public void evict(Long userId) {
+        cache.invalidate(userId);
+    }
+}
@@ -0,0 +1,116 @@
+package com.smartcare.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Date;
+
+/**
+ * Remembers tokens that already passed signature verification, keyed by their SHA-256 digest,
+ * so clients replaying the same bearer token skip the HMAC check and claims parsing.
+ * Entries never outlive the token's own expiry.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    // Rough per-entry footprint: digest key, cache node and the parsed claims map
+    private static final int ENTRY_OVERHEAD_BYTES = 160;
+    private static final int CLAIM_BYTES = 96;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.jwt.verified-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.jwt.verified-cache.max-memory-bytes:16777216}")
+    private long maxMemoryBytes;
+
+    @Value("${app.jwt.verified-cache.max-ttl:15m}")
+    private Duration maxTtl;
+
+    private Cache<ByteBuffer, JwtValidationResult> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maxMemoryBytes)
+                .weigher((ByteBuffer key, JwtValidationResult value) ->
+                        ENTRY_OVERHEAD_BYTES + value.getClaims().size() * CLAIM_BYTES)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "verifiedTokens");
+    }
+
+    /**
+     * Returns the cached verification result for the token, verifying and caching it on a miss.
+     * Only valid tokens are cached; failures are always recomputed.
+     */
+    public JwtValidationResult resolve(String token) {
+        if (!enabled || token == null || token.isEmpty()) {
+            return tokenProvider.parseToken(token);
+        }
+
+        ByteBuffer key = digest(token);
+        JwtValidationResult cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        JwtValidationResult result = tokenProvider.parseToken(token);
+        if (result.isValid() && result.getClaims().getExpiration() != null) {
+            cache.put(key, result);
+        }
+        return result;
+    }
+
+    private static ByteBuffer digest(String token) {
+        return ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private final class TokenExpiry implements Expiry<ByteBuffer, JwtValidationResult> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, JwtValidationResult value, long currentTime) {
+            Date expiration = value.getClaims().getExpiration();
+            long untilExpiry = Duration.ofMillis(expiration.getTime() - System.currentTimeMillis()).toNanos();
+            return Math.max(0, Math.min(untilExpiry, maxTtl.toNanos()));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, JwtValidationResult value,
+                                      long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, JwtValidationResult value,
+                                    long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.smartcare.service;
 
+import com.smartcare.dto.appointment.AppointmentDto;
 import com.smartcare.model.*;
 import com.smartcare.repository.AppointmentRepository;
 import com.smartcare.repository.DoctorRepository;
@@ -32,10 +33,8 @@ public class AppointmentService {
                 .orElseThrow(() -> new RuntimeException("Doctor not found"));
 
         // Check if the slot is available
-        List<Appointment> existingAppointments = appointmentRepository.findDoctorAppointmentsInRange(
-                doctor, appointmentDateTime, appointmentDateTime.plusMinutes(30));
-        
-        if (!existingAppointments.isEmpty()) {
+        if (appointmentRepository.existsDoctorAppointmentInRange(
+                doctorId, appointmentDateTime, appointmentDateTime.plusMinutes(30))) {
             throw new RuntimeException("Time slot is not available");
         }
 
@@ -51,34 +50,26 @@ public class AppointmentService {
         return appointmentRepository.save(appointment);
     }
 
-    public List<Appointment> getPatientAppointments(Long patientId) {
-        User patient = userRepository.findById(patientId)
-                .orElseThrow(() -> new RuntimeException("Patient not found"));
-        return appointmentRepository.findByPatientOrderByAppointmentDateTimeDesc(patient);
+    public List<AppointmentDto> getPatientAppointments(Long patientId) {
+        return appointmentRepository.findDtosByPatientId(patientId);
     }
 
-    public List<Appointment> getDoctorAppointments(Long doctorId) {
-        Doctor doctor = doctorRepository.findById(doctorId)
-                .orElseThrow(() -> new RuntimeException("Doctor not found"));
-        return appointmentRepository.findByDoctorOrderByAppointmentDateTimeDesc(doctor);
+    public List<AppointmentDto> getDoctorAppointments(Long doctorId) {
+        return appointmentRepository.findDtosByDoctorId(doctorId);
     }
 
-    public List<Appointment> getUpcomingAppointments(Long userId, String userType) {
+    public List<AppointmentDto> getUpcomingAppointments(Long userId, String userType) {
         LocalDateTime now = LocalDateTime.now();
         
         if ("patient".equals(userType)) {
-            User patient = userRepository.findById(userId)
-                    .orElseThrow(() -> new RuntimeException("Patient not found"));
-            return appointmentRepository.findUpcomingAppointmentsByPatient(patient, now);
+            return appointmentRepository.findUpcomingDtosByPatientId(userId, now);
         } else {
-            Doctor doctor = doctorRepository.findById(userId)
-                    .orElseThrow(() -> new RuntimeException("Doctor not found"));
-            return appointmentRepository.findUpcomingAppointmentsByDoctor(doctor, now);
+            return appointmentRepository.findUpcomingDtosByDoctorId(userId, now);
         }
     }
 
-    public Optional<Appointment> getAppointmentById(Long id) {
-        return appointmentRepository.findById(id);
+    public Optional<AppointmentDto> getAppointmentById(Long id) {
+        return appointmentRepository.findDtoById(id);
     }
 
     public Appointment updateAppointmentStatus(Long appointmentId, AppointmentStatus status) {
@@ -3,17 +3,23 @@ package com.smartcare.service;
 import com.smartcare.dto.auth.JwtAuthenticationResponse;
 import com.smartcare.dto.auth.LoginRequest;
 import com.smartcare.dto.auth.SignUpRequest;
+import com.smartcare.dto.auth.TokenRefreshResponse;
 import com.smartcare.model.Role;
 import com.smartcare.model.User;
 import com.smartcare.repository.UserRepository;
 import com.smartcare.security.JwtTokenProvider;
+import com.smartcare.security.JwtValidationResult;
+import com.smartcare.security.TokenRevocationList;
+import com.smartcare.security.UserPrincipal;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
 import java.util.Collections;
 
@@ -32,6 +38,15 @@ public class AuthService {
     @Autowired
     private JwtTokenProvider tokenProvider;
 
+    @Autowired
+    private UserAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
     public JwtAuthenticationResponse authenticateUser(LoginRequest loginRequest) {
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
@@ -44,20 +59,47 @@ public class AuthService {
 
         String jwt = tokenProvider.generateToken(authentication);
         
-        User user = userRepository.findByUsername(loginRequest.getUsernameOrEmail())
-                .or(() -> userRepository.findByEmail(loginRequest.getUsernameOrEmail()))
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        // The principal was resolved by the single username-or-email lookup during authentication
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
 
-        return new JwtAuthenticationResponse(jwt, user.getId(), user.getUsername(), 
-                user.getEmail(), user.isProfileCompleted(), user.isTourCompleted());
+        JwtAuthenticationResponse response = new JwtAuthenticationResponse(jwt, principal.getId(),
+                principal.getUsername(), principal.getEmail(), principal.isProfileCompleted(), principal.isTourCompleted());
+        response.setRefreshToken(refreshTokenService.issue(principal));
+        return response;
+    }
+
+    public TokenRefreshResponse refreshToken(String refreshToken) {
+        return refreshTokenService.rotate(refreshToken);
+    }
+
+    public void logout(String accessToken, String refreshToken) {
+        if (StringUtils.hasText(accessToken)) {
+            JwtValidationResult result = tokenProvider.parseToken(accessToken);
+            if (result.isValid()) {
+                tokenRevocationList.revoke(result);
+            }
+        }
+        if (StringUtils.hasText(refreshToken)) {
+            refreshTokenService.revokeFamily(refreshToken);
+        }
+    }
+
+    public void revokeAccessToken(String accessToken) {
+        JwtValidationResult result = tokenProvider.parseToken(accessToken);
+        if (!result.isValid()) {
+            throw new RuntimeException("Token is invalid or already expired");
+        }
+        if (!tokenRevocationList.revoke(result)) {
+            throw new RuntimeException("Token has already been revoked");
+        }
     }
 
     public User registerUser(SignUpRequest signUpRequest) {
-        if(userRepository.existsByUsername(signUpRequest.getUsername())) {
+        if(!availabilityIndex.isUsernameAvailable(signUpRequest.getUsername())) {
             throw new RuntimeException("Username is already taken!");
         }
 
-        if(userRepository.existsByEmail(signUpRequest.getEmail())) {
+        if(!availabilityIndex.isEmailAvailable(signUpRequest.getEmail())) {
             throw new RuntimeException("Email Address already in use!");
         }
 
@@ -71,6 +113,29 @@ public class AuthService {
         user.setRoles(Collections.singleton(Role.USER));
         user.setEmailVerified(true); // For demo purposes
 
-        return userRepository.save(user);
+        User savedUser;
+        try {
+            savedUser = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // The index only knows this instance's writes since its last rebuild, so the unique
+            // constraints have the final say on a name it reported as free
+            if (userRepository.existsByUsername(signUpRequest.getUsername())) {
+                throw new RuntimeException("Username is already taken!");
+            }
+            if (userRepository.existsByEmail(signUpRequest.getEmail())) {
+                throw new RuntimeException("Email Address already in use!");
+            }
+            throw e;
+        }
+        availabilityIndex.add(savedUser.getUsername(), savedUser.getEmail());
+        return savedUser;
+    }
+
+    public boolean isUsernameAvailable(String username) {
+        return availabilityIndex.isUsernameAvailable(username);
+    }
+
+    public boolean isEmailAvailable(String email) {
+        return availabilityIndex.isEmailAvailable(email);
     }
 }
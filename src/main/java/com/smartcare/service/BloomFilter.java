@@ -0,0 +1,102 @@
+package com.smartcare.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter over strings. Never reports a false negative; the false-positive rate
+ * depends on how many values were added relative to the bit budget chosen at creation time.
+ */
+final class BloomFilter {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final AtomicLong insertions = new AtomicLong();
+
+    private BloomFilter(long bitCount, int hashCount) {
+        this.words = new AtomicLongArray((int) ((bitCount + 63) / 64));
+        this.bitCount = (long) words.length() * 64;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * Sizes the filter for the expected number of values and target false-positive rate,
+     * capped at maxBytes of bit storage.
+     */
+    static BloomFilter create(long expectedInsertions, double falsePositiveRate, long maxBytes) {
+        long n = Math.max(1, expectedInsertions);
+        long optimalBits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        long bits = Math.max(64, Math.min(optimalBits, maxBytes * 8));
+        bits = Math.min(bits, (long) Integer.MAX_VALUE * 64);
+        int hashes = (int) Math.max(1, Math.min(16, Math.round((double) bits / n * Math.log(2))));
+        return new BloomFilter(bits, hashes);
+    }
+
+    void put(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            setBit(bit);
+        }
+        insertions.incrementAndGet();
+    }
+
+    boolean mightContain(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** False-positive probability for the number of values added so far. */
+    double expectedFalsePositiveRate() {
+        double fillRatio = -(double) hashCount * insertions.get() / bitCount;
+        return Math.pow(1 - Math.exp(fillRatio), hashCount);
+    }
+
+    long sizeInBytes() {
+        return bitCount / 8;
+    }
+
+    long insertions() {
+        return insertions.get();
+    }
+
+    private void setBit(long bit) {
+        int index = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        long current;
+        do {
+            current = words.get(index);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!words.compareAndSet(index, current, current | mask));
+    }
+
+    private static long hash(String value) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    // Stafford variant 13 of the MurmurHash3 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,33 @@
+package com.smartcare.service;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Updates managed entity collections in place. Replacing a Hibernate collection through its setter
+ * makes Hibernate delete every row of the collection table and insert them all again; changing the
+ * existing instance by difference turns an edit into one statement per added or removed element.
+ */
+final class CollectionUpdates {
+
+    private CollectionUpdates() {
+    }
+
+    /**
+     * Makes target contain exactly the distinct elements of desired (null meaning empty).
+     *
+     * @return true if target was modified
+     */
+    static <E> boolean replaceContents(Collection<E> target, Collection<? extends E> desired) {
+        Set<E> wanted = desired == null ? Set.of() : new LinkedHashSet<>(desired);
+        boolean changed = target.removeIf(element -> !wanted.contains(element));
+        for (E element : wanted) {
+            if (!target.contains(element)) {
+                target.add(element);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+}
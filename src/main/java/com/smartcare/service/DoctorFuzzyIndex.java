@@ -0,0 +1,535 @@
+package com.smartcare.service;
+
+import com.smartcare.dto.doctor.DoctorSummaryDto;
+import com.smartcare.model.Doctor;
+import com.smartcare.repository.DoctorRepository;
+import com.smartcare.util.AfterCommit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Typo-tolerant full-text index over the name, specialization, qualifications and bio of active
+ * doctors. Every distinct word is a term with a posting list of (doctor slot, field) entries, and
+ * every term is listed under its trigrams. A query word finds its candidate terms through the
+ * trigrams they share, a bounded edit distance (or a prefix match) decides which candidates
+ * count, and a doctor scores its best field-weighted match per query word. That text score is
+ * blended with the rating for the final order.
+ * <p>
+ * Changes are applied in place: a changed doctor moves to a new slot and the old one is marked
+ * dead and skipped, until enough slots are dead that the index compacts itself.
+ */
+@Component
+public class DoctorFuzzyIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(DoctorFuzzyIndex.class);
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "at", "by", "dr", "for", "in", "is", "of", "on", "the", "to", "with");
+
+    private static final int MAX_QUERY_WORDS = 8;
+    private static final int MIN_PREFIX_LENGTH = 4;
+    private static final double PREFIX_SIMILARITY = 0.9;
+    private static final int MIN_DEAD_SLOTS_TO_COMPACT = 1024;
+
+    // Best score first, ties by id
+    private static final Comparator<Hit> HIT_ORDER = (a, b) -> a.score != b.score
+            ? Double.compare(b.score, a.score)
+            : Long.compare(a.card.getId(), b.card.getId());
+
+    private static final Comparator<Hit> WEAKEST_FIRST = HIT_ORDER.reversed();
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.doctors.fuzzy-index.enabled:true}")
+    private boolean enabled;
+
+    // Share of the final score that comes from the rating (out of 5) rather than the text match
+    @Value("${app.doctors.fuzzy-search.rating-weight:0.2}")
+    private double ratingWeight;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Written under the write lock, searched under the read lock
+    private volatile Index current;
+    // Changes committed while a rebuild is scanning, replayed on top of its result; guarded by lock
+    private Map<Long, Document> changesDuringBuild;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    // Picks up writes that bypassed DoctorService, e.g. from another instance
+    @Scheduled(fixedDelayString = "${app.doctors.fuzzy-index.refresh-interval:PT10M}",
+               initialDelayString = "${app.doctors.fuzzy-index.refresh-interval:PT10M}")
+    public void refresh() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    public boolean isReady() {
+        return current != null;
+    }
+
+    /**
+     * Up to limit active doctors matching the words of the text, tolerating typos, best score
+     * first and ties by id. Doctors below minRating, or without a rating when one is given, are
+     * left out.
+     */
+    public List<DoctorSummaryDto> search(String text, Double minRating, int limit) {
+        lock.readLock().lock();
+        try {
+            Index index = current;
+            if (index == null) {
+                throw new IllegalStateException("Doctor fuzzy index is not built yet");
+            }
+            return index.search(queryWords(text), minRating, limit, ratingWeight);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Records a saved doctor. Inside a transaction the change is applied once it commits, so a
+     * rollback never reaches the index.
+     */
+    public void update(Doctor doctor) {
+        Document document = Boolean.TRUE.equals(doctor.getIsActive())
+                ? new Document(DoctorSummaryDto.from(doctor), doctor.getQualifications(), doctor.getBio())
+                : null;
+        AfterCommit.run(() -> apply(doctor.getId(), document));
+    }
+
+    public void remove(Long doctorId) {
+        AfterCommit.run(() -> apply(doctorId, null));
+    }
+
+    public synchronized void rebuild() {
+        long startTime = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            changesDuringBuild = new LinkedHashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<Document> documents = new ArrayList<>();
+        try {
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setReadOnly(true);
+            template.executeWithoutResult(status -> {
+                Map<Long, DoctorRepository.TextEntry> texts = new HashMap<>();
+                for (DoctorRepository.TextEntry entry : doctorRepository.findActiveTexts()) {
+                    texts.put(entry.getDoctorId(), entry);
+                }
+                Map<Long, List<String>> languages = new HashMap<>();
+                for (DoctorRepository.LanguageEntry entry : doctorRepository.findActiveLanguages()) {
+                    languages.computeIfAbsent(entry.getDoctorId(), id -> new ArrayList<>()).add(entry.getLanguage());
+                }
+                for (DoctorSummaryDto card : doctorRepository.findActiveSummaries()) {
+                    card.setLanguages(languages.getOrDefault(card.getId(), List.of()));
+                    DoctorRepository.TextEntry text = texts.get(card.getId());
+                    documents.add(text == null
+                            ? new Document(card, null, null)
+                            : new Document(card, text.getQualifications(), text.getBio()));
+                }
+            });
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringBuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        // Built outside the lock; only the replay of concurrent changes blocks searches
+        Index next = new Index();
+        for (Document document : documents) {
+            next.put(document.card.getId(), document);
+        }
+        lock.writeLock().lock();
+        try {
+            changesDuringBuild.forEach(next::put);
+            changesDuringBuild = null;
+            current = next;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("DoctorFuzzyIndex | rebuild | indexed {} doctors and {} terms in {}ms",
+                next.slotsById.size(), next.terms.size(), System.currentTimeMillis() - startTime);
+    }
+
+    private void apply(Long doctorId, Document document) {
+        lock.writeLock().lock();
+        try {
+            if (changesDuringBuild != null) {
+                changesDuringBuild.put(doctorId, document);
+            }
+            Index index = current;
+            if (index != null) {
+                index.put(doctorId, document);
+                if (index.dead >= MIN_DEAD_SLOTS_TO_COMPACT && index.dead * 2 > index.slots.size()) {
+                    current = index.compacted();
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static List<String> queryWords(String text) {
+        List<String> words = new ArrayList<>(new LinkedHashSet<>(words(text)));
+        return words.size() > MAX_QUERY_WORDS ? words.subList(0, MAX_QUERY_WORDS) : words;
+    }
+
+    private static List<String> words(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        List<String> words = new ArrayList<>();
+        for (String word : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+            if (!word.isEmpty() && !STOP_WORDS.contains(word)) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    // Padded so that the first and last letters carry trigrams of their own
+    private static List<String> trigrams(String word) {
+        String padded = "$" + word + "$";
+        List<String> trigrams = new ArrayList<>(word.length());
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    private static int maxEdits(int length) {
+        if (length <= 3) {
+            return 0;
+        }
+        return length <= 6 ? 1 : 2;
+    }
+
+    /**
+     * Optimal string alignment distance, where swapping two adjacent letters counts as one edit.
+     * Gives up with max + 1 as soon as every alignment needs more than max edits.
+     */
+    static int editDistance(String a, String b, int max) {
+        int[] beforePrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] row = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            row[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(row[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, beforePrevious[j - 2] + 1);
+                }
+                row[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = row;
+            row = recycled;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+
+    // Ordered by weight, so a word found in several fields keeps the first one
+    private enum Field {
+        NAME(1.0f),
+        SPECIALIZATION(1.0f),
+        QUALIFICATIONS(0.7f),
+        BIO(0.4f);
+
+        private static final Field[] VALUES = values();
+
+        private final float weight;
+
+        Field(float weight) {
+            this.weight = weight;
+        }
+    }
+
+    private static final class Document {
+
+        final DoctorSummaryDto card;
+        final String qualifications;
+        final String bio;
+
+        Document(DoctorSummaryDto card, String qualifications, String bio) {
+            this.card = card;
+            this.qualifications = qualifications;
+            this.bio = bio;
+        }
+
+        Map<String, Field> words() {
+            Map<String, Field> words = new LinkedHashMap<>();
+            for (String word : DoctorFuzzyIndex.words(card.getFirstName() + " " + card.getLastName())) {
+                words.putIfAbsent(word, Field.NAME);
+            }
+            for (String word : DoctorFuzzyIndex.words(card.getSpecialization())) {
+                words.putIfAbsent(word, Field.SPECIALIZATION);
+            }
+            for (String word : DoctorFuzzyIndex.words(qualifications)) {
+                words.putIfAbsent(word, Field.QUALIFICATIONS);
+            }
+            for (String word : DoctorFuzzyIndex.words(bio)) {
+                words.putIfAbsent(word, Field.BIO);
+            }
+            return words;
+        }
+    }
+
+    private static final class Term {
+
+        final String text;
+        // slot * Field count + field ordinal, in insertion order
+        int[] postings = new int[4];
+        int size;
+
+        Term(String text) {
+            this.text = text;
+        }
+
+        void add(int entry) {
+            if (size == postings.length) {
+                postings = Arrays.copyOf(postings, size * 2);
+            }
+            postings[size++] = entry;
+        }
+    }
+
+    private static final class Slot {
+
+        final DoctorSummaryDto card;
+        final Term[] terms;
+        final Field[] fields;
+
+        Slot(DoctorSummaryDto card, Term[] terms, Field[] fields) {
+            this.card = card;
+            this.terms = terms;
+            this.fields = fields;
+        }
+    }
+
+    private static final class Hit {
+
+        final DoctorSummaryDto card;
+        final double score;
+
+        Hit(DoctorSummaryDto card, double score) {
+            this.card = card;
+            this.score = score;
+        }
+    }
+
+    // Not thread-safe; the enclosing index guards it with its lock
+    private static final class Index {
+
+        // Null once the doctor changed or left
+        final List<Slot> slots = new ArrayList<>();
+        final Map<Long, Integer> slotsById = new HashMap<>();
+        final Map<String, Term> terms = new HashMap<>();
+        final Map<String, List<Term>> termsByTrigram = new HashMap<>();
+        int dead;
+
+        void put(Long doctorId, Document document) {
+            Integer previous = slotsById.remove(doctorId);
+            if (previous != null) {
+                slots.set(previous, null);
+                dead++;
+            }
+            if (document != null) {
+                Map<String, Field> words = document.words();
+                Term[] slotTerms = new Term[words.size()];
+                Field[] slotFields = new Field[words.size()];
+                int i = 0;
+                for (Map.Entry<String, Field> word : words.entrySet()) {
+                    slotTerms[i] = term(word.getKey());
+                    slotFields[i] = word.getValue();
+                    i++;
+                }
+                add(new Slot(document.card, slotTerms, slotFields));
+            }
+        }
+
+        private void add(Slot slot) {
+            int position = slots.size();
+            slots.add(slot);
+            slotsById.put(slot.card.getId(), position);
+            for (int i = 0; i < slot.terms.length; i++) {
+                slot.terms[i].add(position * Field.VALUES.length + slot.fields[i].ordinal());
+            }
+        }
+
+        private Term term(String text) {
+            Term term = terms.get(text);
+            if (term == null) {
+                term = new Term(text);
+                terms.put(text, term);
+                for (String trigram : new LinkedHashSet<>(trigrams(text))) {
+                    termsByTrigram.computeIfAbsent(trigram, t -> new ArrayList<>()).add(term);
+                }
+            }
+            return term;
+        }
+
+        // Drops dead slots along with the terms only they used
+        Index compacted() {
+            Index compacted = new Index();
+            for (Slot slot : slots) {
+                if (slot != null) {
+                    Term[] slotTerms = new Term[slot.terms.length];
+                    for (int i = 0; i < slotTerms.length; i++) {
+                        slotTerms[i] = compacted.term(slot.terms[i].text);
+                    }
+                    compacted.add(new Slot(slot.card, slotTerms, slot.fields));
+                }
+            }
+            return compacted;
+        }
+
+        List<DoctorSummaryDto> search(List<String> words, Double minRating, int limit, double ratingWeight) {
+            if (words.isEmpty()) {
+                return List.of();
+            }
+            float[] total = new float[slots.size()];
+            float[] best = new float[slots.size()];
+            BitSet matched = new BitSet(slots.size());
+            for (String word : words) {
+                BitSet wordMatched = new BitSet(slots.size());
+                for (Map.Entry<Term, Double> match : matches(word).entrySet()) {
+                    Term term = match.getKey();
+                    double similarity = match.getValue();
+                    for (int i = 0; i < term.size; i++) {
+                        int slot = term.postings[i] / Field.VALUES.length;
+                        if (slots.get(slot) == null) {
+                            continue;
+                        }
+                        float score = (float) (similarity * Field.VALUES[term.postings[i] % Field.VALUES.length].weight);
+                        best[slot] = Math.max(best[slot], score);
+                        wordMatched.set(slot);
+                    }
+                }
+                // Only the best matching term of a doctor counts for each query word
+                for (int slot = wordMatched.nextSetBit(0); slot >= 0; slot = wordMatched.nextSetBit(slot + 1)) {
+                    total[slot] += best[slot];
+                    best[slot] = 0;
+                }
+                matched.or(wordMatched);
+            }
+
+            // Bounded heap with the weakest of the current top hits at its head
+            PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, WEAKEST_FIRST);
+            for (int slot = matched.nextSetBit(0); slot >= 0; slot = matched.nextSetBit(slot + 1)) {
+                DoctorSummaryDto card = slots.get(slot).card;
+                Double rating = card.getRating();
+                if (minRating != null && (rating == null || rating < minRating)) {
+                    continue;
+                }
+                double text = total[slot] / words.size();
+                double score = (1 - ratingWeight) * text + ratingWeight * (rating == null ? 0 : rating / 5.0);
+                // Most matches do not beat the weakest hit kept so far; skip them without touching the heap
+                Hit weakest = top.peek();
+                if (top.size() == limit && (score < weakest.score
+                        || (score == weakest.score && card.getId() > weakest.card.getId()))) {
+                    continue;
+                }
+                top.add(new Hit(card, score));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort(HIT_ORDER);
+            List<DoctorSummaryDto> result = new ArrayList<>(hits.size());
+            for (Hit hit : hits) {
+                result.add(hit.card);
+            }
+            return result;
+        }
+
+        // Dictionary terms close enough to the query word, with their similarity in (0, 1]
+        private Map<Term, Double> matches(String word) {
+            Map<Term, Double> matches = new HashMap<>();
+            Term exact = terms.get(word);
+            if (exact != null) {
+                matches.put(exact, 1.0);
+            }
+            int maxEdits = maxEdits(word.length());
+            if (maxEdits == 0 && word.length() < MIN_PREFIX_LENGTH) {
+                return matches;
+            }
+
+            List<String> trigrams = trigrams(word);
+            Map<Term, Integer> shared = new HashMap<>();
+            for (String trigram : trigrams) {
+                for (Term term : termsByTrigram.getOrDefault(trigram, List.of())) {
+                    shared.merge(term, 1, Integer::sum);
+                }
+            }
+            for (Map.Entry<Term, Integer> candidate : shared.entrySet()) {
+                Term term = candidate.getKey();
+                int common = candidate.getValue();
+                if (term == exact) {
+                    continue;
+                }
+                double similarity = 0;
+                // One edit breaks at most four trigrams (a swap of adjacent letters), so too few shared
+                // ones rule a term out cheaply
+                int longest = Math.max(word.length(), term.text.length());
+                if (Math.abs(term.text.length() - word.length()) <= maxEdits
+                        && common >= trigrams.size() - 4 * maxEdits) {
+                    int distance = editDistance(word, term.text, maxEdits);
+                    if (distance <= maxEdits) {
+                        similarity = 1 - (double) distance / longest;
+                    }
+                }
+                // Completes a word still being typed: every trigram but the closing one is shared
+                if (word.length() >= MIN_PREFIX_LENGTH && common >= trigrams.size() - 1
+                        && term.text.startsWith(word)) {
+                    similarity = Math.max(similarity, PREFIX_SIMILARITY * word.length() / term.text.length());
+                }
+                if (similarity > 0) {
+                    matches.put(term, similarity);
+                }
+            }
+            return matches;
+        }
+    }
+}
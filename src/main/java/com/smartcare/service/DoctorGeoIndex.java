@@ -0,0 +1,376 @@
+package com.smartcare.service;
+
+import com.smartcare.dto.doctor.DoctorSummaryDto;
+import com.smartcare.dto.doctor.NearbyDoctorDto;
+import com.smartcare.model.Doctor;
+import com.smartcare.repository.DoctorRepository;
+import com.smartcare.util.AfterCommit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Spatial index of active doctors by the centroid of their zip code. A snapshot is a k-d tree
+ * over the unit vectors of those centroids, laid out in place in one array: each range of the
+ * array has its median (along x, y or z by depth) in the middle, with the smaller coordinates to
+ * its left. A nearest-neighbour search descends towards the searched point first and only visits
+ * the far side of a split when it could still hold something closer than the k-th best match.
+ * Doctors whose zip code is not in {@link ZipCentroids} are not indexed. Snapshots are immutable;
+ * committed changes are queued and folded into a new tree once per apply-interval, so a burst of
+ * writes costs one rebuild of the tree rather than one per write.
+ */
+@Component
+public class DoctorGeoIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(DoctorGeoIndex.class);
+
+    // Closest first, then best rated, then by id
+    private static final Comparator<Neighbor> NEAREST = Comparator
+            .comparingDouble((Neighbor neighbor) -> neighbor.chordSquared)
+            .thenComparing(neighbor -> neighbor.doctor.card.getRating(), Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(neighbor -> neighbor.doctor.card.getId());
+
+    private static final Comparator<Neighbor> FARTHEST_FIRST = NEAREST.reversed();
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ZipCentroids zipCentroids;
+
+    @Value("${app.doctors.geo-index.enabled:true}")
+    private boolean enabled;
+
+    private volatile Snapshot current;
+
+    private final Object lock = new Object();
+    // Changes committed while a rebuild is scanning, replayed on top of its result; guarded by lock
+    private Map<Long, Located> changesDuringBuild;
+    // Committed changes not yet in the snapshot, null values for removals; guarded by lock
+    private Map<Long, Located> pendingChanges = new LinkedHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    // Picks up writes that bypassed DoctorService, e.g. from another instance
+    @Scheduled(fixedDelayString = "${app.doctors.geo-index.refresh-interval:PT10M}",
+               initialDelayString = "${app.doctors.geo-index.refresh-interval:PT10M}")
+    public void refresh() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Folds the queued changes into a new snapshot. Holds the same monitor as {@link #rebuild}, so
+     * an older snapshot never replaces a newer rebuild.
+     */
+    @Scheduled(fixedDelayString = "${app.doctors.geo-index.apply-interval:PT1S}")
+    public synchronized void applyPendingChanges() {
+        Map<Long, Located> changes;
+        Snapshot snapshot;
+        synchronized (lock) {
+            if (pendingChanges.isEmpty()) {
+                return;
+            }
+            changes = pendingChanges;
+            pendingChanges = new LinkedHashMap<>();
+            snapshot = current;
+        }
+        if (snapshot == null) {
+            // The first build reads the database after these commits, or replays them itself
+            return;
+        }
+
+        Map<Long, Located> doctors = new LinkedHashMap<>();
+        for (Located existing : snapshot.tree) {
+            doctors.put(existing.card.getId(), existing);
+        }
+        changes.forEach((id, doctor) -> put(doctors, id, doctor));
+        current = Snapshot.build(doctors.values());
+    }
+
+    public boolean isReady() {
+        return current != null;
+    }
+
+    /**
+     * The k indexed doctors closest to the origin that match the filters, nearest first. The
+     * specialization and language filters are case-insensitive substring matches, as in search.
+     */
+    public List<NearbyDoctorDto> nearest(GeoPoint origin, int k, String specialization, String language,
+                                         Double minRating) {
+        Snapshot snapshot = current;
+        if (snapshot == null) {
+            throw new IllegalStateException("Doctor geo index is not built yet");
+        }
+        return snapshot.nearest(origin, k, normalize(specialization), normalize(language), minRating);
+    }
+
+    /**
+     * Records a saved doctor. Inside a transaction the change is queued once it commits, so a
+     * rollback never reaches the index.
+     */
+    public void update(Doctor doctor) {
+        Located located = Boolean.TRUE.equals(doctor.getIsActive())
+                ? zipCentroids.find(doctor.getZipCode())
+                        .map(point -> new Located(DoctorSummaryDto.from(doctor), point))
+                        .orElse(null)
+                : null;
+        AfterCommit.run(() -> apply(doctor.getId(), located));
+    }
+
+    public void remove(Long doctorId) {
+        AfterCommit.run(() -> apply(doctorId, null));
+    }
+
+    public synchronized void rebuild() {
+        long startTime = System.currentTimeMillis();
+        synchronized (lock) {
+            changesDuringBuild = new LinkedHashMap<>();
+        }
+
+        Map<Long, Located> doctors = new LinkedHashMap<>();
+        int unknownZipCodes;
+        try {
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setReadOnly(true);
+            unknownZipCodes = template.execute(status -> {
+                Map<Long, GeoPoint> points = new HashMap<>();
+                int unknown = 0;
+                for (DoctorRepository.LocationEntry entry : doctorRepository.findActiveLocations()) {
+                    Optional<GeoPoint> point = zipCentroids.find(entry.getZipCode());
+                    if (point.isPresent()) {
+                        points.put(entry.getDoctorId(), point.get());
+                    } else {
+                        unknown++;
+                    }
+                }
+                Map<Long, List<String>> languages = new HashMap<>();
+                for (DoctorRepository.LanguageEntry entry : doctorRepository.findActiveLanguages()) {
+                    languages.computeIfAbsent(entry.getDoctorId(), id -> new ArrayList<>()).add(entry.getLanguage());
+                }
+                for (DoctorSummaryDto card : doctorRepository.findActiveSummaries()) {
+                    GeoPoint point = points.get(card.getId());
+                    if (point != null) {
+                        card.setLanguages(languages.getOrDefault(card.getId(), List.of()));
+                        doctors.put(card.getId(), new Located(card, point));
+                    }
+                }
+                return unknown;
+            });
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                changesDuringBuild = null;
+            }
+            throw e;
+        }
+
+        Snapshot next;
+        synchronized (lock) {
+            changesDuringBuild.forEach((id, doctor) -> put(doctors, id, doctor));
+            changesDuringBuild = null;
+            next = Snapshot.build(doctors.values());
+            current = next;
+        }
+        logger.info("DoctorGeoIndex | rebuild | indexed {} doctors, skipped {} with an unknown zip code, in {}ms",
+                next.tree.length, unknownZipCodes, System.currentTimeMillis() - startTime);
+    }
+
+    // Runs in the committing thread, so it only queues the change
+    private void apply(Long doctorId, Located doctor) {
+        synchronized (lock) {
+            if (changesDuringBuild != null) {
+                changesDuringBuild.put(doctorId, doctor);
+            }
+            pendingChanges.put(doctorId, doctor);
+        }
+    }
+
+    private static void put(Map<Long, Located> doctors, Long id, Located doctor) {
+        if (doctor == null) {
+            doctors.remove(id);
+        } else {
+            doctors.put(id, doctor);
+        }
+    }
+
+    static NearbyDoctorDto nearby(DoctorSummaryDto card, double distanceMiles) {
+        return new NearbyDoctorDto(card, Math.round(distanceMiles * 10) / 10.0);
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.isEmpty() ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Located {
+
+        final DoctorSummaryDto card;
+        final GeoPoint point;
+        // Lower-cased once here rather than on every visit during a search
+        final String specialization;
+        final List<String> languages;
+
+        Located(DoctorSummaryDto card, GeoPoint point) {
+            this.card = card;
+            this.point = point;
+            this.specialization = normalize(card.getSpecialization());
+            List<String> normalized = new ArrayList<>();
+            for (String language : card.getLanguages()) {
+                normalized.add(normalize(language));
+            }
+            this.languages = normalized;
+        }
+
+        boolean matches(String specialization, String language, Double minRating) {
+            if (specialization != null
+                    && (this.specialization == null || !this.specialization.contains(specialization))) {
+                return false;
+            }
+            if (minRating != null && (card.getRating() == null || card.getRating() < minRating)) {
+                return false;
+            }
+            if (language != null) {
+                for (String spoken : languages) {
+                    if (spoken != null && spoken.contains(language)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            return true;
+        }
+    }
+
+    private static final class Neighbor {
+
+        final Located doctor;
+        final double chordSquared;
+
+        Neighbor(Located doctor, double chordSquared) {
+            this.doctor = doctor;
+            this.chordSquared = chordSquared;
+        }
+    }
+
+    private static final class Snapshot {
+
+        final Located[] tree;
+
+        private Snapshot(Located[] tree) {
+            this.tree = tree;
+        }
+
+        static Snapshot build(Collection<Located> doctors) {
+            Located[] tree = doctors.toArray(new Located[0]);
+            split(tree, 0, tree.length, 0);
+            return new Snapshot(tree);
+        }
+
+        private static void split(Located[] tree, int low, int high, int depth) {
+            if (high - low <= 1) {
+                return;
+            }
+            int middle = (low + high) >>> 1;
+            select(tree, low, high - 1, middle, depth % 3);
+            split(tree, low, middle, depth + 1);
+            split(tree, middle + 1, high, depth + 1);
+        }
+
+        // Quickselect: reorders tree[low..high] so that tree[k] is where a full sort along the axis would put it
+        private static void select(Located[] tree, int low, int high, int k, int axis) {
+            while (low < high) {
+                double pivot = tree[(low + high) >>> 1].point.coordinate(axis);
+                int i = low;
+                int j = high;
+                while (i <= j) {
+                    while (tree[i].point.coordinate(axis) < pivot) {
+                        i++;
+                    }
+                    while (tree[j].point.coordinate(axis) > pivot) {
+                        j--;
+                    }
+                    if (i <= j) {
+                        Located swap = tree[i];
+                        tree[i] = tree[j];
+                        tree[j] = swap;
+                        i++;
+                        j--;
+                    }
+                }
+                if (k <= j) {
+                    high = j;
+                } else if (k >= i) {
+                    low = i;
+                } else {
+                    return;
+                }
+            }
+        }
+
+        List<NearbyDoctorDto> nearest(GeoPoint origin, int k, String specialization, String language,
+                                      Double minRating) {
+            // Bounded heap with the farthest of the current best k at its head
+            PriorityQueue<Neighbor> found = new PriorityQueue<>(k + 1, FARTHEST_FIRST);
+            search(origin, k, specialization, language, minRating, found, 0, tree.length, 0);
+
+            List<Neighbor> neighbors = new ArrayList<>(found);
+            neighbors.sort(NEAREST);
+            List<NearbyDoctorDto> result = new ArrayList<>(neighbors.size());
+            for (Neighbor neighbor : neighbors) {
+                result.add(nearby(neighbor.doctor.card, GeoPoint.chordToMiles(neighbor.chordSquared)));
+            }
+            return result;
+        }
+
+        private void search(GeoPoint origin, int k, String specialization, String language, Double minRating,
+                            PriorityQueue<Neighbor> found, int low, int high, int depth) {
+            if (low >= high) {
+                return;
+            }
+            int middle = (low + high) >>> 1;
+            Located node = tree[middle];
+            if (node.matches(specialization, language, minRating)) {
+                Neighbor neighbor = new Neighbor(node, origin.chordSquared(node.point));
+                if (found.size() < k) {
+                    found.add(neighbor);
+                } else if (NEAREST.compare(neighbor, found.peek()) < 0) {
+                    found.poll();
+                    found.add(neighbor);
+                }
+            }
+
+            int axis = depth % 3;
+            double offset = origin.coordinate(axis) - node.point.coordinate(axis);
+            if (offset < 0) {
+                search(origin, k, specialization, language, minRating, found, low, middle, depth + 1);
+            } else {
+                search(origin, k, specialization, language, minRating, found, middle + 1, high, depth + 1);
+            }
+            // Everything across the split is at least |offset| away
+            if (found.size() < k || offset * offset <= found.peek().chordSquared) {
+                if (offset < 0) {
+                    search(origin, k, specialization, language, minRating, found, middle + 1, high, depth + 1);
+                } else {
+                    search(origin, k, specialization, language, minRating, found, low, middle, depth + 1);
+                }
+            }
+        }
+    }
+}
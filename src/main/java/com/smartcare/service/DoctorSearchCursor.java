@@ -0,0 +1,45 @@
+package com.smartcare.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Continuation token for keyset-paginated doctor search: the rating and id of the last doctor
+ * returned, which is where the next page seeks to in (rating desc, id asc) order. Clients treat
+ * it as opaque.
+ */
+final class DoctorSearchCursor {
+
+    private final Double rating;
+    private final Long id;
+
+    DoctorSearchCursor(Double rating, Long id) {
+        this.rating = rating;
+        this.id = id;
+    }
+
+    static String encode(Double rating, Long id) {
+        String key = (rating == null ? "" : Double.toString(rating)) + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static DoctorSearchCursor decode(String cursor) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = key.indexOf(':');
+            String rating = key.substring(0, separator);
+            return new DoctorSearchCursor(rating.isEmpty() ? null : Double.valueOf(rating),
+                    Long.valueOf(key.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    Double getRating() {
+        return rating;
+    }
+
+    Long getId() {
+        return id;
+    }
+}
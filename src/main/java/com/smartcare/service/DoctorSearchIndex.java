@@ -0,0 +1,357 @@
+package com.smartcare.service;
+
+import com.smartcare.dto.doctor.DoctorSummaryDto;
+import com.smartcare.model.Doctor;
+import com.smartcare.repository.DoctorRepository;
+import com.smartcare.util.AfterCommit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * In-memory search index over active doctors. A snapshot keeps the doctor cards sorted by rating
+ * (best first, ties by id) and, for each searchable field, a posting list (a BitSet over those
+ * positions) per distinct lower-cased value. A query ORs the postings of the values containing
+ * the search term, ANDs the fields together and walks the set bits, which are already in result
+ * order. Snapshots are immutable. Since positions follow the rating order, a change cannot be
+ * patched into a snapshot, so committed changes are queued and folded into a new snapshot once per
+ * apply-interval, which bounds how long a saved doctor takes to show up in search. Until the first
+ * build completes searches go to the database.
+ */
+@Component
+public class DoctorSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(DoctorSearchIndex.class);
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.doctors.search-index.enabled:true}")
+    private boolean enabled;
+
+    private volatile Snapshot current;
+
+    private final Object lock = new Object();
+    // Changes committed while a rebuild is scanning, replayed on top of its result; guarded by lock
+    private Map<Long, DoctorSummaryDto> changesDuringBuild;
+    // Committed changes not yet in the snapshot, null values for removals; guarded by lock
+    private Map<Long, DoctorSummaryDto> pendingChanges = new LinkedHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    // Picks up writes that bypassed DoctorService, e.g. from another instance
+    @Scheduled(fixedDelayString = "${app.doctors.search-index.refresh-interval:PT10M}",
+               initialDelayString = "${app.doctors.search-index.refresh-interval:PT10M}")
+    public void refresh() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Folds the queued changes into a new snapshot. Holds the same monitor as {@link #rebuild}, so
+     * an older snapshot never replaces a newer rebuild.
+     */
+    @Scheduled(fixedDelayString = "${app.doctors.search-index.apply-interval:PT1S}")
+    public synchronized void applyPendingChanges() {
+        Map<Long, DoctorSummaryDto> changes;
+        Snapshot snapshot;
+        synchronized (lock) {
+            if (pendingChanges.isEmpty()) {
+                return;
+            }
+            changes = pendingChanges;
+            pendingChanges = new LinkedHashMap<>();
+            snapshot = current;
+        }
+        if (snapshot == null) {
+            // The first build reads the database after these commits, or replays them itself
+            return;
+        }
+
+        Map<Long, DoctorSummaryDto> doctors = new LinkedHashMap<>();
+        for (DoctorSummaryDto existing : snapshot.doctors) {
+            doctors.put(existing.getId(), existing);
+        }
+        changes.forEach((id, doctor) -> put(doctors, id, doctor));
+        current = Snapshot.build(doctors.values());
+    }
+
+    public boolean isReady() {
+        return current != null;
+    }
+
+    /**
+     * Same semantics as the database search: case-insensitive substring match on specialization,
+     * city, state and language, a minimum rating, and rating-descending order.
+     */
+    public Page<DoctorSummaryDto> search(String specialization, String city, String state, String language,
+                                         Double minRating, Pageable pageable) {
+        return snapshot().search(specialization, city, state, language, minRating, pageable);
+    }
+
+    /**
+     * Keyset variant of {@link #search}: up to limit matches that come after the given rating and
+     * id in result order, or from the start when afterId is null.
+     */
+    public List<DoctorSummaryDto> scroll(String specialization, String city, String state, String language,
+                                         Double minRating, Double afterRating, Long afterId, int limit) {
+        return snapshot().scroll(specialization, city, state, language, minRating, afterRating, afterId, limit);
+    }
+
+    public long count(String specialization, String city, String state, String language, Double minRating) {
+        return snapshot().matching(specialization, city, state, language, minRating).cardinality();
+    }
+
+    private Snapshot snapshot() {
+        Snapshot snapshot = current;
+        if (snapshot == null) {
+            throw new IllegalStateException("Doctor search index is not built yet");
+        }
+        return snapshot;
+    }
+
+    /**
+     * Records a saved doctor. Inside a transaction the change is queued once it commits, so a
+     * rollback never reaches the index.
+     */
+    public void update(Doctor doctor) {
+        DoctorSummaryDto summary = Boolean.TRUE.equals(doctor.getIsActive()) ? DoctorSummaryDto.from(doctor) : null;
+        AfterCommit.run(() -> apply(doctor.getId(), summary));
+    }
+
+    public void remove(Long doctorId) {
+        AfterCommit.run(() -> apply(doctorId, null));
+    }
+
+    public synchronized void rebuild() {
+        long startTime = System.currentTimeMillis();
+        synchronized (lock) {
+            changesDuringBuild = new LinkedHashMap<>();
+        }
+
+        Map<Long, DoctorSummaryDto> doctors = new LinkedHashMap<>();
+        try {
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setReadOnly(true);
+            template.executeWithoutResult(status -> {
+                for (DoctorSummaryDto doctor : doctorRepository.findActiveSummaries()) {
+                    doctors.put(doctor.getId(), doctor);
+                }
+                Map<Long, List<String>> languages = new HashMap<>();
+                for (DoctorRepository.LanguageEntry entry : doctorRepository.findActiveLanguages()) {
+                    languages.computeIfAbsent(entry.getDoctorId(), id -> new ArrayList<>()).add(entry.getLanguage());
+                }
+                for (DoctorSummaryDto doctor : doctors.values()) {
+                    doctor.setLanguages(languages.getOrDefault(doctor.getId(), List.of()));
+                }
+            });
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                changesDuringBuild = null;
+            }
+            throw e;
+        }
+
+        Snapshot next;
+        synchronized (lock) {
+            changesDuringBuild.forEach((id, doctor) -> put(doctors, id, doctor));
+            changesDuringBuild = null;
+            next = Snapshot.build(doctors.values());
+            current = next;
+        }
+        logger.info("DoctorSearchIndex | rebuild | indexed {} doctors in {}ms",
+                next.doctors.length, System.currentTimeMillis() - startTime);
+    }
+
+    // Runs in the committing thread, so it only queues the change
+    private void apply(Long doctorId, DoctorSummaryDto doctor) {
+        synchronized (lock) {
+            if (changesDuringBuild != null) {
+                changesDuringBuild.put(doctorId, doctor);
+            }
+            pendingChanges.put(doctorId, doctor);
+        }
+    }
+
+    private static void put(Map<Long, DoctorSummaryDto> doctors, Long id, DoctorSummaryDto doctor) {
+        if (doctor == null) {
+            doctors.remove(id);
+        } else {
+            doctors.put(id, doctor);
+        }
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private enum Field {
+        SPECIALIZATION(doctor -> single(doctor.getSpecialization())),
+        CITY(doctor -> single(doctor.getCity())),
+        STATE(doctor -> single(doctor.getState())),
+        LANGUAGE(DoctorSummaryDto::getLanguages);
+
+        private final Function<DoctorSummaryDto, List<String>> values;
+
+        Field(Function<DoctorSummaryDto, List<String>> values) {
+            this.values = values;
+        }
+
+        private static List<String> single(String value) {
+            return value == null ? List.of() : List.of(value);
+        }
+    }
+
+    private static final class Snapshot {
+
+        private static final Comparator<DoctorSummaryDto> RESULT_ORDER = Comparator
+                .comparing(DoctorSummaryDto::getRating, Comparator.nullsLast(Comparator.reverseOrder()))
+                .thenComparing(DoctorSummaryDto::getId);
+
+        final DoctorSummaryDto[] doctors;
+        // Ratings in result order, null as -infinity, for the minRating cut-off
+        final double[] ratings;
+        final List<Map<String, BitSet>> postings;
+
+        private Snapshot(DoctorSummaryDto[] doctors, double[] ratings, List<Map<String, BitSet>> postings) {
+            this.doctors = doctors;
+            this.ratings = ratings;
+            this.postings = postings;
+        }
+
+        static Snapshot build(Collection<DoctorSummaryDto> unsorted) {
+            DoctorSummaryDto[] doctors = unsorted.toArray(new DoctorSummaryDto[0]);
+            Arrays.sort(doctors, RESULT_ORDER);
+
+            double[] ratings = new double[doctors.length];
+            List<Map<String, BitSet>> postings = new ArrayList<>();
+            for (int f = 0; f < Field.values().length; f++) {
+                postings.add(new HashMap<>());
+            }
+            for (int position = 0; position < doctors.length; position++) {
+                DoctorSummaryDto doctor = doctors[position];
+                ratings[position] = doctor.getRating() == null ? Double.NEGATIVE_INFINITY : doctor.getRating();
+                for (Field field : Field.values()) {
+                    for (String value : field.values.apply(doctor)) {
+                        postings.get(field.ordinal())
+                                .computeIfAbsent(normalize(value), v -> new BitSet(doctors.length))
+                                .set(position);
+                    }
+                }
+            }
+            return new Snapshot(doctors, ratings, postings);
+        }
+
+        Page<DoctorSummaryDto> search(String specialization, String city, String state, String language,
+                                      Double minRating, Pageable pageable) {
+            BitSet result = matching(specialization, city, state, language, minRating);
+
+            List<DoctorSummaryDto> content = new ArrayList<>(pageable.getPageSize());
+            long skip = pageable.getOffset();
+            for (int position = result.nextSetBit(0);
+                 position >= 0 && content.size() < pageable.getPageSize();
+                 position = result.nextSetBit(position + 1)) {
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    content.add(doctors[position]);
+                }
+            }
+            return new PageImpl<>(content, pageable, result.cardinality());
+        }
+
+        List<DoctorSummaryDto> scroll(String specialization, String city, String state, String language,
+                                      Double minRating, Double afterRating, Long afterId, int limit) {
+            BitSet result = matching(specialization, city, state, language, minRating);
+
+            // The key may belong to a doctor that has since left the index; the insertion point still works
+            int start = 0;
+            if (afterId != null) {
+                DoctorSummaryDto key = new DoctorSummaryDto(afterId, null, null, null, null, null, afterRating,
+                        null, null, null);
+                int found = Arrays.binarySearch(doctors, key, RESULT_ORDER);
+                start = found >= 0 ? found + 1 : -(found + 1);
+            }
+
+            List<DoctorSummaryDto> content = new ArrayList<>(limit);
+            for (int position = result.nextSetBit(start);
+                 position >= 0 && content.size() < limit;
+                 position = result.nextSetBit(position + 1)) {
+                content.add(doctors[position]);
+            }
+            return content;
+        }
+
+        BitSet matching(String specialization, String city, String state, String language, Double minRating) {
+            BitSet result = null;
+            result = filter(result, Field.SPECIALIZATION, specialization);
+            result = filter(result, Field.CITY, city);
+            result = filter(result, Field.STATE, state);
+            result = filter(result, Field.LANGUAGE, language == null || language.isEmpty() ? null : language);
+
+            // Positions are sorted by rating, so the rating filter is a prefix of the order
+            int limit = minRating == null ? doctors.length : countAtLeast(minRating);
+            if (result == null) {
+                result = new BitSet(limit);
+                result.set(0, limit);
+            } else {
+                result.clear(limit, doctors.length);
+            }
+            return result;
+        }
+
+        private BitSet filter(BitSet result, Field field, String term) {
+            if (term == null || (result != null && result.isEmpty())) {
+                return result;
+            }
+            // Substring semantics: OR together every distinct value that contains the term
+            String normalized = normalize(term);
+            BitSet matches = new BitSet(doctors.length);
+            for (Map.Entry<String, BitSet> posting : postings.get(field.ordinal()).entrySet()) {
+                if (posting.getKey().contains(normalized)) {
+                    matches.or(posting.getValue());
+                }
+            }
+            if (result != null) {
+                matches.and(result);
+            }
+            return matches;
+        }
+
+        private int countAtLeast(double minRating) {
+            int low = 0;
+            int high = ratings.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (ratings[mid] >= minRating) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -1,54 +1,282 @@
 package com.smartcare.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smartcare.dto.doctor.DoctorDto;
+import com.smartcare.dto.doctor.DoctorSearchSlice;
+import com.smartcare.dto.doctor.DoctorSummaryDto;
+import com.smartcare.dto.doctor.NearbyDoctorDto;
 import com.smartcare.model.Doctor;
 import com.smartcare.repository.DoctorRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class DoctorService {
 
+    private static final Set<String> PATCHABLE_FIELDS = Set.of(
+            "firstName", "lastName", "specialization", "qualifications", "phoneNumber", "email",
+            "clinicAddress", "city", "state", "zipCode", "languages", "consultationFee", "bio", "isActive");
+
+    private static final Sort SEARCH_ORDER = Sort.by(Sort.Order.desc("rating").nullsLast(), Sort.Order.asc("id"));
+
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private DoctorRepository doctorRepository;
 
-    public Page<Doctor> searchDoctors(String specialization, String city, String state, 
+    @Autowired
+    private DoctorSearchIndex searchIndex;
+
+    @Autowired
+    private DoctorFuzzyIndex fuzzyIndex;
+
+    @Autowired
+    private DoctorGeoIndex geoIndex;
+
+    @Autowired
+    private ZipCentroids zipCentroids;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${app.doctors.search.total-cache-ttl:PT1M}")
+    private Duration totalCacheTtl;
+
+    @Value("${app.doctors.search.total-cache-max-size:10000}")
+    private long totalCacheMaxSize;
+
+    // Match counts for scroll clients that ask for a total, keyed by the lower-cased filters
+    private Cache<List<Object>, Long> totalCache;
+
+    @PostConstruct
+    public void init() {
+        totalCache = Caffeine.newBuilder()
+                .maximumSize(totalCacheMaxSize)
+                .expireAfterWrite(totalCacheTtl)
+                .build();
+    }
+
+    public Page<DoctorSummaryDto> searchDoctors(String specialization, String city, String state, 
                                     String language, Double minRating, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("rating").descending());
-        
-        if (language != null && !language.isEmpty()) {
-            return doctorRepository.findByLanguage(language, pageable);
+        // The id tie-breaker keeps pages stable when ratings are equal; the index uses the same order
+        Pageable pageable = PageRequest.of(page, size, SEARCH_ORDER);
+        String languageFilter = language == null || language.isEmpty() ? null : language;
+        if (searchIndex.isReady()) {
+            return searchIndex.search(specialization, city, state, languageFilter, minRating, pageable);
         }
         
-        return doctorRepository.findDoctorsWithFilters(specialization, city, state, minRating, pageable);
+        Page<DoctorSummaryDto> doctors = doctorRepository.findSummariesWithFilters(
+                specialization, city, state, minRating, languageFilter, pageable);
+        attachLanguages(doctors.getContent());
+        return doctors;
+    }
+
+    /**
+     * Keyset-paginated search for infinite scrolling: each page seeks past the cursor instead of
+     * skipping an offset, and no count runs unless includeTotal is set, in which case it is served
+     * from a short-lived cache.
+     */
+    public DoctorSearchSlice scrollDoctors(String specialization, String city, String state, String language,
+                                           Double minRating, String cursor, int size, boolean includeTotal) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new RuntimeException("Size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        String languageFilter = language == null || language.isEmpty() ? null : language;
+        DoctorSearchCursor after = cursor == null || cursor.isEmpty() ? null : DoctorSearchCursor.decode(cursor);
+        Double afterRating = after == null ? null : after.getRating();
+        Long afterId = after == null ? null : after.getId();
+
+        // One extra row tells whether another page exists
+        List<DoctorSummaryDto> doctors;
+        boolean indexed = searchIndex.isReady();
+        if (indexed) {
+            doctors = searchIndex.scroll(specialization, city, state, languageFilter, minRating,
+                    afterRating, afterId, size + 1);
+        } else {
+            Pageable limit = PageRequest.of(0, size + 1, SEARCH_ORDER);
+            if (after == null) {
+                doctors = doctorRepository.findSummaries(specialization, city, state, minRating, languageFilter, limit);
+            } else if (afterRating == null) {
+                doctors = doctorRepository.findSummariesAfterUnrated(specialization, city, state, minRating,
+                        languageFilter, afterId, limit);
+            } else {
+                doctors = doctorRepository.findSummariesAfter(specialization, city, state, minRating,
+                        languageFilter, afterRating, afterId, limit);
+            }
+        }
+
+        String nextCursor = null;
+        if (doctors.size() > size) {
+            doctors = new ArrayList<>(doctors.subList(0, size));
+            DoctorSummaryDto last = doctors.get(size - 1);
+            nextCursor = DoctorSearchCursor.encode(last.getRating(), last.getId());
+        }
+        if (!indexed) {
+            attachLanguages(doctors);
+        }
+
+        Long total = null;
+        if (includeTotal) {
+            total = indexed
+                    ? searchIndex.count(specialization, city, state, languageFilter, minRating)
+                    : totalCache.get(Arrays.asList(lowerCase(specialization), lowerCase(city), lowerCase(state),
+                                    lowerCase(languageFilter), minRating),
+                            key -> doctorRepository.countWithFilters(specialization, city, state, minRating,
+                                    languageFilter));
+        }
+        return new DoctorSearchSlice(doctors, nextCursor, total);
+    }
+
+    /**
+     * Typo-tolerant search over name, specialization, qualifications and bio, ranked by how well
+     * the words match blended with rating. Until the fuzzy index is built the text is matched as
+     * an exact substring in the database instead.
+     */
+    public List<DoctorSummaryDto> fuzzySearchDoctors(String text, Double minRating, int size) {
+        if (text == null || text.isBlank()) {
+            throw new RuntimeException("Search text is required");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new RuntimeException("Size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (fuzzyIndex.isReady()) {
+            return fuzzyIndex.search(text, minRating, size);
+        }
+        return attachLanguages(doctorRepository.findSummariesByText(text.trim(), minRating,
+                PageRequest.of(0, size, SEARCH_ORDER)));
+    }
+
+    /**
+     * The k active doctors closest to a zip code that match the filters, nearest first, with
+     * distances between zip code centroids. Doctors whose zip code has no known centroid are
+     * never returned.
+     */
+    public List<NearbyDoctorDto> findNearbyDoctors(String zipCode, int k, String specialization, String language,
+                                                   Double minRating) {
+        if (k < 1 || k > MAX_PAGE_SIZE) {
+            throw new RuntimeException("k must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        GeoPoint origin = zipCentroids.find(zipCode)
+                .orElseThrow(() -> new RuntimeException("Unknown zip code"));
+        String languageFilter = language == null || language.isEmpty() ? null : language;
+        if (geoIndex.isReady()) {
+            return geoIndex.nearest(origin, k, specialization, languageFilter, minRating);
+        }
+
+        // Until the index is built: measure every matching doctor, then load the cards of the closest k
+        Map<Long, Double> distances = new HashMap<>();
+        List<DoctorRepository.LocationEntry> located = new ArrayList<>();
+        for (DoctorRepository.LocationEntry entry : doctorRepository.findLocationsWithFilters(
+                specialization, null, null, minRating, languageFilter)) {
+            zipCentroids.find(entry.getZipCode()).ifPresent(point -> {
+                distances.put(entry.getDoctorId(), origin.distanceMiles(point));
+                located.add(entry);
+            });
+        }
+        if (located.isEmpty()) {
+            return List.of();
+        }
+        // Same order as the index: distance, then rating, then id
+        located.sort(Comparator
+                .comparingDouble((DoctorRepository.LocationEntry entry) -> distances.get(entry.getDoctorId()))
+                .thenComparing(DoctorRepository.LocationEntry::getRating,
+                        Comparator.nullsLast(Comparator.reverseOrder()))
+                .thenComparing(DoctorRepository.LocationEntry::getDoctorId));
+        List<DoctorRepository.LocationEntry> closest = located.subList(0, Math.min(k, located.size()));
+
+        Map<Long, DoctorSummaryDto> cards = new HashMap<>();
+        List<Long> ids = new ArrayList<>();
+        closest.forEach(entry -> ids.add(entry.getDoctorId()));
+        for (DoctorSummaryDto card : attachLanguages(doctorRepository.findSummariesByIds(ids))) {
+            cards.put(card.getId(), card);
+        }
+        List<NearbyDoctorDto> doctors = new ArrayList<>(closest.size());
+        for (DoctorRepository.LocationEntry entry : closest) {
+            doctors.add(DoctorGeoIndex.nearby(cards.get(entry.getDoctorId()), distances.get(entry.getDoctorId())));
+        }
+        return doctors;
+    }
+
+    public List<DoctorDto> getAllActiveDoctors() {
+        return attachLanguages(doctorRepository.findActiveDtos());
+    }
+
+    public Optional<DoctorDto> getDoctorById(Long id) {
+        return doctorRepository.findDtoById(id).map(doctor -> attachLanguages(List.of(doctor)).get(0));
     }
 
-    public List<Doctor> getAllActiveDoctors() {
-        return doctorRepository.findByIsActiveTrue();
+    public Optional<LocalDateTime> getDoctorVersion(Long id) {
+        return doctorRepository.findUpdatedAtById(id);
     }
 
-    public Optional<Doctor> getDoctorById(Long id) {
-        return doctorRepository.findById(id);
+    public List<DoctorSummaryDto> getDoctorsBySpecialization(String specialization) {
+        return attachLanguages(doctorRepository.findSummariesBySpecialization(specialization));
     }
 
-    public List<Doctor> getDoctorsBySpecialization(String specialization) {
-        return doctorRepository.findBySpecializationContainingIgnoreCase(specialization);
+    private static String lowerCase(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    // One IN query for the whole result instead of a lazy collection load per doctor
+    private <T extends DoctorSummaryDto> List<T> attachLanguages(List<T> doctors) {
+        if (doctors.isEmpty()) {
+            return doctors;
+        }
+        Map<Long, List<String>> languages = new HashMap<>();
+        for (T doctor : doctors) {
+            languages.put(doctor.getId(), new ArrayList<>());
+        }
+        for (DoctorRepository.LanguageEntry entry : doctorRepository.findLanguagesByDoctorIds(languages.keySet())) {
+            languages.get(entry.getDoctorId()).add(entry.getLanguage());
+        }
+        for (T doctor : doctors) {
+            doctor.setLanguages(languages.get(doctor.getId()));
+        }
+        return doctors;
     }
 
     public Doctor saveDoctor(Doctor doctor) {
-        return doctorRepository.save(doctor);
+        Doctor savedDoctor = doctorRepository.save(doctor);
+        searchIndex.update(savedDoctor);
+        fuzzyIndex.update(savedDoctor);
+        geoIndex.update(savedDoctor);
+        return savedDoctor;
     }
 
     public void deleteDoctor(Long id) {
         doctorRepository.deleteById(id);
+        searchIndex.remove(id);
+        fuzzyIndex.remove(id);
+        geoIndex.remove(id);
     }
 
+    @Transactional
     public Doctor updateDoctor(Long id, Doctor doctorDetails) {
         Doctor doctor = doctorRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Doctor not found"));
@@ -63,11 +291,53 @@ public class DoctorService {
         doctor.setCity(doctorDetails.getCity());
         doctor.setState(doctorDetails.getState());
         doctor.setZipCode(doctorDetails.getZipCode());
-        doctor.setLanguages(doctorDetails.getLanguages());
+        if (CollectionUpdates.replaceContents(doctor.getLanguages(), doctorDetails.getLanguages())) {
+            touch(doctor);
+        }
         doctor.setConsultationFee(doctorDetails.getConsultationFee());
         doctor.setBio(doctorDetails.getBio());
         doctor.setIsActive(doctorDetails.getIsActive());
 
-        return doctorRepository.save(doctor);
+        Doctor savedDoctor = doctorRepository.save(doctor);
+        searchIndex.update(savedDoctor);
+        fuzzyIndex.update(savedDoctor);
+        geoIndex.update(savedDoctor);
+        return savedDoctor;
+    }
+
+    @Transactional
+    public Doctor patchDoctor(Long id, JsonNode patch) {
+        Doctor doctor = doctorRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Doctor not found"));
+
+        MergePatch mergePatch = MergePatch.of(patch, objectMapper, PATCHABLE_FIELDS);
+        mergePatch.apply("firstName", String.class, doctor::getFirstName, doctor::setFirstName);
+        mergePatch.apply("lastName", String.class, doctor::getLastName, doctor::setLastName);
+        mergePatch.apply("specialization", String.class, doctor::getSpecialization, doctor::setSpecialization);
+        mergePatch.apply("qualifications", String.class, doctor::getQualifications, doctor::setQualifications);
+        mergePatch.apply("phoneNumber", String.class, doctor::getPhoneNumber, doctor::setPhoneNumber);
+        mergePatch.apply("email", String.class, doctor::getEmail, doctor::setEmail);
+        mergePatch.apply("clinicAddress", String.class, doctor::getClinicAddress, doctor::setClinicAddress);
+        mergePatch.apply("city", String.class, doctor::getCity, doctor::setCity);
+        mergePatch.apply("state", String.class, doctor::getState, doctor::setState);
+        mergePatch.apply("zipCode", String.class, doctor::getZipCode, doctor::setZipCode);
+        if (mergePatch.applyCollection("languages", String.class, doctor.getLanguages())) {
+            touch(doctor);
+        }
+        mergePatch.apply("consultationFee", Double.class, doctor::getConsultationFee, doctor::setConsultationFee);
+        mergePatch.apply("bio", String.class, doctor::getBio, doctor::setBio);
+        mergePatch.apply("isActive", Boolean.class, doctor::getIsActive, doctor::setIsActive);
+        MergePatch.validate(validator, doctor);
+        searchIndex.update(doctor);
+        fuzzyIndex.update(doctor);
+        geoIndex.update(doctor);
+
+        // Managed entity: the changed columns are flushed on commit
+        return doctor;
+    }
+
+    // A change to the languages table alone leaves the doctors row clean, yet updatedAt backs the ETag
+    private static void touch(Doctor doctor) {
+        doctor.setUpdatedAt(LocalDateTime.now());
     }
 }
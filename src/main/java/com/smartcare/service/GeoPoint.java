@@ -0,0 +1,53 @@
+package com.smartcare.service;
+
+/**
+ * A point on the earth, kept both as latitude/longitude and as a unit vector. Straight-line
+ * (chord) distances between unit vectors order points exactly like great-circle distances, need
+ * no trigonometry and do not wrap around at the antimeridian, which is what the k-d tree uses.
+ */
+public final class GeoPoint {
+
+    static final double EARTH_RADIUS_MILES = 3958.8;
+
+    private final double latitude;
+    private final double longitude;
+    private final double x;
+    private final double y;
+    private final double z;
+
+    public GeoPoint(double latitude, double longitude) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        this.x = Math.cos(lat) * Math.cos(lon);
+        this.y = Math.cos(lat) * Math.sin(lon);
+        this.z = Math.sin(lat);
+    }
+
+    public double getLatitude() { return latitude; }
+    public double getLongitude() { return longitude; }
+
+    public double distanceMiles(GeoPoint other) {
+        return chordToMiles(chordSquared(other));
+    }
+
+    double chordSquared(GeoPoint other) {
+        double dx = x - other.x;
+        double dy = y - other.y;
+        double dz = z - other.z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    double coordinate(int axis) {
+        return switch (axis) {
+            case 0 -> x;
+            case 1 -> y;
+            default -> z;
+        };
+    }
+
+    static double chordToMiles(double chordSquared) {
+        return 2 * EARTH_RADIUS_MILES * Math.asin(Math.min(1, Math.sqrt(chordSquared) / 2));
+    }
+}
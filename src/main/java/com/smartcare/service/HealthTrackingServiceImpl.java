@@ -4,10 +4,8 @@ import com.smartcare.dto.healthtracking.HealthTrackingOverviewDto;
 import com.smartcare.dto.healthtracking.HealthGoalDto;
 import com.smartcare.model.HealthGoal;
 import com.smartcare.model.HealthTracking;
-import com.smartcare.model.User;
 import com.smartcare.repository.HealthGoalRepository;
 import com.smartcare.repository.HealthTrackingRepository;
-import com.smartcare.repository.UserRepository;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -21,13 +19,10 @@ public class HealthTrackingServiceImpl implements HealthTrackingService {
     private HealthTrackingRepository healthTrackingRepository;
     @Autowired
     private HealthGoalRepository healthGoalRepository;
-    @Autowired
-    private UserRepository userRepository;
 
     @Override
     public HealthTrackingOverviewDto getOverview(Long userId) {
-        User user = userRepository.findById(userId).orElseThrow();
-        HealthTracking ht = healthTrackingRepository.findByUser(user).orElseThrow();
+        HealthTracking ht = healthTrackingRepository.findWithGoalsByUserId(userId).orElseThrow();
         HealthTrackingOverviewDto dto = new HealthTrackingOverviewDto();
         dto.healthScore = ht.getHealthScore();
         dto.activity = ht.getActivity();
@@ -40,16 +35,14 @@ public class HealthTrackingServiceImpl implements HealthTrackingService {
 
     @Override
     public List<HealthGoalDto> getGoals(Long userId) {
-        User user = userRepository.findById(userId).orElseThrow();
-        HealthTracking ht = healthTrackingRepository.findByUser(user).orElseThrow();
+        HealthTracking ht = healthTrackingRepository.findWithGoalsByUserId(userId).orElseThrow();
         return ht.getGoals().stream().map(this::toGoalDto).collect(Collectors.toList());
     }
 
     @Override
     @Transactional
     public HealthGoalDto addGoal(Long userId, HealthGoalDto goalDto) {
-        User user = userRepository.findById(userId).orElseThrow();
-        HealthTracking ht = healthTrackingRepository.findByUser(user).orElseThrow();
+        Long healthTrackingId = healthTrackingRepository.findIdByUserId(userId).orElseThrow();
         HealthGoal goal = new HealthGoal();
         goal.setGoalType(goalDto.goalType);
         goal.setDescription(goalDto.description);
@@ -58,7 +51,7 @@ public class HealthTrackingServiceImpl implements HealthTrackingService {
         goal.setStatus(goalDto.status);
         goal.setStartDate(goalDto.startDate);
         goal.setEndDate(goalDto.endDate);
-        goal.setHealthTracking(ht);
+        goal.setHealthTracking(healthTrackingRepository.getReferenceById(healthTrackingId));
         healthGoalRepository.save(goal);
         return toGoalDto(goal);
     }
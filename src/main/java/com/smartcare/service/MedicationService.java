@@ -1,48 +1,61 @@
 package com.smartcare.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcare.dto.medication.MedicationDto;
 import com.smartcare.model.Medication;
 import com.smartcare.model.MedicationStatus;
-import com.smartcare.model.User;
 import com.smartcare.repository.MedicationRepository;
 import com.smartcare.repository.UserRepository;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class MedicationService {
 
+    private static final Set<String> PATCHABLE_FIELDS = Set.of(
+            "medicationName", "dosage", "frequency", "startDate", "endDate", "reminderTimes", "instructions",
+            "status", "refillReminderDays", "remainingQuantity", "prescribedBy");
+
     @Autowired
     private MedicationRepository medicationRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
     public Medication addMedication(Long userId, Medication medication) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        medication.setUser(user);
+        // The caller is the authenticated user, so a reference is enough to set the foreign key
+        medication.setUser(userRepository.getReferenceById(userId));
         return medicationRepository.save(medication);
     }
 
-    public List<Medication> getUserMedications(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        return medicationRepository.findByUserOrderByCreatedAtDesc(user);
+    public List<MedicationDto> getUserMedications(Long userId) {
+        return medicationRepository.findDtosByUserId(userId);
     }
 
-    public List<Medication> getActiveMedications(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        return medicationRepository.findActiveMedicationsByUser(user, LocalDateTime.now());
+    public MedicationRepository.ListVersion getUserMedicationsVersion(Long userId) {
+        return medicationRepository.findListVersionByUserId(userId);
     }
 
-    public Optional<Medication> getMedicationById(Long id) {
-        return medicationRepository.findById(id);
+    public List<MedicationDto> getActiveMedications(Long userId) {
+        return medicationRepository.findActiveDtosByUserId(userId, LocalDateTime.now());
+    }
+
+    public Optional<MedicationDto> getMedicationById(Long id) {
+        return medicationRepository.findDtoById(id);
     }
 
     public Medication updateMedication(Long id, Medication medicationDetails) {
@@ -64,6 +77,29 @@ public class MedicationService {
         return medicationRepository.save(medication);
     }
 
+    @Transactional
+    public Medication patchMedication(Long id, JsonNode patch) {
+        Medication medication = medicationRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Medication not found"));
+
+        MergePatch mergePatch = MergePatch.of(patch, objectMapper, PATCHABLE_FIELDS);
+        mergePatch.apply("medicationName", String.class, medication::getMedicationName, medication::setMedicationName);
+        mergePatch.apply("dosage", String.class, medication::getDosage, medication::setDosage);
+        mergePatch.apply("frequency", String.class, medication::getFrequency, medication::setFrequency);
+        mergePatch.apply("startDate", LocalDateTime.class, medication::getStartDate, medication::setStartDate);
+        mergePatch.apply("endDate", LocalDateTime.class, medication::getEndDate, medication::setEndDate);
+        mergePatch.apply("reminderTimes", String.class, medication::getReminderTimes, medication::setReminderTimes);
+        mergePatch.apply("instructions", String.class, medication::getInstructions, medication::setInstructions);
+        mergePatch.apply("status", MedicationStatus.class, medication::getStatus, medication::setStatus);
+        mergePatch.apply("refillReminderDays", Integer.class,
+                medication::getRefillReminderDays, medication::setRefillReminderDays);
+        mergePatch.apply("remainingQuantity", Integer.class,
+                medication::getRemainingQuantity, medication::setRemainingQuantity);
+        mergePatch.apply("prescribedBy", String.class, medication::getPrescribedBy, medication::setPrescribedBy);
+        MergePatch.validate(validator, medication);
+        return medication;
+    }
+
     public Medication updateMedicationStatus(Long id, MedicationStatus status) {
         Medication medication = medicationRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Medication not found"));
@@ -76,8 +112,8 @@ public class MedicationService {
         medicationRepository.deleteById(id);
     }
 
-    public List<Medication> getMedicationsNeedingRefill() {
-        return medicationRepository.findMedicationsNeedingRefill();
+    public List<MedicationDto> getMedicationsNeedingRefill() {
+        return medicationRepository.findDtosNeedingRefill();
     }
 
     public Medication updateRemainingQuantity(Long id, Integer quantity) {
@@ -88,9 +124,7 @@ public class MedicationService {
         return medicationRepository.save(medication);
     }
 
-    public List<Medication> getMedicationsByStatus(Long userId, MedicationStatus status) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        return medicationRepository.findByUserAndStatus(user, status);
+    public List<MedicationDto> getMedicationsByStatus(Long userId, MedicationStatus status) {
+        return medicationRepository.findDtosByUserIdAndStatus(userId, status);
     }
 }
@@ -0,0 +1,96 @@
+package com.smartcare.service;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Applies a JSON Merge Patch (RFC 7396) document to an entity field by field. Only whitelisted
+ * fields may appear in the patch, and a setter is only called when the value actually differs, so
+ * Hibernate's dirty checking (with {@code @DynamicUpdate}) writes just the changed columns.
+ */
+final class MergePatch {
+
+    private final JsonNode patch;
+    private final ObjectMapper objectMapper;
+    private boolean changed;
+
+    private MergePatch(JsonNode patch, ObjectMapper objectMapper) {
+        this.patch = patch;
+        this.objectMapper = objectMapper;
+    }
+
+    static MergePatch of(JsonNode patch, ObjectMapper objectMapper, Set<String> patchableFields) {
+        if (patch == null || !patch.isObject()) {
+            throw new RuntimeException("Merge patch must be a JSON object");
+        }
+        Iterator<String> names = patch.fieldNames();
+        while (names.hasNext()) {
+            String name = names.next();
+            if (!patchableFields.contains(name)) {
+                throw new RuntimeException("Field cannot be patched: " + name);
+            }
+        }
+        return new MergePatch(patch, objectMapper);
+    }
+
+    /** Sets the field if the patch mentions it and the new value differs; null clears it. */
+    <T> boolean apply(String field, Class<T> type, Supplier<T> getter, Consumer<T> setter) {
+        if (!patch.has(field)) {
+            return false;
+        }
+        T value = read(field, objectMapper.constructType(type));
+        if (Objects.equals(value, getter.get())) {
+            return false;
+        }
+        setter.accept(value);
+        changed = true;
+        return true;
+    }
+
+    /** Replaces the contents of a managed collection by difference; arrays are replaced as a whole per RFC 7396. */
+    <E> boolean applyCollection(String field, Class<E> elementType, Collection<E> target) {
+        if (!patch.has(field)) {
+            return false;
+        }
+        List<E> values = read(field, objectMapper.getTypeFactory().constructCollectionType(List.class, elementType));
+        boolean modified = CollectionUpdates.replaceContents(target, values);
+        changed |= modified;
+        return modified;
+    }
+
+    boolean isChanged() {
+        return changed;
+    }
+
+    /** Re-checks the entity's bean constraints so a patch cannot null out or overflow a column. */
+    static void validate(Validator validator, Object entity) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(entity);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<Object> violation = violations.iterator().next();
+            throw new RuntimeException(violation.getPropertyPath() + " " + violation.getMessage());
+        }
+    }
+
+    private <T> T read(String field, JavaType type) {
+        JsonNode node = patch.get(field);
+        if (node.isNull()) {
+            return null;
+        }
+        try {
+            return objectMapper.convertValue(node, type);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid value for field: " + field);
+        }
+    }
+}
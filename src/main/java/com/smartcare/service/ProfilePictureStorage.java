@@ -0,0 +1,353 @@
+package com.smartcare.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed store for profile pictures on local disk. An upload is streamed through a
+ * SHA-256 digest into a temp file and atomically moved to {@code <hash>.<ext>}, so identical images
+ * are stored once and a stored file never changes, which makes its hash a strong ETag. A square
+ * PNG thumbnail of a fixed size is rendered in the background for every stored picture.
+ * <p>
+ * Since one file can back several users, {@link #store} reserves the file until the caller
+ * {@link #release releases} it, i.e. once the reference to it is committed or rolled back, and
+ * {@link #deleteIfUnused} leaves reserved files alone. Both run under the same lock, so a delete
+ * never removes a file that a concurrent upload has just reused.
+ */
+@Component
+public class ProfilePictureStorage {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProfilePictureStorage.class);
+
+    private static final Pattern FILE_NAME = Pattern.compile("[0-9a-f]{64}\\.(jpg|png|gif)");
+    private static final int HEADER_LENGTH = 8;
+
+    @Value("${app.profile-pictures.dir:uploads/profile-pictures}")
+    private String directory;
+
+    @Value("${app.profile-pictures.thumbnail-size:128}")
+    private int thumbnailSize;
+
+    @Value("${app.profile-pictures.max-pixels:40000000}")
+    private long maxPixels;
+
+    @Value("${app.profile-pictures.thumbnail-queue-capacity:100}")
+    private int thumbnailQueueCapacity;
+
+    private Path root;
+    private Path thumbnails;
+    private Path incoming;
+    private ThreadPoolExecutor thumbnailExecutor;
+    private final Set<String> pendingThumbnails = ConcurrentHashMap.newKeySet();
+    // File name -> uploads that stored or reused it and are not released yet; guarded by itself
+    private final Map<String, Integer> reservations = new HashMap<>();
+
+    @PostConstruct
+    public void init() throws IOException {
+        root = Paths.get(directory).toAbsolutePath().normalize();
+        thumbnails = root.resolve("thumbnails");
+        // Temp files live under the root so the final move is a same-filesystem rename
+        incoming = root.resolve("incoming");
+        Files.createDirectories(thumbnails);
+        Files.createDirectories(incoming);
+
+        thumbnailExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(thumbnailQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "profile-picture-thumbnails");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        thumbnailExecutor.shutdownNow();
+    }
+
+    /**
+     * Streams the content to disk and returns the stored file name, reserved until
+     * {@link #release} is called with it. Only JPEG, PNG and GIF images are accepted; the type is
+     * taken from the file's magic bytes, not from the client.
+     */
+    public String store(InputStream content) throws IOException {
+        Path temp = Files.createTempFile(incoming, "upload-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            try (InputStream in = new DigestInputStream(content, digest)) {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            ImageType type = ImageType.detect(temp);
+            if (type == null) {
+                throw new RuntimeException("Unsupported image type");
+            }
+
+            String fileName = HexFormat.of().formatHex(digest.digest()) + "." + type.extension;
+            Path target = root.resolve(fileName);
+            synchronized (reservations) {
+                if (Files.exists(target)) {
+                    logger.debug("ProfilePictureStorage | store | duplicate of {}", fileName);
+                } else {
+                    move(temp, target);
+                }
+                reservations.merge(fileName, 1, Integer::sum);
+            }
+            scheduleThumbnail(fileName);
+            return fileName;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public void release(String fileName) {
+        synchronized (reservations) {
+            reservations.computeIfPresent(fileName, (name, count) -> count == 1 ? null : count - 1);
+        }
+    }
+
+    /**
+     * Removes a stored picture and its thumbnail unless an upload still holds it or referenced
+     * reports that something refers to it. The check and the delete run under the reservation
+     * lock, so referenced must read committed state.
+     */
+    public void deleteIfUnused(String fileName, BooleanSupplier referenced) {
+        if (!FILE_NAME.matcher(fileName).matches()) {
+            return;
+        }
+        synchronized (reservations) {
+            if (reservations.containsKey(fileName) || referenced.getAsBoolean()) {
+                return;
+            }
+            try {
+                Files.deleteIfExists(root.resolve(fileName));
+                Files.deleteIfExists(thumbnailPath(hashOf(fileName)));
+            } catch (IOException e) {
+                logger.warn("ProfilePictureStorage | deleteIfUnused | failed for {}: {}", fileName, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Looks up a stored picture or its thumbnail. While the thumbnail is not rendered yet the
+     * original is returned instead, marked as not cacheable so clients come back for the thumbnail.
+     */
+    public Optional<StoredPicture> find(String fileName, boolean thumbnail) {
+        if (!FILE_NAME.matcher(fileName).matches()) {
+            return Optional.empty();
+        }
+        Path original = root.resolve(fileName);
+        if (!Files.isRegularFile(original)) {
+            return Optional.empty();
+        }
+
+        String hash = hashOf(fileName);
+        if (thumbnail) {
+            Path thumbnailPath = thumbnailPath(hash);
+            if (Files.isRegularFile(thumbnailPath)) {
+                return Optional.of(new StoredPicture(thumbnailPath, MediaType.IMAGE_PNG,
+                        "\"" + hash + "-" + thumbnailSize + "\"", true));
+            }
+            scheduleThumbnail(fileName);
+        }
+        return Optional.of(new StoredPicture(original, ImageType.fromFileName(fileName).mediaType,
+                "\"" + hash + "\"", !thumbnail));
+    }
+
+    private void scheduleThumbnail(String fileName) {
+        String hash = hashOf(fileName);
+        if (Files.exists(thumbnailPath(hash)) || !pendingThumbnails.add(hash)) {
+            return;
+        }
+        try {
+            thumbnailExecutor.execute(() -> {
+                try {
+                    generateThumbnail(fileName, hash);
+                } catch (IOException | RuntimeException e) {
+                    logger.warn("ProfilePictureStorage | generateThumbnail | failed for {}: {}", fileName, e.getMessage());
+                } finally {
+                    pendingThumbnails.remove(hash);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Queue full: the original is served meanwhile and a later request schedules it again
+            pendingThumbnails.remove(hash);
+        }
+    }
+
+    private void generateThumbnail(String fileName, String hash) throws IOException {
+        BufferedImage source;
+        try (ImageInputStream in = ImageIO.createImageInputStream(root.resolve(fileName).toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                throw new IOException("No image reader");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                // Dimensions come from the header, so oversized images are refused before decoding
+                if ((long) width * height > maxPixels) {
+                    throw new IOException("Image too large: " + width + "x" + height);
+                }
+                // Subsample while decoding so a large photo is never decoded at full resolution
+                int step = Math.max(1, Math.min(width, height) / (thumbnailSize * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                source = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+
+        Path temp = Files.createTempFile(incoming, "thumbnail-", ".tmp");
+        try {
+            ImageIO.write(cropAndScale(source), "png", temp.toFile());
+            move(temp, thumbnailPath(hash));
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private BufferedImage cropAndScale(BufferedImage source) {
+        int side = Math.min(source.getWidth(), source.getHeight());
+        int x = (source.getWidth() - side) / 2;
+        int y = (source.getHeight() - side) / 2;
+
+        BufferedImage thumbnail = new BufferedImage(thumbnailSize, thumbnailSize, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, thumbnailSize, thumbnailSize, x, y, x + side, y + side, null);
+        } finally {
+            graphics.dispose();
+        }
+        return thumbnail;
+    }
+
+    private Path thumbnailPath(String hash) {
+        return thumbnails.resolve(hash + "-" + thumbnailSize + ".png");
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static String hashOf(String fileName) {
+        return fileName.substring(0, fileName.indexOf('.'));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static final class StoredPicture {
+
+        private final Path path;
+        private final MediaType contentType;
+        private final String etag;
+        private final boolean immutable;
+
+        StoredPicture(Path path, MediaType contentType, String etag, boolean immutable) {
+            this.path = path;
+            this.contentType = contentType;
+            this.etag = etag;
+            this.immutable = immutable;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public MediaType getContentType() {
+            return contentType;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public boolean isImmutable() {
+            return immutable;
+        }
+    }
+
+    private enum ImageType {
+        JPEG("jpg", MediaType.IMAGE_JPEG, new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF}),
+        PNG("png", MediaType.IMAGE_PNG, new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'}),
+        GIF("gif", MediaType.IMAGE_GIF, new byte[]{'G', 'I', 'F', '8'});
+
+        private final String extension;
+        private final MediaType mediaType;
+        private final byte[] magic;
+
+        ImageType(String extension, MediaType mediaType, byte[] magic) {
+            this.extension = extension;
+            this.mediaType = mediaType;
+            this.magic = magic;
+        }
+
+        static ImageType detect(Path file) throws IOException {
+            byte[] header = new byte[HEADER_LENGTH];
+            int length;
+            try (InputStream in = Files.newInputStream(file)) {
+                length = in.readNBytes(header, 0, HEADER_LENGTH);
+            }
+            for (ImageType type : values()) {
+                if (length >= type.magic.length
+                        && Arrays.equals(header, 0, type.magic.length, type.magic, 0, type.magic.length)) {
+                    return type;
+                }
+            }
+            return null;
+        }
+
+        static ImageType fromFileName(String fileName) {
+            String extension = fileName.substring(fileName.indexOf('.') + 1);
+            for (ImageType type : values()) {
+                if (type.extension.equals(extension)) {
+                    return type;
+                }
+            }
+            throw new IllegalStateException("Unknown extension: " + extension);
+        }
+    }
+}
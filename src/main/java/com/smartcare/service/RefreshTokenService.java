@@ -0,0 +1,150 @@
+package com.smartcare.service;
+
+import com.smartcare.dto.auth.TokenRefreshResponse;
+import com.smartcare.model.RefreshToken;
+import com.smartcare.repository.RefreshTokenRepository;
+import com.smartcare.security.CustomUserDetailsService;
+import com.smartcare.security.InvalidRefreshTokenException;
+import com.smartcare.security.JwtTokenProvider;
+import com.smartcare.security.JwtValidationResult;
+import com.smartcare.security.PrincipalChangeRegistry;
+import com.smartcare.security.UserPrincipal;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Issues and rotates refresh tokens. Each exchange consumes the presented token and issues a
+ * successor in the same family; presenting an already consumed token revokes the whole family.
+ * Successors expire with the family's first token, so rotation never extends a session. Exchanges
+ * rebuild the principal from the token's claims and only load the user when
+ * {@link PrincipalChangeRegistry} reports a change since that principal was read. Successors keep
+ * the original principal issue time, so a change the registry has not seen yet is still caught
+ * on a later exchange.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private PrincipalChangeRegistry principalChangeRegistry;
+
+    @Autowired
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Value("${app.jwt.refresh-expiration:1209600000}")
+    private long refreshExpirationInMs;
+
+    private final SecureRandom random = new SecureRandom();
+
+    /** Starts a new token family, e.g. on sign-in. */
+    @Transactional
+    public String issue(UserPrincipal principal) {
+        return issue(principal, new Date(), newId(), Instant.now().plusMillis(refreshExpirationInMs));
+    }
+
+    // Reuse revokes the family, so that delete must survive the exception
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public TokenRefreshResponse rotate(String refreshToken) {
+        JwtValidationResult result = tokenProvider.parseRefreshToken(refreshToken);
+        if (!result.isValid()) {
+            throw new InvalidRefreshTokenException("Invalid refresh token");
+        }
+
+        Claims claims = result.getClaims();
+        String tokenId = claims.getId();
+        String familyId = tokenProvider.getRefreshFamily(claims);
+        if (tokenId == null || familyId == null) {
+            throw new InvalidRefreshTokenException("Invalid refresh token");
+        }
+
+        if (refreshTokenRepository.markUsed(tokenId, Instant.now()) == 0) {
+            // Already consumed or revoked: assume the token leaked and end every session in the family
+            int revoked = refreshTokenRepository.deleteByFamilyId(familyId);
+            logger.warn("RefreshTokenService | rotate | refresh token reuse for user {}, revoked {} tokens",
+                    result.getUserId(), revoked);
+            throw new InvalidRefreshTokenException("Refresh token has already been used");
+        }
+
+        Date principalIssuedAt = tokenProvider.getPrincipalIssuedAt(claims);
+        UserPrincipal principal = principalChangeRegistry.isStale(result.getUserId(), principalIssuedAt)
+                ? null
+                : tokenProvider.getUserPrincipalFromClaims(claims);
+        if (principal == null) {
+            // Taken before the read, so a change committed meanwhile still counts as newer
+            principalIssuedAt = new Date();
+            principal = loadPrincipal(result.getUserId(), familyId);
+        }
+
+        Instant familyExpiresAt = claims.getExpiration().toInstant();
+        return new TokenRefreshResponse(tokenProvider.generateToken(principal, principalIssuedAt),
+                issue(principal, principalIssuedAt, familyId, familyExpiresAt));
+    }
+
+    /** Ends the session family of the given refresh token, e.g. on logout. */
+    @Transactional
+    public void revokeFamily(String refreshToken) {
+        JwtValidationResult result = tokenProvider.parseRefreshToken(refreshToken);
+        if (!result.isValid()) {
+            return;
+        }
+        String familyId = tokenProvider.getRefreshFamily(result.getClaims());
+        if (familyId != null) {
+            refreshTokenRepository.deleteByFamilyId(familyId);
+        }
+    }
+
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+        refreshTokenRepository.deleteByUserId(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.refresh-cleanup-interval:PT1H}")
+    @Transactional
+    public void purgeExpired() {
+        int purged = refreshTokenRepository.deleteExpired(Instant.now());
+        if (purged > 0) {
+            logger.info("RefreshTokenService | purgeExpired | removed {} expired refresh tokens", purged);
+        }
+    }
+
+    private String issue(UserPrincipal principal, Date principalIssuedAt, String familyId, Instant expiresAt) {
+        String tokenId = newId();
+        refreshTokenRepository.save(new RefreshToken(tokenId, familyId, principal.getId(), expiresAt));
+        return tokenProvider.generateRefreshToken(principal, principalIssuedAt, tokenId, familyId,
+                Date.from(expiresAt));
+    }
+
+    private UserPrincipal loadPrincipal(Long userId, String familyId) {
+        try {
+            return (UserPrincipal) customUserDetailsService.loadUserById(userId);
+        } catch (UsernameNotFoundException e) {
+            refreshTokenRepository.deleteByFamilyId(familyId);
+            throw new InvalidRefreshTokenException("User no longer exists");
+        }
+    }
+
+    private String newId() {
+        byte[] bytes = new byte[16];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
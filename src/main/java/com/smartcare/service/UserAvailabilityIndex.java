@@ -0,0 +1,216 @@
+package com.smartcare.service;
+
+import com.smartcare.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filters over normalized usernames and emails. A value the filter has never seen is
+ * definitely not taken, so only possible collisions fall through to the exists query. The filters
+ * see this instance's signups and imports right away and everything else on the next scheduled
+ * rebuild, so signup still relies on the unique constraints. Until the first build completes every
+ * check goes to the database.
+ */
+@Component
+public class UserAvailabilityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserAvailabilityIndex.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.users.availability-index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.users.availability-index.min-expected-users:100000}")
+    private long minExpectedUsers;
+
+    @Value("${app.users.availability-index.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${app.users.availability-index.max-memory-bytes:2097152}")
+    private long maxMemoryBytes;
+
+    private volatile Filters current;
+    private volatile Filters building;
+
+    private Field username;
+    private Field email;
+
+    @PostConstruct
+    public void init() {
+        username = new Field("username");
+        email = new Field("email");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    // Picks up users created by other instances and drops deleted ones
+    @Scheduled(fixedDelayString = "${app.users.availability-index.refresh-interval:PT10M}",
+               initialDelayString = "${app.users.availability-index.refresh-interval:PT10M}")
+    public void refresh() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    public boolean isUsernameAvailable(String value) {
+        Filters filters = current;
+        return isAvailable(username, filters == null ? null : filters.usernames, value,
+                v -> userRepository.existsByUsername(v));
+    }
+
+    public boolean isEmailAvailable(String value) {
+        Filters filters = current;
+        return isAvailable(email, filters == null ? null : filters.emails, value,
+                v -> userRepository.existsByEmail(v));
+    }
+
+    /** Records a newly persisted user. Call after the insert has committed. */
+    public void add(String usernameValue, String emailValue) {
+        Filters filters = current;
+        if (filters != null) {
+            filters.put(usernameValue, emailValue);
+        }
+        // A concurrent rebuild may have started its scan before this insert was visible
+        Filters pending = building;
+        if (pending != null) {
+            pending.put(usernameValue, emailValue);
+        }
+    }
+
+    /**
+     * Rebuilds both filters from a streamed scan of the users table and swaps them in.
+     * Deleted users only disappear from the index on rebuild.
+     */
+    public synchronized void rebuild() {
+        long startTime = System.currentTimeMillis();
+        long expectedUsers = Math.max(minExpectedUsers, userRepository.count() * 2);
+        long perFilterBytes = maxMemoryBytes / 2;
+        Filters next = new Filters(
+                BloomFilter.create(expectedUsers, falsePositiveRate, perFilterBytes),
+                BloomFilter.create(expectedUsers, falsePositiveRate, perFilterBytes));
+        building = next;
+        try {
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setReadOnly(true);
+            template.executeWithoutResult(status -> {
+                try (Stream<String> usernames = userRepository.streamAllUsernames()) {
+                    usernames.forEach(v -> next.usernames.put(normalize(v)));
+                }
+                try (Stream<String> emails = userRepository.streamAllEmails()) {
+                    emails.forEach(v -> next.emails.put(normalize(v)));
+                }
+            });
+            current = next;
+        } finally {
+            building = null;
+        }
+        logger.info("UserAvailabilityIndex | rebuild | indexed {} usernames and {} emails in {}ms, {} bytes",
+                next.usernames.insertions(), next.emails.insertions(),
+                System.currentTimeMillis() - startTime, next.usernames.sizeInBytes() + next.emails.sizeInBytes());
+    }
+
+    public boolean isReady() {
+        return current != null;
+    }
+
+    private boolean isAvailable(Field field, BloomFilter filter, String value, Predicate<String> existsQuery) {
+        if (enabled && filter != null && !filter.mightContain(normalize(value))) {
+            field.definitelyAvailable.increment();
+            return true;
+        }
+        field.databaseChecks.increment();
+        boolean exists = existsQuery.test(value);
+        if (!exists && filter != null) {
+            field.falsePositives.increment();
+        }
+        return !exists;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Filters {
+        final BloomFilter usernames;
+        final BloomFilter emails;
+
+        Filters(BloomFilter usernames, BloomFilter emails) {
+            this.usernames = usernames;
+            this.emails = emails;
+        }
+
+        void put(String usernameValue, String emailValue) {
+            usernames.put(normalize(usernameValue));
+            emails.put(normalize(emailValue));
+        }
+    }
+
+    private final class Field {
+        final Counter definitelyAvailable;
+        final Counter databaseChecks;
+        final Counter falsePositives;
+
+        Field(String name) {
+            definitelyAvailable = Counter.builder("users.availability.checks")
+                    .tag("field", name)
+                    .tag("result", "definitely_available")
+                    .register(meterRegistry);
+            databaseChecks = Counter.builder("users.availability.checks")
+                    .tag("field", name)
+                    .tag("result", "database")
+                    .register(meterRegistry);
+            falsePositives = Counter.builder("users.availability.false_positives")
+                    .description("Possible collisions reported by the index that the database ruled out")
+                    .tag("field", name)
+                    .register(meterRegistry);
+
+            ToDoubleFunction<UserAvailabilityIndex> expectedRate =
+                    index -> index.filterFor(name) == null ? Double.NaN : index.filterFor(name).expectedFalsePositiveRate();
+            Gauge.builder("users.availability.index.expected_fpp", UserAvailabilityIndex.this, expectedRate)
+                    .tag("field", name)
+                    .register(meterRegistry);
+            Gauge.builder("users.availability.index.bytes", UserAvailabilityIndex.this,
+                            index -> index.filterFor(name) == null ? 0 : index.filterFor(name).sizeInBytes())
+                    .tag("field", name)
+                    .register(meterRegistry);
+        }
+    }
+
+    private BloomFilter filterFor(String field) {
+        Filters filters = current;
+        if (filters == null) {
+            return null;
+        }
+        return "username".equals(field) ? filters.usernames : filters.emails;
+    }
+}
@@ -0,0 +1,392 @@
+package com.smartcare.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.smartcare.dto.admin.UserImportResult;
+import com.smartcare.dto.admin.UserImportRowResult;
+import com.smartcare.dto.admin.UserImportRowResult.Status;
+import com.smartcare.dto.auth.SignUpRequest;
+import com.smartcare.model.Role;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk user creation for clinic onboarding. Rows are streamed from CSV or NDJSON, validated,
+ * de-duplicated in chunks against the file and the database, hashed in parallel on a dedicated
+ * pool (so imports never compete with logins for the password hashing executor) and inserted
+ * with a JDBC batch, one transaction per chunk. A chunk that fails is retried row by row, so only
+ * the offending rows are reported.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+
+    private static final List<String> REQUIRED_CSV_COLUMNS =
+            List.of("username", "email", "password", "firstname", "lastname");
+    private static final int MAX_PHONE_NUMBER_LENGTH = 15;
+
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO users (username, email, password, first_name, last_name, phone_number, " +
+            "role_mask, email_verified, profile_completed, tour_completed, created_at, updated_at) " +
+            "VALUES (:username, :email, :password, :firstName, :lastName, :phoneNumber, " +
+            ":roleMask, true, false, false, :now, :now)";
+    private static final int IMPORTED_ROLE_MASK = Role.toMask(Set.of(Role.USER));
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserAvailabilityIndex availabilityIndex;
+
+    @Value("${app.security.bcrypt.strength:10}")
+    private int bcryptStrength;
+
+    @Value("${app.users.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.users.import.parallelism:0}")
+    private int parallelism;
+
+    private PasswordEncoder passwordEncoder;
+    private ForkJoinPool hashingPool;
+
+    @PostConstruct
+    public void init() {
+        passwordEncoder = new BCryptPasswordEncoder(bcryptStrength);
+        hashingPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdownNow();
+    }
+
+    public UserImportResult importCsv(InputStream inputStream) {
+        try (BufferedReader reader = newReader(inputStream)) {
+            String header = reader.readLine();
+            int headerLine = 1;
+            while (header != null && header.isBlank()) {
+                header = reader.readLine();
+                headerLine++;
+            }
+            if (header == null) {
+                throw new RuntimeException("CSV import is empty");
+            }
+
+            Map<String, Integer> columns = new HashMap<>();
+            List<String> headerFields = splitCsvLine(header);
+            for (int i = 0; i < headerFields.size(); i++) {
+                columns.put(headerFields.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            List<String> missing = REQUIRED_CSV_COLUMNS.stream()
+                    .filter(column -> !columns.containsKey(column))
+                    .collect(Collectors.toList());
+            if (!missing.isEmpty()) {
+                throw new RuntimeException("CSV header is missing columns: " + String.join(", ", missing));
+            }
+
+            return importRows(reader, headerLine, line -> {
+                List<String> fields = splitCsvLine(line);
+                SignUpRequest request = new SignUpRequest();
+                request.setUsername(csvField(fields, columns, "username"));
+                request.setEmail(csvField(fields, columns, "email"));
+                request.setPassword(csvField(fields, columns, "password"));
+                request.setFirstName(csvField(fields, columns, "firstname"));
+                request.setLastName(csvField(fields, columns, "lastname"));
+                request.setPhoneNumber(csvField(fields, columns, "phonenumber"));
+                return request;
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read CSV import", e);
+        }
+    }
+
+    public UserImportResult importNdjson(InputStream inputStream) {
+        ObjectReader rowReader = objectMapper.readerFor(SignUpRequest.class);
+        try (BufferedReader reader = newReader(inputStream)) {
+            return importRows(reader, 0, rowReader::readValue);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read NDJSON import", e);
+        }
+    }
+
+    private UserImportResult importRows(BufferedReader reader, int firstLineNumber, RowParser parser) throws IOException {
+        long startTime = System.currentTimeMillis();
+        UserImportResult result = new UserImportResult();
+        Set<String> seenUsernames = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+        List<PendingUser> chunk = new ArrayList<>(batchSize);
+
+        int lineNumber = firstLineNumber;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+
+            SignUpRequest request;
+            try {
+                request = parser.parse(line);
+            } catch (IOException | RuntimeException e) {
+                result.getRows().add(rejected(lineNumber, null, Status.INVALID, "Row could not be parsed"));
+                continue;
+            }
+
+            String violation = validate(request);
+            if (violation != null) {
+                result.getRows().add(rejected(lineNumber, request.getUsername(), Status.INVALID, violation));
+                continue;
+            }
+            if (seenUsernames.contains(request.getUsername())) {
+                result.getRows().add(rejected(lineNumber, request.getUsername(), Status.DUPLICATE,
+                        "Username appears earlier in the import"));
+                continue;
+            }
+            if (seenEmails.contains(request.getEmail())) {
+                result.getRows().add(rejected(lineNumber, request.getUsername(), Status.DUPLICATE,
+                        "Email appears earlier in the import"));
+                continue;
+            }
+            seenUsernames.add(request.getUsername());
+            seenEmails.add(request.getEmail());
+
+            UserImportRowResult row = new UserImportRowResult(lineNumber, request.getUsername());
+            result.getRows().add(row);
+            chunk.add(new PendingUser(request, row));
+            if (chunk.size() >= batchSize) {
+                processChunk(chunk);
+                chunk = new ArrayList<>(batchSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(chunk);
+        }
+
+        result.summarize(System.currentTimeMillis() - startTime);
+        logger.info("UserImportService | importRows | {} rows, {} created, {} invalid, {} duplicate, {} failed in {}ms",
+                result.getTotal(), result.getCreated(), result.getInvalid(), result.getDuplicate(),
+                result.getFailed(), result.getDurationMs());
+        return result;
+    }
+
+    private void processChunk(List<PendingUser> chunk) {
+        Set<String> existingUsernames = findExisting("username",
+                chunk.stream().map(p -> p.request.getUsername()).collect(Collectors.toList()));
+        Set<String> existingEmails = findExisting("email",
+                chunk.stream().map(p -> p.request.getEmail()).collect(Collectors.toList()));
+
+        List<PendingUser> toInsert = new ArrayList<>(chunk.size());
+        for (PendingUser pending : chunk) {
+            if (existingUsernames.contains(pending.request.getUsername())) {
+                markRejected(pending.row, Status.DUPLICATE, "Username is already taken");
+            } else if (existingEmails.contains(pending.request.getEmail())) {
+                markRejected(pending.row, Status.DUPLICATE, "Email Address already in use");
+            } else {
+                toInsert.add(pending);
+            }
+        }
+        if (toInsert.isEmpty()) {
+            return;
+        }
+
+        // Parallel streams started from inside a ForkJoinPool task run on that pool
+        hashingPool.submit(() -> toInsert.parallelStream()
+                .forEach(p -> p.encodedPassword = passwordEncoder.encode(p.request.getPassword())))
+                .join();
+
+        try {
+            markCreated(toInsert, insertChunk(toInsert));
+        } catch (DataAccessException e) {
+            // Usually a concurrent signup that claimed one of the names after the uniqueness check.
+            // The chunk rolled back as a whole, so retry it row by row to pin down the offending rows
+            logger.warn("UserImportService | processChunk | batch of {} rows failed, retrying row by row: {}",
+                    toInsert.size(), e.getMessage());
+            for (PendingUser pending : toInsert) {
+                insertRow(pending);
+            }
+        }
+    }
+
+    private void insertRow(PendingUser pending) {
+        try {
+            markCreated(List.of(pending), insertChunk(List.of(pending)));
+        } catch (DuplicateKeyException e) {
+            markRejected(pending.row, Status.DUPLICATE, "Username or email was taken during the import");
+        } catch (DataAccessException e) {
+            logger.error("UserImportService | insertRow | row {} failed: {}", pending.row.getRow(), e.getMessage());
+            markRejected(pending.row, Status.ERROR, "Insert failed; retry this row");
+        }
+    }
+
+    private void markCreated(List<PendingUser> users, Map<String, Long> ids) {
+        for (PendingUser pending : users) {
+            pending.row.setStatus(Status.CREATED);
+            pending.row.setUserId(ids.get(pending.request.getUsername()));
+            availabilityIndex.add(pending.request.getUsername(), pending.request.getEmail());
+        }
+    }
+
+    private Map<String, Long> insertChunk(List<PendingUser> users) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        return transactionTemplate.execute(status -> {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            SqlParameterSource[] userParams = users.stream()
+                    .map(p -> new MapSqlParameterSource()
+                            .addValue("username", p.request.getUsername())
+                            .addValue("email", p.request.getEmail())
+                            .addValue("password", p.encodedPassword)
+                            .addValue("firstName", p.request.getFirstName())
+                            .addValue("lastName", p.request.getLastName())
+                            .addValue("phoneNumber", p.request.getPhoneNumber())
+                            .addValue("roleMask", IMPORTED_ROLE_MASK)
+                            .addValue("now", now))
+                    .toArray(SqlParameterSource[]::new);
+            jdbcTemplate.batchUpdate(INSERT_USER_SQL, userParams);
+
+            Map<String, Long> ids = new HashMap<>();
+            jdbcTemplate.query("SELECT id, username FROM users WHERE username IN (:usernames)",
+                    Map.of("usernames", users.stream().map(p -> p.request.getUsername()).collect(Collectors.toList())),
+                    rs -> {
+                        ids.put(rs.getString("username"), rs.getLong("id"));
+                    });
+            return ids;
+        });
+    }
+
+    private Set<String> findExisting(String column, List<String> values) {
+        Set<String> existing = new HashSet<>();
+        jdbcTemplate.query("SELECT " + column + " FROM users WHERE " + column + " IN (:values)",
+                Map.of("values", values),
+                rs -> {
+                    existing.add(rs.getString(1));
+                });
+        return existing;
+    }
+
+    private String validate(SignUpRequest request) {
+        Set<ConstraintViolation<SignUpRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (request.getPhoneNumber() != null && request.getPhoneNumber().length() > MAX_PHONE_NUMBER_LENGTH) {
+            return "phoneNumber size must be between 0 and " + MAX_PHONE_NUMBER_LENGTH;
+        }
+        return null;
+    }
+
+    private static UserImportRowResult rejected(int lineNumber, String username, Status status, String message) {
+        UserImportRowResult row = new UserImportRowResult(lineNumber, username);
+        markRejected(row, status, message);
+        return row;
+    }
+
+    private static void markRejected(UserImportRowResult row, Status status, String message) {
+        row.setStatus(status);
+        row.setMessage(message);
+    }
+
+    private static BufferedReader newReader(InputStream inputStream) {
+        return new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    private static String csvField(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // RFC 4180 fields on a single line: commas inside double quotes, "" as an escaped quote
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    @FunctionalInterface
+    private interface RowParser {
+        SignUpRequest parse(String line) throws IOException;
+    }
+
+    private static final class PendingUser {
+        final SignUpRequest request;
+        final UserImportRowResult row;
+        String encodedPassword;
+
+        PendingUser(SignUpRequest request, UserImportRowResult row) {
+            this.request = request;
+            this.row = row;
+        }
+    }
+}
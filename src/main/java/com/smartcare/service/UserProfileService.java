@@ -1,28 +1,75 @@
 package com.smartcare.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcare.dto.profile.HealthProfileDto;
+import com.smartcare.dto.profile.UserProfileDto;
+import com.smartcare.model.Gender;
 import com.smartcare.model.HealthProfile;
+import com.smartcare.model.Role;
 import com.smartcare.model.User;
 import com.smartcare.repository.HealthProfileRepository;
 import com.smartcare.repository.UserRepository;
+import com.smartcare.security.PrincipalChangeRegistry;
+import com.smartcare.security.UserPrincipalCache;
+import com.smartcare.util.AfterCommit;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class UserProfileService {
 
+    // The picture changes through the upload endpoint, which also cleans up the previous file
+    private static final Set<String> PATCHABLE_FIELDS = Set.of(
+            "firstName", "lastName", "phoneNumber", "dateOfBirth", "gender");
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
     private HealthProfileRepository healthProfileRepository;
 
-    public User getUserProfile(Long userId) {
-        return userRepository.findById(userId)
+    @Autowired
+    private PrincipalChangeRegistry principalChangeRegistry;
+
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ProfilePictureStorage profilePictureStorage;
+
+    @Value("${server.servlet.context-path:}")
+    private String contextPath;
+
+    public UserProfileDto getUserProfile(Long userId) {
+        return userRepository.findProfileById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
 
+    public Optional<LocalDateTime> getUserProfileVersion(Long userId) {
+        return userRepository.findUpdatedAtById(userId);
+    }
+
     public User updateUserProfile(Long userId, User userDetails) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -40,22 +87,52 @@ public class UserProfileService {
             user.setProfileCompleted(true);
         }
 
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        // Names are embedded in refresh (and stateless access) tokens
+        principalChanged(userId, true);
+        return savedUser;
     }
 
-    public HealthProfile createOrUpdateHealthProfile(Long userId, HealthProfile healthProfileDetails) {
+    @Transactional
+    public User patchUserProfile(Long userId, JsonNode patch) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        Optional<HealthProfile> existingProfile = healthProfileRepository.findByUser(user);
+        MergePatch mergePatch = MergePatch.of(patch, objectMapper, PATCHABLE_FIELDS);
+        boolean namesChanged = mergePatch.apply("firstName", String.class, user::getFirstName, user::setFirstName);
+        namesChanged |= mergePatch.apply("lastName", String.class, user::getLastName, user::setLastName);
+        mergePatch.apply("phoneNumber", String.class, user::getPhoneNumber, user::setPhoneNumber);
+        mergePatch.apply("dateOfBirth", LocalDateTime.class, user::getDateOfBirth, user::setDateOfBirth);
+        mergePatch.apply("gender", Gender.class, user::getGender, user::setGender);
+        MergePatch.validate(validator, user);
+
+        if (user.getFirstName() != null && user.getLastName() != null &&
+            user.getDateOfBirth() != null && user.getGender() != null) {
+            user.setProfileCompleted(true);
+        }
+
+        // Names are embedded in refresh (and stateless access) tokens
+        if (mergePatch.isChanged()) {
+            principalChanged(userId, namesChanged);
+        }
+        return user;
+    }
+
+    @Transactional
+    public HealthProfile createOrUpdateHealthProfile(Long userId, HealthProfile healthProfileDetails) {
+        Optional<HealthProfile> existingProfile = healthProfileRepository.findByUserId(userId);
         
         HealthProfile healthProfile;
         if (existingProfile.isPresent()) {
             healthProfile = existingProfile.get();
             updateHealthProfileFields(healthProfile, healthProfileDetails);
         } else {
+            // A reference avoids loading the user, but would fail on the foreign key instead of reporting it missing
+            if (!userRepository.existsById(userId)) {
+                throw new RuntimeException("User not found");
+            }
             healthProfile = healthProfileDetails;
-            healthProfile.setUser(user);
+            healthProfile.setUser(userRepository.getReferenceById(userId));
         }
 
         return healthProfileRepository.save(healthProfile);
@@ -65,18 +142,20 @@ public class UserProfileService {
         existing.setHeight(details.getHeight());
         existing.setWeight(details.getWeight());
         existing.setBloodType(details.getBloodType());
-        existing.setMedicalConditions(details.getMedicalConditions());
-        existing.setAllergies(details.getAllergies());
+        CollectionUpdates.replaceContents(existing.getMedicalConditions(), details.getMedicalConditions());
+        CollectionUpdates.replaceContents(existing.getAllergies(), details.getAllergies());
         existing.setEmergencyContactName(details.getEmergencyContactName());
         existing.setEmergencyContactPhone(details.getEmergencyContactPhone());
         existing.setEmergencyContactRelationship(details.getEmergencyContactRelationship());
         existing.setAdditionalNotes(details.getAdditionalNotes());
     }
 
-    public Optional<HealthProfile> getHealthProfile(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        return healthProfileRepository.findByUser(user);
+    public Optional<HealthProfileDto> getHealthProfile(Long userId) {
+        return healthProfileRepository.findDtoByUserId(userId).map(profile -> {
+            profile.setMedicalConditions(healthProfileRepository.findMedicalConditions(profile.getId()));
+            profile.setAllergies(healthProfileRepository.findAllergies(profile.getId()));
+            return profile;
+        });
     }
 
     public User completeTour(Long userId) {
@@ -84,14 +163,84 @@ public class UserProfileService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
         user.setTourCompleted(true);
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        principalChanged(userId, false);
+        return savedUser;
     }
 
     public User updateProfilePicture(Long userId, String profilePictureUrl) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
+        String previousUrl = user.getProfilePicture();
         user.setProfilePicture(profilePictureUrl);
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        principalChanged(userId, false);
+        AfterCommit.run(() -> deleteUnusedPicture(previousUrl, profilePictureUrl));
+        return savedUser;
+    }
+
+    // Identical uploads share one stored file, so it is only deleted once no user refers to it
+    private void deleteUnusedPicture(String previousUrl, String currentUrl) {
+        String prefix = contextPath + "/profile-pictures/";
+        if (previousUrl == null || previousUrl.equals(currentUrl) || !previousUrl.startsWith(prefix)) {
+            return;
+        }
+        profilePictureStorage.deleteIfUnused(previousUrl.substring(prefix.length()),
+                () -> userRepository.existsByProfilePicture(previousUrl));
+    }
+
+    public User uploadProfilePicture(Long userId, MultipartFile file) {
+        if (file.isEmpty()) {
+            throw new RuntimeException("Profile picture file is empty");
+        }
+
+        String fileName;
+        try (InputStream content = file.getInputStream()) {
+            fileName = profilePictureStorage.store(content);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not store profile picture");
+        }
+        try {
+            return updateProfilePicture(userId, contextPath + "/profile-pictures/" + fileName);
+        } finally {
+            // Held until the new reference is visible to the unused check, or rolled back
+            AfterCommit.runAfterCompletion(() -> profilePictureStorage.release(fileName));
+        }
+    }
+
+    public User updateUserRoles(Long userId, Set<Role> roles) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        user.setRoles(new HashSet<>(roles));
+        User savedUser = userRepository.save(user);
+
+        // Tokens carrying the old roles must fall back to a database lookup
+        principalChanged(userId, true);
+        return savedUser;
+    }
+
+    @Transactional
+    public void deleteUser(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
+        }
+
+        // Only the health profile maps the relation, so deleting the user does not cascade to it
+        healthProfileRepository.findByUserId(userId).ifPresent(healthProfileRepository::delete);
+        userRepository.deleteById(userId);
+        refreshTokenService.revokeAllForUser(userId);
+        principalChanged(userId, true);
+    }
+
+    // Deferred until commit, so a concurrent request cannot load and cache the old row in between
+    private void principalChanged(Long userId, boolean embeddedInTokens) {
+        AfterCommit.run(() -> {
+            if (embeddedInTokens) {
+                principalChangeRegistry.markChanged(userId);
+            }
+            userPrincipalCache.evict(userId);
+        });
     }
 }
@@ -0,0 +1,72 @@
+package com.smartcare.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Zip code centroids from a local CSV file (zip,latitude,longitude, with # comments and a header
+ * line), used to place doctors and the searched zip code for nearby search. ZIP+4 codes are
+ * looked up by their first five digits.
+ */
+@Component
+public class ZipCentroids {
+
+    private static final Logger logger = LoggerFactory.getLogger(ZipCentroids.class);
+
+    private static final Pattern ZIP = Pattern.compile("(\\d{5})(-\\d{4})?");
+
+    @Value("${app.doctors.geo.centroids:classpath:geo/zip-centroids.csv}")
+    private Resource centroids;
+
+    private Map<String, GeoPoint> points = Map.of();
+
+    @PostConstruct
+    public void init() throws IOException {
+        Map<String, GeoPoint> loaded = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(centroids.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#") || line.startsWith("zip")) {
+                    continue;
+                }
+                String[] columns = line.split(",");
+                if (columns.length != 3 || !ZIP.matcher(columns[0]).matches()) {
+                    throw new IOException("Invalid zip centroid at line " + lineNumber + ": " + line);
+                }
+                try {
+                    loaded.put(columns[0], new GeoPoint(Double.parseDouble(columns[1]), Double.parseDouble(columns[2])));
+                } catch (NumberFormatException e) {
+                    throw new IOException("Invalid zip centroid at line " + lineNumber + ": " + line, e);
+                }
+            }
+        }
+        points = loaded;
+        logger.info("ZipCentroids | init | loaded {} zip codes from {}", loaded.size(), centroids.getDescription());
+    }
+
+    public Optional<GeoPoint> find(String zipCode) {
+        if (zipCode == null) {
+            return Optional.empty();
+        }
+        Matcher matcher = ZIP.matcher(zipCode.trim());
+        return matcher.matches() ? Optional.ofNullable(points.get(matcher.group(1))) : Optional.empty();
+    }
+}
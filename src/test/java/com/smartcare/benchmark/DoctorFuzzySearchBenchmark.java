@@ -0,0 +1,136 @@
+package com.smartcare.benchmark;
+
+import com.smartcare.dto.doctor.DoctorSummaryDto;
+import com.smartcare.model.Doctor;
+import com.smartcare.repository.DoctorRepository;
+import com.smartcare.service.DoctorFuzzyIndex;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.when;
+
+/**
+ * Typo-tolerant doctor search over 100k doctors with generated names, specializations,
+ * qualifications and bios, plus the cost of applying a single doctor update to the index.
+ * Run with: mvn test-compile exec:java -Dexec.mainClass=com.smartcare.benchmark.DoctorFuzzySearchBenchmark -Dexec.classpathScope=test
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DoctorFuzzySearchBenchmark {
+
+    private static final int DOCTORS = 100_000;
+
+    private static final String[] SPECIALIZATIONS = {
+            "Cardiology", "Dermatology", "Pediatrics", "Neurology", "Orthopedics", "Oncology", "Psychiatry",
+            "Family Medicine", "Gastroenterology", "Endocrinology", "Ophthalmology", "Pulmonology"};
+
+    private static final String[] FIRST_NAMES = {
+            "Ada", "Bruno", "Chloe", "Dmitri", "Elena", "Farid", "Grace", "Hiro", "Ines", "Jonas", "Kavya", "Luis"};
+
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Garcia", "Nguyen", "Patel", "Kim", "Martin", "Lopez", "Brown", "Okafor",
+            "Schneider", "Rossi", "Novak", "Haddad", "Larsen", "Tanaka"};
+
+    private static final String[] INTERESTS = {
+            "sports injuries", "preventive care", "chronic pain", "sleep disorders", "diabetes management",
+            "heart failure", "skin cancer screening", "childhood asthma", "migraine", "thyroid disease"};
+
+    private DoctorFuzzyIndex index;
+    private Doctor updated;
+    private int revision;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<DoctorSummaryDto> summaries = new ArrayList<>(DOCTORS);
+        List<DoctorRepository.TextEntry> texts = new ArrayList<>(DOCTORS);
+        for (long id = 1; id <= DOCTORS; id++) {
+            String specialization = SPECIALIZATIONS[random.nextInt(SPECIALIZATIONS.length)];
+            summaries.add(new DoctorSummaryDto(id, "Dr. " + FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+                    LAST_NAMES[random.nextInt(LAST_NAMES.length)] + (id % 500), specialization, null, null,
+                    1 + random.nextInt(41) / 10.0, 0, 100.0, null));
+            texts.add(text(id, "MD, Board Certified in " + specialization,
+                    (5 + random.nextInt(30)) + " years of practice with a special interest in "
+                            + INTERESTS[random.nextInt(INTERESTS.length)] + " and "
+                            + INTERESTS[random.nextInt(INTERESTS.length)]));
+        }
+
+        DoctorRepository doctorRepository = Mockito.mock(DoctorRepository.class);
+        when(doctorRepository.findActiveSummaries()).thenReturn(summaries);
+        when(doctorRepository.findActiveLanguages()).thenReturn(List.of());
+        when(doctorRepository.findActiveTexts()).thenReturn(texts);
+
+        index = new DoctorFuzzyIndex();
+        ReflectionTestUtils.setField(index, "doctorRepository", doctorRepository);
+        ReflectionTestUtils.setField(index, "transactionManager", Mockito.mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(index, "ratingWeight", 0.2);
+        index.rebuild();
+
+        updated = new Doctor();
+        updated.setId(1L);
+        updated.setFirstName("Dr. Ada");
+        updated.setLastName("Smith");
+        updated.setSpecialization("Cardiology");
+        updated.setRating(4.2);
+    }
+
+    @Benchmark
+    public List<DoctorSummaryDto> misspelledSpecialization() {
+        return index.search("cardiolgy", null, 10);
+    }
+
+    @Benchmark
+    public List<DoctorSummaryDto> unfinishedWordAndName() {
+        return index.search("dermatolog garcia", null, 10);
+    }
+
+    @Benchmark
+    public List<DoctorSummaryDto> misspelledBioPhraseWithMinRating() {
+        return index.search("migrane", 4.0, 10);
+    }
+
+    @Benchmark
+    public void updateDoctor() {
+        updated.setBio("Revision " + revision++);
+        index.update(updated);
+    }
+
+    private static DoctorRepository.TextEntry text(Long doctorId, String qualifications, String bio) {
+        return new DoctorRepository.TextEntry() {
+            @Override
+            public Long getDoctorId() {
+                return doctorId;
+            }
+
+            @Override
+            public String getQualifications() {
+                return qualifications;
+            }
+
+            @Override
+            public String getBio() {
+                return bio;
+            }
+        };
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DoctorFuzzySearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,133 @@
+package com.smartcare.benchmark;
+
+import com.smartcare.dto.doctor.DoctorSummaryDto;
+import com.smartcare.dto.doctor.NearbyDoctorDto;
+import com.smartcare.repository.DoctorRepository;
+import com.smartcare.service.DoctorGeoIndex;
+import com.smartcare.service.GeoPoint;
+import com.smartcare.service.ZipCentroids;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.when;
+
+/**
+ * Nearest-doctor search over 100k doctors spread across the bundled zip codes, with and without
+ * filters that only a small share of doctors pass.
+ * Run with: mvn test-compile exec:java -Dexec.mainClass=com.smartcare.benchmark.DoctorGeoSearchBenchmark -Dexec.classpathScope=test
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DoctorGeoSearchBenchmark {
+
+    private static final int DOCTORS = 100_000;
+
+    private static final String[] ZIP_CODES = {
+            "10001", "10019", "11201", "07030", "02115", "19103", "20001", "30303", "33130", "60601",
+            "60614", "77030", "75201", "78701", "80202", "85004", "90001", "90024", "94110", "98101"};
+
+    private static final String[] SPECIALIZATIONS = {
+            "Cardiology", "Dermatology", "Pediatrics", "Neurology", "Orthopedics", "Oncology", "Psychiatry",
+            "Family Medicine"};
+
+    private static final String[] LANGUAGES = {"English", "Spanish", "Mandarin", "Vietnamese", "Arabic"};
+
+    private DoctorGeoIndex index;
+    private GeoPoint origin;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        List<DoctorSummaryDto> summaries = new ArrayList<>(DOCTORS);
+        List<DoctorRepository.LocationEntry> locations = new ArrayList<>(DOCTORS);
+        List<DoctorRepository.LanguageEntry> languages = new ArrayList<>(DOCTORS);
+        for (long id = 1; id <= DOCTORS; id++) {
+            summaries.add(new DoctorSummaryDto(id, "First" + id, "Last" + id,
+                    SPECIALIZATIONS[random.nextInt(SPECIALIZATIONS.length)], null, null,
+                    1 + random.nextInt(41) / 10.0, 0, 100.0, null));
+            locations.add(location(id, ZIP_CODES[random.nextInt(ZIP_CODES.length)]));
+            languages.add(language(id, LANGUAGES[random.nextInt(LANGUAGES.length)]));
+        }
+
+        ZipCentroids zipCentroids = new ZipCentroids();
+        ReflectionTestUtils.setField(zipCentroids, "centroids", new ClassPathResource("geo/zip-centroids.csv"));
+        zipCentroids.init();
+        origin = zipCentroids.find("10003").orElseThrow();
+
+        DoctorRepository doctorRepository = Mockito.mock(DoctorRepository.class);
+        when(doctorRepository.findActiveSummaries()).thenReturn(summaries);
+        when(doctorRepository.findActiveLanguages()).thenReturn(languages);
+        when(doctorRepository.findActiveLocations()).thenReturn(locations);
+
+        index = new DoctorGeoIndex();
+        ReflectionTestUtils.setField(index, "doctorRepository", doctorRepository);
+        ReflectionTestUtils.setField(index, "transactionManager", Mockito.mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(index, "zipCentroids", zipCentroids);
+        index.rebuild();
+    }
+
+    @Benchmark
+    public List<NearbyDoctorDto> nearestTen() {
+        return index.nearest(origin, 10, null, null, null);
+    }
+
+    @Benchmark
+    public List<NearbyDoctorDto> nearestTenWithFilters() {
+        return index.nearest(origin, 10, "cardio", "vietnam", 4.5);
+    }
+
+    private static DoctorRepository.LocationEntry location(Long doctorId, String zipCode) {
+        return new DoctorRepository.LocationEntry() {
+            @Override
+            public Long getDoctorId() {
+                return doctorId;
+            }
+
+            @Override
+            public String getZipCode() {
+                return zipCode;
+            }
+
+            @Override
+            public Double getRating() {
+                return null;
+            }
+        };
+    }
+
+    private static DoctorRepository.LanguageEntry language(Long doctorId, String language) {
+        return new DoctorRepository.LanguageEntry() {
+            @Override
+            public Long getDoctorId() {
+                return doctorId;
+            }
+
+            @Override
+            public String getLanguage() {
+                return language;
+            }
+        };
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DoctorGeoSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,79 @@
+package com.smartcare.benchmark;
+
+import com.smartcare.model.Role;
+import com.smartcare.model.User;
+import com.smartcare.security.JwtTokenProvider;
+import com.smartcare.security.JwtValidationResult;
+import com.smartcare.security.UserPrincipal;
+import com.smartcare.security.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares full JWT verification with the verified-token cache for a replayed bearer token.
+ * Run with: mvn test-compile exec:java -Dexec.mainClass=com.smartcare.benchmark.JwtVerificationBenchmark -Dexec.classpathScope=test
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "benchmarkSecretKeyForJwtTokenGenerationThatIsLongEnoughForHS256Algorithm";
+
+    private JwtTokenProvider tokenProvider;
+    private VerifiedTokenCache verifiedTokenCache;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationInMs", 86400000);
+        tokenProvider.init();
+
+        verifiedTokenCache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(verifiedTokenCache, "tokenProvider", tokenProvider);
+        ReflectionTestUtils.setField(verifiedTokenCache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(verifiedTokenCache, "enabled", true);
+        ReflectionTestUtils.setField(verifiedTokenCache, "maxMemoryBytes", 16L * 1024 * 1024);
+        ReflectionTestUtils.setField(verifiedTokenCache, "maxTtl", Duration.ofMinutes(15));
+        verifiedTokenCache.init();
+
+        User user = new User("benchmark", "benchmark@example.com", "password");
+        user.setId(42L);
+        user.setFirstName("Bench");
+        user.setLastName("Mark");
+        user.setRoles(Set.of(Role.USER));
+        UserPrincipal principal = UserPrincipal.create(user);
+        token = tokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @Benchmark
+    public JwtValidationResult uncachedVerification() {
+        return tokenProvider.parseToken(token);
+    }
+
+    @Benchmark
+    public JwtValidationResult cachedVerification() {
+        return verifiedTokenCache.resolve(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,179 @@
+package com.smartcare.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcare.model.*;
+import com.smartcare.repository.DoctorRepository;
+import com.smartcare.repository.MedicationRepository;
+import com.smartcare.repository.UserRepository;
+import com.smartcare.security.UserPrincipal;
+import com.smartcare.service.DoctorService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("Conditional GET Tests")
+class ConditionalGetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private MedicationRepository medicationRepository;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User patient;
+    private Doctor doctor;
+    private UserPrincipal principal;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        patient = new User("poller", "poller@example.com", "hashed-password");
+        patient.setFirstName("Paula");
+        patient.setLastName("Poller");
+        patient.setRoles(new HashSet<>(Set.of(Role.USER)));
+        userRepository.save(patient);
+
+        doctor = new Doctor();
+        doctor.setFirstName("Dr. Etta");
+        doctor.setLastName("Tag");
+        doctor.setSpecialization("Cardiology");
+        doctor.setLanguages(new LinkedHashSet<>(List.of("English")));
+        doctorRepository.save(doctor);
+
+        addMedication("Aspirin");
+        flushAndClear();
+
+        principal = UserPrincipal.create(patient);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("Should answer a matching profile poll with 304 from a single column read")
+    void shouldAnswerProfilePollWithNotModified() throws Exception {
+        // Given
+        String etag = fetchETag("/profile");
+
+        // When / Then
+        assertNotModified("/profile", etag);
+
+        patient = userRepository.findById(patient.getId()).orElseThrow();
+        patient.setPhoneNumber("+15550101");
+        flushAndClear();
+        assertNotEquals(etag, fetchETag("/profile", etag));
+    }
+
+    @Test
+    @DisplayName("Should change the doctor ETag when only the languages change")
+    void shouldAnswerDoctorPollWithNotModified() throws Exception {
+        // Given
+        String path = "/doctors/" + doctor.getId();
+        String etag = fetchETag(path);
+
+        // When / Then
+        assertNotModified(path, etag);
+
+        doctorService.patchDoctor(doctor.getId(), objectMapper.readTree("{\"languages\": [\"English\", \"French\"]}"));
+        flushAndClear();
+        assertNotEquals(etag, fetchETag(path, etag));
+    }
+
+    @Test
+    @DisplayName("Should change the medication list ETag when a row is added or removed")
+    void shouldAnswerMedicationListPollWithNotModified() throws Exception {
+        // Given
+        String etag = fetchETag("/medications");
+
+        // When / Then
+        assertNotModified("/medications", etag);
+
+        Medication added = addMedication("Ibuprofen");
+        flushAndClear();
+        String afterInsert = fetchETag("/medications", etag);
+        assertNotEquals(etag, afterInsert);
+
+        medicationRepository.deleteById(added.getId());
+        flushAndClear();
+        assertEquals(etag, fetchETag("/medications", afterInsert));
+    }
+
+    private String fetchETag(String path) throws Exception {
+        return mockMvc.perform(get(path).with(user(principal)))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private String fetchETag(String path, String staleETag) throws Exception {
+        return mockMvc.perform(get(path).with(user(principal)).header(HttpHeaders.IF_NONE_MATCH, staleETag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private void assertNotModified(String path, String etag) throws Exception {
+        statistics.clear();
+        mockMvc.perform(get(path).with(user(principal)).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+        assertEquals(1, statistics.getPrepareStatementCount(), "SQL statements");
+    }
+
+    private Medication addMedication(String name) {
+        Medication medication = new Medication();
+        medication.setUser(patient);
+        medication.setMedicationName(name);
+        medication.setDosage("100mg");
+        return medicationRepository.save(medication);
+    }
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
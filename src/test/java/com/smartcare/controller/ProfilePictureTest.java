@@ -0,0 +1,230 @@
+package com.smartcare.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcare.model.Role;
+import com.smartcare.model.User;
+import com.smartcare.repository.UserRepository;
+import com.smartcare.security.UserPrincipal;
+import com.smartcare.service.ProfilePictureStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("Profile picture upload and serving Tests")
+class ProfilePictureTest {
+
+    private static Path storageDirectory;
+
+    @DynamicPropertySource
+    static void storageProperties(DynamicPropertyRegistry registry) throws IOException {
+        storageDirectory = Files.createTempDirectory("profile-pictures");
+        registry.add("app.profile-pictures.dir", storageDirectory::toString);
+        registry.add("app.profile-pictures.thumbnail-size", () -> "32");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProfilePictureStorage profilePictureStorage;
+
+    private UserPrincipal principal;
+    private byte[] image;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        User patient = new User("picture", "picture@example.com", "hashed-password");
+        patient.setFirstName("Picture");
+        patient.setLastName("Owner");
+        patient.setRoles(new HashSet<>(Set.of(Role.USER)));
+        userRepository.save(patient);
+        principal = UserPrincipal.create(patient);
+
+        BufferedImage picture = new BufferedImage(200, 100, BufferedImage.TYPE_INT_RGB);
+        picture.setRGB(10, 10, 0xFF0000);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(picture, "png", out);
+        image = out.toByteArray();
+    }
+
+    @Test
+    @DisplayName("Should store uploads by content hash and dedupe identical images")
+    void shouldStoreUploadsByContentHash() throws Exception {
+        // When
+        String first = upload(image);
+        String second = upload(image);
+
+        // Then
+        assertEquals(first, second);
+        assertTrue(first.matches("/api/v1/profile-pictures/[0-9a-f]{64}\\.png"));
+        try (Stream<Path> files = Files.list(storageDirectory)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Should delete the previous picture once the replacement is committed")
+    void shouldDeleteReplacedPicture() throws Exception {
+        // Given
+        String first = upload(image);
+        BufferedImage other = new BufferedImage(50, 50, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(other, "png", out);
+
+        // When
+        String second = upload(out.toByteArray());
+
+        // Then
+        try {
+            assertNotEquals(first, second);
+            assertFalse(Files.exists(storedFile(first)));
+            assertTrue(Files.exists(storedFile(second)));
+        } finally {
+            // Nothing rolls back here, unlike in the other tests
+            userRepository.deleteById(principal.getId());
+            Files.deleteIfExists(storedFile(second));
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep a reused picture until the upload that reused it is released")
+    void shouldKeepReservedPicture() throws Exception {
+        // Given
+        String fileName = profilePictureStorage.store(new ByteArrayInputStream(image));
+        Path stored = storageDirectory.resolve(fileName);
+
+        // When
+        profilePictureStorage.deleteIfUnused(fileName, () -> false);
+
+        // Then
+        assertTrue(Files.exists(stored));
+        profilePictureStorage.release(fileName);
+        profilePictureStorage.deleteIfUnused(fileName, () -> false);
+        assertFalse(Files.exists(stored));
+    }
+
+    @Test
+    @DisplayName("Should reject content that is not a supported image")
+    void shouldRejectNonImages() throws Exception {
+        mockMvc.perform(multipart("/profile/profile-picture/upload")
+                        .file(new MockMultipartFile("file", "notes.png", "image/png", "not an image".getBytes()))
+                        .with(user(principal)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should serve pictures with a strong ETag and byte ranges")
+    void shouldServeWithEtagAndRanges() throws Exception {
+        // Given
+        String path = servletPath(upload(image));
+
+        // When
+        MvcResult full = mockMvc.perform(get(path).with(user(principal)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/png"))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andReturn();
+        String etag = full.getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Then
+        assertArrayEquals(image, full.getResponse().getContentAsByteArray());
+        assertEquals("private, max-age=31536000, immutable", full.getResponse().getHeader(HttpHeaders.CACHE_CONTROL));
+        mockMvc.perform(get(path))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get(path).with(user(principal)).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        MvcResult partial = mockMvc.perform(get(path).with(user(principal)).header(HttpHeaders.RANGE, "bytes=4-11"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 4-11/" + image.length))
+                .andReturn();
+        assertArrayEquals(Arrays.copyOfRange(image, 4, 12), partial.getResponse().getContentAsByteArray());
+
+        mockMvc.perform(get(path).with(user(principal)).header(HttpHeaders.RANGE, "bytes=" + image.length + "-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable());
+        mockMvc.perform(get("/profile-pictures/application.properties").with(user(principal)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should render a fixed-size thumbnail in the background")
+    void shouldRenderThumbnail() throws Exception {
+        // Given
+        String path = servletPath(upload(image)) + "/thumbnail";
+
+        // When
+        MvcResult result = null;
+        for (int attempt = 0; attempt < 50; attempt++) {
+            result = mockMvc.perform(get(path).with(user(principal))).andExpect(status().isOk()).andReturn();
+            if (!"no-cache".equals(result.getResponse().getHeader(HttpHeaders.CACHE_CONTROL))) {
+                break;
+            }
+            Thread.sleep(100);
+        }
+
+        // Then
+        BufferedImage thumbnail = ImageIO.read(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()));
+        assertEquals(32, thumbnail.getWidth());
+        assertEquals(32, thumbnail.getHeight());
+    }
+
+    private String upload(byte[] content) throws Exception {
+        MvcResult result = mockMvc.perform(multipart("/profile/profile-picture/upload")
+                        .file(new MockMultipartFile("file", "me.png", "image/png", content))
+                        .with(user(principal)))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString())
+                .path("data").path("profilePicture").asText();
+    }
+
+    private static Path storedFile(String url) {
+        return storageDirectory.resolve(url.substring(url.lastIndexOf('/') + 1));
+    }
+
+    private static String servletPath(String url) {
+        return url.substring("/api/v1".length());
+    }
+}
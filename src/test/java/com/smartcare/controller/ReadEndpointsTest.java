@@ -0,0 +1,351 @@
+package com.smartcare.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.smartcare.model.*;
+import com.smartcare.repository.AppointmentRepository;
+import com.smartcare.repository.DoctorRepository;
+import com.smartcare.repository.HealthProfileRepository;
+import com.smartcare.repository.MedicationRepository;
+import com.smartcare.repository.UserRepository;
+import com.smartcare.security.UserPrincipal;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the payload shape and the number of SQL statements of the read endpoints, so a DTO that
+ * starts pulling in an association (or an entity sneaking back into a response) shows up here.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("Read endpoint payload and query count Tests")
+class ReadEndpointsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private MedicationRepository medicationRepository;
+
+    @Autowired
+    private HealthProfileRepository healthProfileRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User patient;
+    private Doctor doctor;
+    private Appointment appointment;
+    private Medication medication;
+    private UserPrincipal principal;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        patient = new User("readmodel", "readmodel@example.com", "hashed-password");
+        patient.setFirstName("Read");
+        patient.setLastName("Model");
+        patient.setRoles(new HashSet<>(Set.of(Role.USER, Role.ADMIN)));
+        patient.setEmailVerified(true);
+        userRepository.save(patient);
+
+        doctor = new Doctor();
+        doctor.setFirstName("Dr. Ada");
+        doctor.setLastName("Query");
+        doctor.setSpecialization("Sleep Medicine");
+        doctor.setCity("Testville");
+        doctor.setState("TS");
+        doctor.setLicenseNumber("SM0001");
+        doctor.setRating(4.9);
+        doctor.setConsultationFee(120.0);
+        doctor.setLanguages(new LinkedHashSet<>(List.of("English", "Esperanto")));
+        doctorRepository.save(doctor);
+
+        appointment = new Appointment();
+        appointment.setPatient(patient);
+        appointment.setDoctor(doctor);
+        appointment.setAppointmentDateTime(LocalDateTime.now().plusDays(3));
+        appointment.setReason("Insomnia");
+        appointment.setConsultationFee(120.0);
+        appointmentRepository.save(appointment);
+
+        medication = new Medication();
+        medication.setUser(patient);
+        medication.setMedicationName("Melatonin");
+        medication.setDosage("3mg");
+        medication.setRemainingQuantity(2);
+        medicationRepository.save(medication);
+
+        HealthProfile healthProfile = new HealthProfile();
+        healthProfile.setUser(patient);
+        healthProfile.setHeight(180.0);
+        healthProfile.setMedicalConditions(new LinkedHashSet<>(List.of("Insomnia", "Asthma")));
+        healthProfile.setAllergies(new LinkedHashSet<>(List.of("Peanuts")));
+        healthProfileRepository.save(healthProfile);
+
+        entityManager.flush();
+        entityManager.clear();
+
+        principal = UserPrincipal.create(patient);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Should return the profile without credentials in one query")
+    void shouldReturnProfileWithoutCredentials() throws Exception {
+        perform(get("/profile"), 1)
+                .andExpect(jsonPath("$.data.username").value("readmodel"))
+                .andExpect(jsonPath("$.data.roles", containsInAnyOrder("USER", "ADMIN")))
+                .andExpect(jsonPath("$.data.password").doesNotExist())
+                .andExpect(jsonPath("$.data.authorities").doesNotExist())
+                .andExpect(jsonPath("$.data.appointments").doesNotExist())
+                .andExpect(jsonPath("$.data.medications").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should return the health profile with its collections")
+    void shouldReturnHealthProfileWithCollections() throws Exception {
+        perform(get("/profile/health"), 3)
+                .andExpect(jsonPath("$.data.userId").value(patient.getId()))
+                .andExpect(jsonPath("$.data.medicalConditions", containsInAnyOrder("Insomnia", "Asthma")))
+                .andExpect(jsonPath("$.data.allergies", containsInAnyOrder("Peanuts")))
+                .andExpect(jsonPath("$.data.user").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should return flattened appointments in one query each")
+    void shouldReturnFlattenedAppointments() throws Exception {
+        perform(get("/appointments/my-appointments"), 1)
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].doctorId").value(doctor.getId()))
+                .andExpect(jsonPath("$.data[0].doctorLastName").value("Query"))
+                .andExpect(jsonPath("$.data[0].patientFirstName").value("Read"))
+                .andExpect(jsonPath("$.data[0].patient").doesNotExist())
+                .andExpect(jsonPath("$.data[0].doctor").doesNotExist());
+
+        perform(get("/appointments/doctor/" + doctor.getId()), 1)
+                .andExpect(jsonPath("$.data", hasSize(1)));
+
+        perform(get("/appointments/upcoming"), 1)
+                .andExpect(jsonPath("$.data[0].reason").value("Insomnia"));
+
+        perform(get("/appointments/" + appointment.getId()), 1)
+                .andExpect(jsonPath("$.data.status").value("SCHEDULED"));
+    }
+
+    @Test
+    @DisplayName("Should return medications in one query each")
+    void shouldReturnMedications() throws Exception {
+        perform(get("/medications"), 1)
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].userId").value(patient.getId()))
+                .andExpect(jsonPath("$.data[0].user").doesNotExist());
+
+        perform(get("/medications/active"), 1)
+                .andExpect(jsonPath("$.data[0].medicationName").value("Melatonin"));
+
+        perform(get("/medications/" + medication.getId()), 1)
+                .andExpect(jsonPath("$.data.dosage").value("3mg"));
+
+        perform(get("/medications/by-status").param("status", "ACTIVE"), 1)
+                .andExpect(jsonPath("$.data", hasSize(1)));
+
+        perform(get("/medications/refill-needed"), 1)
+                .andExpect(jsonPath("$.data[?(@.id == " + medication.getId() + ")]").exists());
+    }
+
+    @Test
+    @DisplayName("Should return doctors with languages from one batched query")
+    void shouldReturnDoctorsWithBatchedLanguages() throws Exception {
+        perform(get("/doctors/" + doctor.getId()), 2)
+                .andExpect(jsonPath("$.data.licenseNumber").value("SM0001"))
+                .andExpect(jsonPath("$.data.languages", containsInAnyOrder("English", "Esperanto")))
+                .andExpect(jsonPath("$.data.appointments").doesNotExist())
+                .andExpect(jsonPath("$.data.availabilities").doesNotExist());
+
+        // A short first page needs no count query
+        perform(get("/doctors/search").param("city", "Testville"), 2)
+                .andExpect(jsonPath("$.data.content", hasSize(1)))
+                .andExpect(jsonPath("$.data.content[0].languages", hasSize(2)))
+                .andExpect(jsonPath("$.data.content[0].licenseNumber").doesNotExist());
+
+        perform(get("/doctors/by-specialization").param("specialization", "sleep"), 2)
+                .andExpect(jsonPath("$.data", hasSize(1)));
+
+        // Every active doctor, seeded ones included, still costs two statements
+        perform(get("/doctors"), 2)
+                .andExpect(jsonPath("$.data[?(@.id == " + doctor.getId() + ")].languages[0]").exists());
+    }
+
+    @Test
+    @DisplayName("Should combine the language filter with the other search filters")
+    void shouldCombineLanguageWithOtherFilters() throws Exception {
+        // Both languages contain "e", yet the semi-join returns the doctor once
+        perform(get("/doctors/search").param("city", "Testville").param("language", "e"), 2)
+                .andExpect(jsonPath("$.data.content", hasSize(1)))
+                .andExpect(jsonPath("$.data.totalElements").value(1));
+
+        perform(get("/doctors/search").param("city", "Testville").param("language", "French"), 1)
+                .andExpect(jsonPath("$.data.content", hasSize(0)));
+
+        perform(get("/doctors/search").param("language", "esperanto").param("minRating", "5.0"), 1)
+                .andExpect(jsonPath("$.data.content", hasSize(0)));
+    }
+
+    @Test
+    @DisplayName("Should page doctors with equal ratings in a stable order")
+    void shouldPageEqualRatingsInStableOrder() throws Exception {
+        // Given
+        Doctor first = tiedDoctor();
+        Doctor second = tiedDoctor();
+        entityManager.flush();
+        entityManager.clear();
+
+        // When / Then: a full page also costs the count query
+        perform(get("/doctors/search").param("city", "Tiebreak").param("size", "1"), 3)
+                .andExpect(jsonPath("$.data.content[0].id").value(first.getId()))
+                .andExpect(jsonPath("$.data.totalElements").value(2));
+        perform(get("/doctors/search").param("city", "Tiebreak").param("size", "1").param("page", "1"), 3)
+                .andExpect(jsonPath("$.data.content[0].id").value(second.getId()));
+    }
+
+    @Test
+    @DisplayName("Should scroll with a cursor, past unrated doctors, without a count query")
+    void shouldScrollWithCursor() throws Exception {
+        // Given
+        Doctor first = tiedDoctor();
+        Doctor second = tiedDoctor();
+        Doctor unrated = tiedDoctor(null);
+        Doctor lastUnrated = tiedDoctor(null);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When / Then
+        String cursor = null;
+        for (Doctor expected : List.of(first, second, unrated, lastUnrated)) {
+            MockHttpServletRequestBuilder request = get("/doctors/search/scroll").param("city", "Tiebreak").param("size", "1");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            String body = perform(request, 2)
+                    .andExpect(jsonPath("$.data.content[0].id").value(expected.getId()))
+                    .andExpect(jsonPath("$.data.content[0].languages[0]").value("English"))
+                    .andExpect(jsonPath("$.data.approximateTotal").doesNotExist())
+                    .andReturn().getResponse().getContentAsString();
+            cursor = JsonPath.read(body, "$.data.nextCursor");
+        }
+        assertNull(cursor);
+
+        // The total costs one count, then comes from the cache
+        perform(get("/doctors/search/scroll").param("city", "Tiebreak").param("includeTotal", "true"), 3)
+                .andExpect(jsonPath("$.data.content", hasSize(4)))
+                .andExpect(jsonPath("$.data.approximateTotal").value(4));
+        perform(get("/doctors/search/scroll").param("city", "TIEBREAK").param("includeTotal", "true"), 2)
+                .andExpect(jsonPath("$.data.approximateTotal").value(4));
+    }
+
+    @Test
+    @DisplayName("Should return the nearest doctors by zip code from the database until the index is built")
+    void shouldFindNearbyDoctors() throws Exception {
+        // Given: zip codes and a specialization that no seeded doctor has
+        Doctor closeLowerRated = locatedDoctor("10019", 4.0);
+        Doctor closeHigherRated = locatedDoctor("10019", 4.5);
+        Doctor nearby = locatedDoctor("10036", 5.0);
+        Doctor far = locatedDoctor("94110", 5.0);
+        locatedDoctor("00000", 5.0);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When / Then: closest first, better rated first at the same distance; locations, then cards
+        // and languages for the closest k only
+        perform(get("/doctors/search/nearby").param("zip", "10019-1234").param("specialization", "family medicine")
+                .param("k", "3"), 3)
+                .andExpect(jsonPath("$.data", hasSize(3)))
+                .andExpect(jsonPath("$.data[0].doctor.id").value(closeHigherRated.getId()))
+                .andExpect(jsonPath("$.data[0].distanceMiles").value(0.0))
+                .andExpect(jsonPath("$.data[1].doctor.id").value(closeLowerRated.getId()))
+                .andExpect(jsonPath("$.data[1].distanceMiles").value(0.0))
+                .andExpect(jsonPath("$.data[2].doctor.id").value(nearby.getId()))
+                .andExpect(jsonPath("$.data[2].doctor.languages[0]").value("English"))
+                .andExpect(jsonPath("$.data[2].distanceMiles").value(0.4));
+
+        perform(get("/doctors/search/nearby").param("zip", "94110").param("specialization", "family medicine")
+                .param("minRating", "4.5").param("k", "3"), 3)
+                .andExpect(jsonPath("$.data", hasSize(3)))
+                .andExpect(jsonPath("$.data[0].doctor.id").value(far.getId()))
+                .andExpect(jsonPath("$.data[*].doctor.id", containsInAnyOrder(far.getId().intValue(),
+                        nearby.getId().intValue(), closeHigherRated.getId().intValue())));
+    }
+
+    private Doctor locatedDoctor(String zipCode, Double rating) {
+        Doctor located = tiedDoctor(rating);
+        located.setZipCode(zipCode);
+        return doctorRepository.save(located);
+    }
+
+    private Doctor tiedDoctor() {
+        return tiedDoctor(4.0);
+    }
+
+    private Doctor tiedDoctor(Double rating) {
+        Doctor tied = new Doctor();
+        tied.setFirstName("Dr. Tie");
+        tied.setLastName("Break");
+        tied.setSpecialization("Family Medicine");
+        tied.setCity("Tiebreak");
+        tied.setRating(rating);
+        tied.setLanguages(new LinkedHashSet<>(List.of("English")));
+        return doctorRepository.save(tied);
+    }
+
+    private ResultActions perform(MockHttpServletRequestBuilder request, long expectedStatements) throws Exception {
+        statistics.clear();
+        ResultActions result = mockMvc.perform(request.with(user(principal)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true));
+        assertEquals(expectedStatements, statistics.getPrepareStatementCount(), "SQL statements");
+        return result;
+    }
+}
@@ -158,4 +158,23 @@ class UserRepositoryTest {
         assertFalse(found.isPresent());
         assertFalse(userRepository.existsByUsername("user1"));
     }
+
+    @Test
+    @DisplayName("Should persist roles as a bitmask")
+    void shouldPersistRolesAsBitmask() {
+        // Given
+        entityManager.clear();
+
+        // When
+        User found = userRepository.findByUsername("user2").get();
+
+        // Then
+        assertEquals(Set.of(Role.USER, Role.DOCTOR), found.getRoles());
+        assertEquals(2, found.getAuthorities().size());
+        assertSame(found.getAuthorities(), userRepository.findByUsername("user2").get().getAuthorities());
+        Number mask = (Number) entityManager.getEntityManager()
+                .createNativeQuery("SELECT role_mask FROM users WHERE username = 'user2'")
+                .getSingleResult();
+        assertEquals(Role.USER.getBit() | Role.DOCTOR.getBit(), mask.intValue());
+    }
 }
@@ -0,0 +1,58 @@
+package com.smartcare.security;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JwtFilterMetrics Tests")
+class JwtFilterMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtFilterMetrics filterMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filterMetrics = new JwtFilterMetrics();
+        ReflectionTestUtils.setField(filterMetrics, "meterRegistry", meterRegistry);
+        filterMetrics.init();
+    }
+
+    @Test
+    @DisplayName("Should register every stage and outcome up front")
+    void shouldRegisterEveryStageAndOutcomeUpFront() {
+        assertNotNull(timer("header", "present"));
+        assertNotNull(timer("header", "absent"));
+        assertNotNull(timer("verify", "valid"));
+        assertNotNull(timer("verify", "expired"));
+        assertNotNull(timer("verify", "malformed"));
+        assertNotNull(timer("verify", "revoked"));
+        assertNotNull(timer("load_user", "valid"));
+        assertNotNull(timer("load_user", "user_missing"));
+        assertNotNull(timer("context", "valid"));
+    }
+
+    @Test
+    @DisplayName("Should record into the timer for the outcome")
+    void shouldRecordIntoTimerForOutcome() {
+        // When
+        filterMetrics.recordVerify(JwtValidationResult.Status.EXPIRED, 1500);
+        filterMetrics.recordVerify(JwtValidationResult.Status.EXPIRED, 500);
+        filterMetrics.recordUserMissing(2000);
+
+        // Then
+        assertEquals(2, timer("verify", "expired").count());
+        assertEquals(2000, timer("verify", "expired").totalTime(java.util.concurrent.TimeUnit.NANOSECONDS));
+        assertEquals(0, timer("verify", "valid").count());
+        assertEquals(1, timer("load_user", "user_missing").count());
+    }
+
+    private Timer timer(String stage, String outcome) {
+        return meterRegistry.find(JwtFilterMetrics.METRIC_NAME).tags("stage", stage, "outcome", outcome).timer();
+    }
+}
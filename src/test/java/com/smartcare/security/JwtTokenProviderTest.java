@@ -25,6 +25,7 @@ class JwtTokenProviderTest {
         jwtTokenProvider = new JwtTokenProvider();
         ReflectionTestUtils.setField(jwtTokenProvider, "jwtSecret", jwtSecret);
         ReflectionTestUtils.setField(jwtTokenProvider, "jwtExpirationInMs", jwtExpiration);
+        jwtTokenProvider.init();
     }
 
     @Test
@@ -57,7 +58,7 @@ class JwtTokenProviderTest {
         String token = jwtTokenProvider.generateToken(authentication);
 
         // When
-        Long userId = jwtTokenProvider.getUserIdFromJWT(token);
+        Long userId = Long.parseLong(jwtTokenProvider.parseToken(token).getClaims().getSubject());
 
         // Then
         assertEquals(1L, userId);
@@ -75,7 +76,7 @@ class JwtTokenProviderTest {
         String token = jwtTokenProvider.generateToken(authentication);
 
         // When
-        boolean isValid = jwtTokenProvider.validateToken(token);
+        boolean isValid = jwtTokenProvider.parseToken(token).isValid();
 
         // Then
         assertTrue(isValid);
@@ -88,7 +89,7 @@ class JwtTokenProviderTest {
         String malformedToken = "invalid.token.here";
 
         // When
-        boolean isValid = jwtTokenProvider.validateToken(malformedToken);
+        boolean isValid = jwtTokenProvider.parseToken(malformedToken).isValid();
 
         // Then
         assertFalse(isValid);
@@ -98,7 +99,7 @@ class JwtTokenProviderTest {
     @DisplayName("Should invalidate empty token")
     void shouldInvalidateEmptyToken() {
         // When
-        boolean isValid = jwtTokenProvider.validateToken("");
+        boolean isValid = jwtTokenProvider.parseToken("").isValid();
 
         // Then
         assertFalse(isValid);
@@ -108,12 +109,148 @@ class JwtTokenProviderTest {
     @DisplayName("Should invalidate null token")
     void shouldInvalidateNullToken() {
         // When
-        boolean isValid = jwtTokenProvider.validateToken(null);
+        boolean isValid = jwtTokenProvider.parseToken(null).isValid();
 
         // Then
         assertFalse(isValid);
     }
 
+    @Test
+    @DisplayName("Should parse valid token in a single pass")
+    void shouldParseValidTokenInSinglePass() {
+        // Given
+        Authentication authentication = mock(Authentication.class);
+        UserPrincipal userPrincipal = UserPrincipal.create(createTestUser());
+
+        when(authentication.getPrincipal()).thenReturn(userPrincipal);
+
+        String token = jwtTokenProvider.generateToken(authentication);
+
+        // When
+        JwtValidationResult result = jwtTokenProvider.parseToken(token);
+
+        // Then
+        assertTrue(result.isValid());
+        assertEquals(JwtValidationResult.Status.VALID, result.getStatus());
+        assertEquals(1L, result.getUserId());
+    }
+
+    @Test
+    @DisplayName("Should report malformed token as typed failure")
+    void shouldReportMalformedTokenAsTypedFailure() {
+        // When
+        JwtValidationResult result = jwtTokenProvider.parseToken("invalid.token.here");
+
+        // Then
+        assertFalse(result.isValid());
+        assertEquals(JwtValidationResult.Status.MALFORMED, result.getStatus());
+        assertNull(result.getClaims());
+    }
+
+    @Test
+    @DisplayName("Should report token signed with another key as invalid signature")
+    void shouldReportTokenSignedWithAnotherKeyAsInvalidSignature() {
+        // Given
+        JwtTokenProvider otherProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(otherProvider, "jwtSecret", "anotherSecretKeyForJwtTokenGenerationThatIsLongEnoughForHS256");
+        ReflectionTestUtils.setField(otherProvider, "jwtExpirationInMs", jwtExpiration);
+        otherProvider.init();
+
+        Authentication authentication = mock(Authentication.class);
+        when(authentication.getPrincipal()).thenReturn(UserPrincipal.create(createTestUser()));
+
+        String token = otherProvider.generateToken(authentication);
+
+        // When
+        JwtValidationResult result = jwtTokenProvider.parseToken(token);
+
+        // Then
+        assertEquals(JwtValidationResult.Status.INVALID_SIGNATURE, result.getStatus());
+    }
+
+    @Test
+    @DisplayName("Should rebuild principal from claims in stateless mode")
+    void shouldRebuildPrincipalFromClaimsInStatelessMode() {
+        // Given
+        ReflectionTestUtils.setField(jwtTokenProvider, "statelessPrincipal", true);
+        Authentication authentication = mock(Authentication.class);
+        when(authentication.getPrincipal()).thenReturn(UserPrincipal.create(createTestUser()));
+
+        String token = jwtTokenProvider.generateToken(authentication);
+
+        // When
+        UserPrincipal principal = jwtTokenProvider.getUserPrincipalFromClaims(
+                jwtTokenProvider.parseToken(token).getClaims());
+
+        // Then
+        assertNotNull(principal);
+        assertEquals(1L, principal.getId());
+        assertEquals("testuser", principal.getUsername());
+        assertEquals("Test", principal.getFirstName());
+        assertEquals(1, principal.getAuthorities().size());
+        assertEquals("ROLE_USER", principal.getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    @DisplayName("Should not rebuild principal from token issued without embedded claims")
+    void shouldNotRebuildPrincipalFromLegacyToken() {
+        // Given
+        Authentication authentication = mock(Authentication.class);
+        when(authentication.getPrincipal()).thenReturn(UserPrincipal.create(createTestUser()));
+
+        String token = jwtTokenProvider.generateToken(authentication);
+
+        // When & Then
+        assertNull(jwtTokenProvider.getUserPrincipalFromClaims(jwtTokenProvider.parseToken(token).getClaims()));
+    }
+
+    @Test
+    @DisplayName("Should reject structurally invalid tokens before parsing")
+    void shouldRejectStructurallyInvalidTokensBeforeParsing() {
+        long now = System.currentTimeMillis();
+
+        assertEquals(JwtValidationResult.Status.EMPTY, JwtTokenProvider.precheck("", now));
+        assertEquals(JwtValidationResult.Status.MALFORMED, JwtTokenProvider.precheck("not-a-jwt", now));
+        assertEquals(JwtValidationResult.Status.MALFORMED, JwtTokenProvider.precheck("a.b.c.d", now));
+        assertEquals(JwtValidationResult.Status.MALFORMED, JwtTokenProvider.precheck("ab$c.def.ghi", now));
+        assertEquals(JwtValidationResult.Status.UNSUPPORTED, JwtTokenProvider.precheck("eyJhbGciOiJub25lIn0.eyJzdWIiOiIxIn0.", now));
+    }
+
+    @Test
+    @DisplayName("Should reject expired token in pre-check without verifying signature")
+    void shouldRejectExpiredTokenInPrecheck() {
+        // Given
+        Authentication authentication = mock(Authentication.class);
+        when(authentication.getPrincipal()).thenReturn(UserPrincipal.create(createTestUser()));
+        String token = jwtTokenProvider.generateToken(authentication);
+        long afterExpiry = System.currentTimeMillis() + jwtExpiration + 1000;
+
+        // When & Then
+        assertEquals(JwtValidationResult.Status.EXPIRED, JwtTokenProvider.precheck(token, afterExpiry));
+        assertNull(JwtTokenProvider.precheck(token, System.currentTimeMillis()));
+    }
+
+    @Test
+    @DisplayName("Should keep refresh and access tokens apart")
+    void shouldKeepRefreshAndAccessTokensApart() {
+        // Given
+        UserPrincipal userPrincipal = UserPrincipal.create(createTestUser());
+        String accessToken = jwtTokenProvider.generateToken(userPrincipal);
+        String refreshToken = jwtTokenProvider.generateRefreshToken(userPrincipal, new java.util.Date(), "token-1", "family-1",
+                new java.util.Date(System.currentTimeMillis() + jwtExpiration));
+
+        // When
+        JwtValidationResult refreshResult = jwtTokenProvider.parseRefreshToken(refreshToken);
+
+        // Then
+        assertEquals(JwtValidationResult.Status.UNSUPPORTED, jwtTokenProvider.parseToken(refreshToken).getStatus());
+        assertEquals(JwtValidationResult.Status.UNSUPPORTED, jwtTokenProvider.parseRefreshToken(accessToken).getStatus());
+        assertTrue(refreshResult.isValid());
+        assertEquals("token-1", refreshResult.getClaims().getId());
+        assertEquals("family-1", jwtTokenProvider.getRefreshFamily(refreshResult.getClaims()));
+        assertEquals("testuser", jwtTokenProvider.getUserPrincipalFromClaims(refreshResult.getClaims()).getUsername());
+    }
+
     private com.smartcare.model.User createTestUser() {
         com.smartcare.model.User user = new com.smartcare.model.User();
         user.setId(1L);
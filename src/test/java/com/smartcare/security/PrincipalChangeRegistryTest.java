@@ -0,0 +1,74 @@
+package com.smartcare.security;
+
+import com.smartcare.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PrincipalChangeRegistry Tests")
+class PrincipalChangeRegistryTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    @Mock
+    private UserRepository userRepository;
+
+    private PrincipalChangeRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new PrincipalChangeRegistry();
+        ReflectionTestUtils.setField(registry, "userRepository", userRepository);
+        ReflectionTestUtils.setField(registry, "maxSize", 100L);
+        ReflectionTestUtils.setField(registry, "ttl", Duration.ofMinutes(1));
+        registry.init();
+    }
+
+    @Test
+    @DisplayName("Should compare the token issue time with the persisted change time")
+    void shouldCompareWithPersistedChange() {
+        // Given
+        when(userRepository.findUpdatedAtById(1L)).thenReturn(Optional.of(UPDATED_AT));
+
+        // When & Then
+        assertTrue(registry.isStale(1L, at(UPDATED_AT.minusMinutes(5))));
+        assertTrue(registry.isStale(1L, at(UPDATED_AT)));
+        assertFalse(registry.isStale(1L, at(UPDATED_AT.plusSeconds(1))));
+        verify(userRepository, times(1)).findUpdatedAtById(1L);
+    }
+
+    @Test
+    @DisplayName("Should reload the change time once marked and treat removed users as stale")
+    void shouldReloadAfterChange() {
+        // Given
+        when(userRepository.findUpdatedAtById(1L))
+                .thenReturn(Optional.of(UPDATED_AT))
+                .thenReturn(Optional.empty());
+        assertFalse(registry.isStale(1L, at(UPDATED_AT.plusMinutes(1))));
+
+        // When
+        registry.markChanged(1L);
+
+        // Then
+        assertTrue(registry.isStale(1L, at(UPDATED_AT.plusMinutes(1))));
+        verify(userRepository, times(2)).findUpdatedAtById(1L);
+    }
+
+    private static Date at(LocalDateTime time) {
+        return Date.from(time.atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,53 @@
+package com.smartcare.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PublicRoutes Tests")
+class PublicRoutesTest {
+
+    @Test
+    @DisplayName("Should classify public routes relative to the context path")
+    void shouldClassifyPublicRoutesRelativeToContextPath() {
+        assertTrue(isPublic("/auth/signin"));
+        assertTrue(isPublic("/auth"));
+        assertTrue(isPublic("/doctors/search"));
+        assertTrue(isPublic("/doctors/search/scroll"));
+        assertTrue(isPublic("/doctors/search/fuzzy"));
+        assertTrue(isPublic("/doctors/search/nearby"));
+        assertTrue(isPublic("/swagger-ui/index.html"));
+        assertTrue(isPublic("/v3/api-docs"));
+
+        assertFalse(isPublic("/doctors"));
+        assertFalse(isPublic("/doctors/search-admin"));
+        assertFalse(isPublic("/doctors/1"));
+        assertFalse(isPublic("/authx"));
+        assertFalse(isPublic("/profile"));
+        assertFalse(isPublic("/profile/profile-picture/upload"));
+        assertFalse(isPublic("/profile-pictures/abc.png/thumbnail"));
+    }
+
+    @Test
+    @DisplayName("Should agree with the request matcher used for authorization")
+    void shouldAgreeWithAuthorizationMatcher() {
+        String[] paths = {"/auth/signin", "/auth", "/doctors/search", "/doctors/1", "/authx", "/h2-console/login.do"};
+        for (String path : paths) {
+            MockHttpServletRequest request = request(path);
+            assertEquals(PublicRoutes.matcher().matches(request), PublicRoutes.isPublic(request), path);
+        }
+    }
+
+    private static boolean isPublic(String path) {
+        return PublicRoutes.isPublic(request(path));
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1" + path);
+        request.setContextPath("/api/v1");
+        request.setServletPath(path);
+        return request;
+    }
+}
@@ -0,0 +1,158 @@
+package com.smartcare.security;
+
+import com.smartcare.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TokenRevocationList Tests")
+class TokenRevocationListTest {
+
+    private static final long EXPIRATION_MS = 900000;
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TokenRevocationList revocationList;
+    private JwtTokenProvider jwtTokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        when(revokedTokenRepository.findByExpiresAtAfter(any())).thenReturn(Stream.empty());
+
+        revocationList = new TokenRevocationList();
+        ReflectionTestUtils.setField(revocationList, "revokedTokenRepository", revokedTokenRepository);
+        ReflectionTestUtils.setField(revocationList, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(revocationList, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(revocationList, "jwtExpirationInMs", EXPIRATION_MS);
+        ReflectionTestUtils.setField(revocationList, "bucketWidth", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(revocationList, "pollInterval", Duration.ofSeconds(10));
+        revocationList.init();
+
+        jwtTokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtSecret",
+                "testSecretKeyForJwtTokenGenerationThatIsLongEnoughForHS256Algorithm");
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtExpirationInMs", (int) EXPIRATION_MS);
+        jwtTokenProvider.init();
+    }
+
+    @Test
+    @DisplayName("Should reject only the revoked token")
+    void shouldRejectOnlyRevokedToken() {
+        // Given
+        JwtValidationResult revoked = jwtTokenProvider.parseToken(newToken());
+        JwtValidationResult other = jwtTokenProvider.parseToken(newToken());
+
+        // When
+        boolean first = revocationList.revoke(revoked);
+        boolean second = revocationList.revoke(revoked);
+
+        // Then
+        assertTrue(first);
+        assertFalse(second);
+        assertNotEquals(0L, revoked.getTokenId());
+        assertTrue(revocationList.isRevoked(revoked));
+        assertFalse(revocationList.isRevoked(other));
+        assertEquals(1, revocationList.size());
+        verify(revokedTokenRepository, times(1)).save(any());
+    }
+
+    @Test
+    @DisplayName("Should pick up tokens revoked by another instance")
+    void shouldPollRevocationsFromOtherInstances() {
+        // Given
+        JwtValidationResult token = jwtTokenProvider.parseToken(newToken());
+        RevokedTokenRepository.Entry entry = mock(RevokedTokenRepository.Entry.class);
+        when(entry.getTokenId()).thenReturn(token.getTokenId());
+        when(entry.getExpiresAt()).thenReturn(Instant.ofEpochMilli(token.getExpiresAtMillis()));
+        when(revokedTokenRepository.findByRevokedAtAfter(any())).thenReturn(Stream.of(entry));
+        assertFalse(revocationList.isRevoked(token));
+
+        // When
+        revocationList.pollRevocations();
+
+        // Then
+        assertTrue(revocationList.isRevoked(token));
+        verify(revokedTokenRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should track tokens expiring beyond the bucket ring")
+    void shouldTrackTokensBeyondRing() {
+        // Given
+        long tokenId = 0x1234L;
+        long farExpiry = System.currentTimeMillis() + EXPIRATION_MS * 10;
+
+        // When
+        ReflectionTestUtils.invokeMethod(revocationList, "addInMemory", tokenId, farExpiry);
+
+        // Then
+        assertTrue(revocationList.isRevoked(tokenId, farExpiry));
+        assertFalse(revocationList.isRevoked(0x5678L, farExpiry));
+    }
+
+    @Test
+    @DisplayName("Should drop buckets once their tokens have expired")
+    void shouldDropExpiredBuckets() {
+        // Given
+        long tokenId = 0x42L;
+        long soon = System.currentTimeMillis() + 60000;
+        ReflectionTestUtils.invokeMethod(revocationList, "addInMemory", tokenId, soon);
+        assertTrue(revocationList.isRevoked(tokenId, soon));
+
+        // When
+        ReflectionTestUtils.setField(revocationList, "bucketWidthMillis", 1L);
+        revocationList.purgeExpired();
+
+        // Then
+        assertEquals(0, revocationList.size());
+    }
+
+    @Test
+    @DisplayName("Should grow the id set without losing entries")
+    void shouldGrowIdSetWithoutLosingEntries() {
+        // Given
+        TokenRevocationList.LongHashSet set = new TokenRevocationList.LongHashSet();
+
+        // When
+        for (long id = 1; id <= 10000; id++) {
+            set.add(id * 7919);
+        }
+
+        // Then
+        assertEquals(10000, set.size());
+        for (long id = 1; id <= 10000; id++) {
+            assertTrue(set.contains(id * 7919));
+        }
+        assertFalse(set.contains(7));
+    }
+
+    private String newToken() {
+        com.smartcare.model.User user = new com.smartcare.model.User();
+        user.setId(1L);
+        user.setUsername("testuser");
+        user.setRoles(java.util.Set.of(com.smartcare.model.Role.USER));
+        Authentication authentication = mock(Authentication.class);
+        when(authentication.getPrincipal()).thenReturn(UserPrincipal.create(user));
+        return jwtTokenProvider.generateToken(authentication);
+    }
+}
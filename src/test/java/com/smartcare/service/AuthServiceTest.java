@@ -0,0 +1,138 @@
+package com.smartcare.service;
+
+import com.smartcare.dto.auth.JwtAuthenticationResponse;
+import com.smartcare.dto.auth.LoginRequest;
+import com.smartcare.dto.auth.SignUpRequest;
+import com.smartcare.model.Role;
+import com.smartcare.model.User;
+import com.smartcare.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("AuthService Tests")
+class AuthServiceTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        user = new User("loginuser", "loginuser@example.com", passwordEncoder.encode("secret123"));
+        user.setFirstName("Login");
+        user.setLastName("User");
+        user.setRoles(new HashSet<>(Set.of(Role.USER)));
+        user.setEmailVerified(true);
+        user.setProfileCompleted(true);
+        userRepository.saveAndFlush(user);
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should sign in by username with a single user query")
+    void shouldSignInByUsernameWithSingleUserQuery() {
+        // When
+        JwtAuthenticationResponse response = authService.authenticateUser(new LoginRequest("loginuser", "secret123"));
+
+        // Then
+        assertEquals(user.getId(), response.getUserId());
+        assertEquals("loginuser", response.getUsername());
+        assertEquals("loginuser@example.com", response.getEmail());
+        assertTrue(response.isProfileCompleted());
+        assertFalse(response.isTourCompleted());
+        assertNotNull(response.getAccessToken());
+        assertEquals(1, statistics.getQueryExecutionCount());
+        // Roles live in the users row, so there is no secondary roles select
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+    }
+
+    @Test
+    @DisplayName("Should sign in by email with a single user query")
+    void shouldSignInByEmailWithSingleUserQuery() {
+        // When
+        JwtAuthenticationResponse response = authService.authenticateUser(
+                new LoginRequest("loginuser@example.com", "secret123"));
+
+        // Then
+        assertEquals(user.getId(), response.getUserId());
+        assertEquals("loginuser", response.getUsername());
+        assertEquals(1, statistics.getQueryExecutionCount());
+        // Query executions miss entity and lazy-association loads, so count the statements too
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Should report names taken behind the availability index as taken")
+    void shouldReportNamesTakenBehindTheIndex() {
+        // Given: the user from setUp was saved directly, so the index has never seen it
+        SignUpRequest sameUsername = signUp("loginuser", "fresh@example.com");
+        SignUpRequest sameEmail = signUp("freshuser", "loginuser@example.com");
+
+        // When & Then: signup runs outside a transaction, as it does from the controller
+        try {
+            RuntimeException username = assertThrows(RuntimeException.class,
+                    () -> authService.registerUser(sameUsername));
+            assertEquals("Username is already taken!", username.getMessage());
+            RuntimeException email = assertThrows(RuntimeException.class,
+                    () -> authService.registerUser(sameEmail));
+            assertEquals("Email Address already in use!", email.getMessage());
+        } finally {
+            userRepository.deleteById(user.getId());
+        }
+    }
+
+    private static SignUpRequest signUp(String username, String email) {
+        SignUpRequest request = new SignUpRequest();
+        request.setUsername(username);
+        request.setEmail(email);
+        request.setPassword("secret123");
+        request.setFirstName("Fresh");
+        request.setLastName("User");
+        return request;
+    }
+}
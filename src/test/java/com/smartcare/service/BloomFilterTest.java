@@ -0,0 +1,60 @@
+package com.smartcare.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BloomFilter Tests")
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("Should never report a false negative")
+    void shouldNeverReportFalseNegative() {
+        // Given
+        BloomFilter filter = BloomFilter.create(10_000, 0.01, 1 << 20);
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i);
+        }
+
+        // Then
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("user" + i));
+        }
+        assertEquals(10_000, filter.insertions());
+    }
+
+    @Test
+    @DisplayName("Should keep false positives near the configured rate")
+    void shouldKeepFalsePositivesNearConfiguredRate() {
+        // Given
+        BloomFilter filter = BloomFilter.create(10_000, 0.01, 1 << 20);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i);
+        }
+
+        // When
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("other" + i)) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+        assertTrue(filter.expectedFalsePositiveRate() < 0.02);
+    }
+
+    @Test
+    @DisplayName("Should cap storage at the memory budget")
+    void shouldCapStorageAtMemoryBudget() {
+        // When
+        BloomFilter filter = BloomFilter.create(10_000_000, 0.001, 4096);
+
+        // Then
+        assertEquals(4096, filter.sizeInBytes());
+    }
+}
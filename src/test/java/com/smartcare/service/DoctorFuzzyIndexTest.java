@@ -0,0 +1,167 @@
+package com.smartcare.service;
+
+import com.smartcare.dto.doctor.DoctorSummaryDto;
+import com.smartcare.model.Doctor;
+import com.smartcare.repository.DoctorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DoctorFuzzyIndex Tests")
+class DoctorFuzzyIndexTest {
+
+    @Mock
+    private DoctorRepository doctorRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DoctorFuzzyIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(doctorRepository.findActiveSummaries()).thenReturn(List.of(
+                summary(1L, "Alice", "Moreau", "Cardiology", 4.0),
+                summary(2L, "Bruno", "Klein", "Pediatric Cardiology", 4.9),
+                summary(3L, "Chloe", "Nakamura", "Dermatology", 4.5),
+                summary(4L, "Dmitri", "Cardin", "General Practice", 3.0)));
+        when(doctorRepository.findActiveLanguages()).thenReturn(List.of(language(1L, "English")));
+        when(doctorRepository.findActiveTexts()).thenReturn(List.of(
+                text(3L, "MD, Board Certified in Dermatology", "Treats eczema and psoriasis"),
+                text(4L, "MD", "Special interest in sports medicine and cardiology screening")));
+
+        index = new DoctorFuzzyIndex();
+        ReflectionTestUtils.setField(index, "doctorRepository", doctorRepository);
+        ReflectionTestUtils.setField(index, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(index, "ratingWeight", 0.2);
+        assertFalse(index.isReady());
+        index.rebuild();
+    }
+
+    @Test
+    @DisplayName("Should find misspelled and unfinished words")
+    void shouldTolerateTypos() {
+        assertEquals(List.of(2L, 1L, 4L), ids(index.search("cardiolgy", null, 10)));
+        assertEquals(List.of(3L), ids(index.search("dermatolog", null, 10)));
+        assertEquals(List.of(3L), ids(index.search("psorasis", null, 10)));
+        assertEquals(List.of(3L), ids(index.search("Nakam", null, 10)));
+        assertTrue(index.search("neurology", null, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should find short words with two letters swapped")
+    void shouldTolerateTranspositions() {
+        // A swap breaks four trigrams of "klein", leaving only the closing one shared
+        assertEquals(List.of(2L), ids(index.search("kelin", null, 10)));
+        assertEquals(List.of(1L), ids(index.search("mroeau", null, 10)));
+    }
+
+    @Test
+    @DisplayName("Should rank stronger fields and better ratings first")
+    void shouldBlendMatchWithRating() {
+        // Specialization beats bio even at a lower rating; equal matches fall back to rating
+        List<DoctorSummaryDto> doctors = index.search("cardiology", null, 10);
+        assertEquals(List.of(2L, 1L, 4L), ids(doctors));
+        assertEquals(List.of("English"), doctors.get(1).getLanguages());
+
+        // Every query word adds to the score, so the doctor matching both comes first
+        assertEquals(List.of(1L, 2L), ids(index.search("cardiology moreau", null, 2)));
+        assertEquals(List.of(2L), ids(index.search("cardiology", 4.5, 10)));
+    }
+
+    @Test
+    @DisplayName("Should apply changes in place and compact dead slots")
+    void shouldApplyChanges() {
+        // Given
+        Doctor doctor = new Doctor();
+        doctor.setId(1L);
+        doctor.setFirstName("Alice");
+        doctor.setLastName("Moreau");
+        doctor.setSpecialization("Neurology");
+        doctor.setRating(4.0);
+        doctor.setLanguages(new LinkedHashSet<>(List.of("French")));
+
+        // When / Then
+        index.update(doctor);
+        assertEquals(List.of(2L, 4L), ids(index.search("cardiology", null, 10)));
+        assertEquals(List.of(1L), ids(index.search("neurolgy", null, 10)));
+
+        doctor.setIsActive(false);
+        index.update(doctor);
+        assertTrue(index.search("neurology", null, 10).isEmpty());
+
+        index.remove(2L);
+        for (long i = 0; i < 2000; i++) {
+            doctor.setIsActive(true);
+            doctor.setBio("Revision " + i);
+            index.update(doctor);
+        }
+        assertEquals(List.of(1L), ids(index.search("neurology revision", null, 10)));
+        assertEquals(List.of(4L), ids(index.search("cardiology", null, 10)));
+    }
+
+    @Test
+    @DisplayName("Should bound the edit distance")
+    void shouldBoundEditDistance() {
+        assertEquals(1, DoctorFuzzyIndex.editDistance("cardiolgy", "cardiology", 2));
+        assertEquals(1, DoctorFuzzyIndex.editDistance("cardiolgoy", "cardiology", 2));
+        assertEquals(3, DoctorFuzzyIndex.editDistance("oncology", "urology", 2));
+    }
+
+    private static List<Long> ids(List<DoctorSummaryDto> doctors) {
+        List<Long> ids = new ArrayList<>();
+        doctors.forEach(doctor -> ids.add(doctor.getId()));
+        return ids;
+    }
+
+    private static DoctorSummaryDto summary(Long id, String firstName, String lastName, String specialization,
+                                            Double rating) {
+        return new DoctorSummaryDto(id, firstName, lastName, specialization, null, null, rating, 0, 100.0, null);
+    }
+
+    private static DoctorRepository.LanguageEntry language(Long doctorId, String language) {
+        return new DoctorRepository.LanguageEntry() {
+            @Override
+            public Long getDoctorId() {
+                return doctorId;
+            }
+
+            @Override
+            public String getLanguage() {
+                return language;
+            }
+        };
+    }
+
+    private static DoctorRepository.TextEntry text(Long doctorId, String qualifications, String bio) {
+        return new DoctorRepository.TextEntry() {
+            @Override
+            public Long getDoctorId() {
+                return doctorId;
+            }
+
+            @Override
+            public String getQualifications() {
+                return qualifications;
+            }
+
+            @Override
+            public String getBio() {
+                return bio;
+            }
+        };
+    }
+}
@@ -0,0 +1,173 @@
+package com.smartcare.service;
+
+import com.smartcare.dto.doctor.DoctorSummaryDto;
+import com.smartcare.dto.doctor.NearbyDoctorDto;
+import com.smartcare.model.Doctor;
+import com.smartcare.repository.DoctorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DoctorGeoIndex Tests")
+class DoctorGeoIndexTest {
+
+    @Mock
+    private DoctorRepository doctorRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ZipCentroids zipCentroids;
+    private DoctorGeoIndex index;
+    private GeoPoint midtown;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        zipCentroids = new ZipCentroids();
+        ReflectionTestUtils.setField(zipCentroids, "centroids", new ClassPathResource("geo/zip-centroids.csv"));
+        zipCentroids.init();
+        midtown = zipCentroids.find("10001").orElseThrow();
+
+        when(doctorRepository.findActiveSummaries()).thenReturn(List.of(
+                summary(1L, "Cardiology", 4.0),
+                summary(2L, "Cardiology", 4.8),
+                summary(3L, "Dermatology", 4.5),
+                summary(4L, "Interventional Cardiology", 5.0),
+                summary(5L, "Cardiology", 5.0),
+                summary(6L, "Pediatrics", 4.9)));
+        when(doctorRepository.findActiveLanguages()).thenReturn(List.of(language(2L, "Spanish")));
+        when(doctorRepository.findActiveLocations()).thenReturn(List.of(
+                location(1L, "10001"),
+                location(2L, "07030"),
+                location(3L, "11201"),
+                location(4L, "90001"),
+                location(5L, "00000"),
+                location(6L, "10001")));
+
+        index = new DoctorGeoIndex();
+        ReflectionTestUtils.setField(index, "doctorRepository", doctorRepository);
+        ReflectionTestUtils.setField(index, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(index, "zipCentroids", zipCentroids);
+        assertFalse(index.isReady());
+        index.rebuild();
+    }
+
+    @Test
+    @DisplayName("Should resolve five-digit and ZIP+4 codes only")
+    void shouldResolveZipCodes() {
+        assertTrue(zipCentroids.find(" 10001-1234 ").isPresent());
+        assertFalse(zipCentroids.find("1000").isPresent());
+        assertFalse(zipCentroids.find("00000").isPresent());
+        assertEquals(2448, midtown.distanceMiles(zipCentroids.find("90001").orElseThrow()), 5);
+    }
+
+    @Test
+    @DisplayName("Should return the k nearest doctors, ties by rating, skipping unknown zip codes")
+    void shouldReturnNearestDoctors() {
+        // When
+        List<NearbyDoctorDto> doctors = index.nearest(midtown, 3, null, null, null);
+
+        // Then
+        assertEquals(List.of(6L, 1L, 2L), ids(doctors));
+        assertEquals(0.0, doctors.get(0).getDistanceMiles());
+        assertEquals(1.7, doctors.get(2).getDistanceMiles());
+
+        List<NearbyDoctorDto> all = index.nearest(midtown, 10, null, null, null);
+        assertEquals(List.of(6L, 1L, 2L, 3L, 4L), ids(all));
+        assertEquals(2448, all.get(4).getDistanceMiles(), 5);
+    }
+
+    @Test
+    @DisplayName("Should only return doctors matching the other filters")
+    void shouldApplyFilters() {
+        assertEquals(List.of(1L, 2L, 4L), ids(index.nearest(midtown, 10, "CARDIO", null, null)));
+        assertEquals(List.of(2L), ids(index.nearest(midtown, 10, null, "span", null)));
+        assertEquals(List.of(6L, 2L, 4L), ids(index.nearest(midtown, 10, null, null, 4.6)));
+        assertTrue(index.nearest(midtown, 10, "neurology", null, null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should follow moved, deactivated and deleted doctors")
+    void shouldApplyChanges() {
+        // Given
+        Doctor doctor = new Doctor();
+        doctor.setId(4L);
+        doctor.setSpecialization("Interventional Cardiology");
+        doctor.setZipCode("10003");
+        doctor.setRating(5.0);
+        doctor.setLanguages(new LinkedHashSet<>(List.of("English")));
+
+        // When / Then
+        index.update(doctor);
+        // Queued until the next apply, so still in Los Angeles
+        assertEquals(List.of(1L, 2L, 4L), ids(index.nearest(midtown, 3, "cardio", null, null)));
+        index.applyPendingChanges();
+        assertEquals(List.of(1L, 4L, 2L), ids(index.nearest(midtown, 3, "cardio", null, null)));
+
+        doctor.setZipCode("ABCDE");
+        index.update(doctor);
+        index.applyPendingChanges();
+        assertEquals(List.of(1L, 2L), ids(index.nearest(midtown, 3, "cardio", null, null)));
+
+        index.remove(1L);
+        index.applyPendingChanges();
+        assertEquals(List.of(2L), ids(index.nearest(midtown, 3, "cardio", null, null)));
+    }
+
+    private static List<Long> ids(List<NearbyDoctorDto> doctors) {
+        List<Long> ids = new ArrayList<>();
+        doctors.forEach(doctor -> ids.add(doctor.getDoctor().getId()));
+        return ids;
+    }
+
+    private static DoctorSummaryDto summary(Long id, String specialization, Double rating) {
+        return new DoctorSummaryDto(id, "First" + id, "Last" + id, specialization, null, null, rating, 0, 100.0, null);
+    }
+
+    private static DoctorRepository.LanguageEntry language(Long doctorId, String language) {
+        return new DoctorRepository.LanguageEntry() {
+            @Override
+            public Long getDoctorId() {
+                return doctorId;
+            }
+
+            @Override
+            public String getLanguage() {
+                return language;
+            }
+        };
+    }
+
+    private static DoctorRepository.LocationEntry location(Long doctorId, String zipCode) {
+        return new DoctorRepository.LocationEntry() {
+            @Override
+            public Long getDoctorId() {
+                return doctorId;
+            }
+
+            @Override
+            public String getZipCode() {
+                return zipCode;
+            }
+
+            @Override
+            public Double getRating() {
+                return null;
+            }
+        };
+    }
+}
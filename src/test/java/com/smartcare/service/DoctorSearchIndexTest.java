@@ -0,0 +1,162 @@
+package com.smartcare.service;
+
+import com.smartcare.dto.doctor.DoctorSummaryDto;
+import com.smartcare.model.Doctor;
+import com.smartcare.repository.DoctorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DoctorSearchIndex Tests")
+class DoctorSearchIndexTest {
+
+    @Mock
+    private DoctorRepository doctorRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DoctorSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(doctorRepository.findActiveSummaries()).thenReturn(List.of(
+                summary(1L, "Cardiology", "New York", "NY", 4.5),
+                summary(2L, "Pediatric Cardiology", "Newark", "NJ", 4.9),
+                summary(3L, "Dermatology", "Los Angeles", "CA", 4.5),
+                summary(4L, "Cardiology", "Chicago", "IL", null)));
+        when(doctorRepository.findActiveLanguages()).thenReturn(List.of(
+                language(1L, "English"), language(1L, "Spanish"),
+                language(2L, "English"),
+                language(3L, "Spanish"),
+                language(4L, "English")));
+
+        index = new DoctorSearchIndex();
+        ReflectionTestUtils.setField(index, "doctorRepository", doctorRepository);
+        ReflectionTestUtils.setField(index, "transactionManager", transactionManager);
+        assertFalse(index.isReady());
+        index.rebuild();
+    }
+
+    @Test
+    @DisplayName("Should match substrings case-insensitively and order by rating, then id")
+    void shouldMatchSubstringsInRatingOrder() {
+        // When
+        Page<DoctorSummaryDto> page = search("CARDIO", null, null, null, null, 0, 10);
+
+        // Then
+        assertEquals(List.of(2L, 1L, 4L), ids(page));
+        assertEquals(3, page.getTotalElements());
+        assertEquals(List.of(2L), ids(search(null, null, null, null, 4.6, 0, 10)));
+    }
+
+    @Test
+    @DisplayName("Should intersect every filter, language included")
+    void shouldIntersectAllFilters() {
+        assertEquals(List.of(1L), ids(search("cardio", "new", null, "span", null, 0, 10)));
+        assertEquals(List.of(2L, 1L), ids(search(null, "new", null, null, 4.0, 0, 10)));
+        assertEquals(List.of(2L), ids(search(null, null, "nj", "english", 4.0, 0, 10)));
+        assertTrue(search("neurology", null, null, null, null, 0, 10).isEmpty());
+        // A doctor without a rating never passes a rating filter
+        assertEquals(List.of(2L, 1L, 3L), ids(search(null, null, null, null, 0.0, 0, 10)));
+    }
+
+    @Test
+    @DisplayName("Should page through the ordered matches")
+    void shouldPageThroughMatches() {
+        // When
+        Page<DoctorSummaryDto> second = search(null, null, null, null, null, 1, 2);
+
+        // Then
+        assertEquals(List.of(3L, 4L), ids(second));
+        assertEquals(4, second.getTotalElements());
+        assertEquals(2, second.getTotalPages());
+    }
+
+    @Test
+    @DisplayName("Should scroll from a key even after that doctor left the index")
+    void shouldScrollFromKey() {
+        // Order is 2 (4.9), 1 (4.5), 3 (4.5), 4 (unrated)
+        assertEquals(List.of(2L, 1L), ids(index.scroll(null, null, null, null, null, null, null, 2)));
+        assertEquals(List.of(3L, 4L), ids(index.scroll(null, null, null, null, null, 4.5, 1L, 2)));
+        assertEquals(List.of(4L), ids(index.scroll("cardio", null, null, null, null, 4.5, 1L, 2)));
+        assertEquals(3, index.count("cardio", null, null, null, null));
+
+        index.remove(1L);
+        index.applyPendingChanges();
+        assertEquals(List.of(3L, 4L), ids(index.scroll(null, null, null, null, null, 4.5, 1L, 5)));
+    }
+
+    @Test
+    @DisplayName("Should reflect saved, deactivated and deleted doctors")
+    void shouldApplyChanges() {
+        // Given
+        Doctor doctor = new Doctor();
+        doctor.setId(5L);
+        doctor.setSpecialization("Neurology");
+        doctor.setCity("Boston");
+        doctor.setRating(5.0);
+        doctor.setLanguages(new LinkedHashSet<>(List.of("French")));
+
+        // When / Then
+        index.update(doctor);
+        // Queued until the next apply
+        assertTrue(search("neuro", null, null, null, null, 0, 10).isEmpty());
+        index.applyPendingChanges();
+        assertEquals(List.of(5L), ids(search("neuro", null, null, "french", null, 0, 10)));
+        assertEquals(5L, search(null, null, null, null, null, 0, 1).getContent().get(0).getId());
+
+        doctor.setIsActive(false);
+        index.update(doctor);
+        index.applyPendingChanges();
+        assertTrue(search("neuro", null, null, null, null, 0, 10).isEmpty());
+
+        index.remove(2L);
+        index.applyPendingChanges();
+        assertEquals(List.of(1L, 4L), ids(search("cardio", null, null, null, null, 0, 10)));
+    }
+
+    private Page<DoctorSummaryDto> search(String specialization, String city, String state, String language,
+                                          Double minRating, int page, int size) {
+        return index.search(specialization, city, state, language, minRating, PageRequest.of(page, size));
+    }
+
+    private static List<Long> ids(Iterable<DoctorSummaryDto> doctors) {
+        List<Long> ids = new ArrayList<>();
+        doctors.forEach(doctor -> ids.add(doctor.getId()));
+        return ids;
+    }
+
+    private static DoctorSummaryDto summary(Long id, String specialization, String city, String state, Double rating) {
+        return new DoctorSummaryDto(id, "First" + id, "Last" + id, specialization, city, state, rating, 0, 100.0, null);
+    }
+
+    private static DoctorRepository.LanguageEntry language(Long doctorId, String language) {
+        return new DoctorRepository.LanguageEntry() {
+            @Override
+            public Long getDoctorId() {
+                return doctorId;
+            }
+
+            @Override
+            public String getLanguage() {
+                return language;
+            }
+        };
+    }
+}
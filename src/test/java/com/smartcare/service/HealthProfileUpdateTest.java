@@ -0,0 +1,103 @@
+package com.smartcare.service;
+
+import com.smartcare.model.HealthProfile;
+import com.smartcare.model.Role;
+import com.smartcare.model.User;
+import com.smartcare.repository.HealthProfileRepository;
+import com.smartcare.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("HealthProfile collection update Tests")
+class HealthProfileUpdateTest {
+
+    @Autowired
+    private UserProfileService userProfileService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HealthProfileRepository healthProfileRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        user = new User("conditions", "conditions@example.com", "hashed-password");
+        user.setFirstName("Many");
+        user.setLastName("Conditions");
+        user.setRoles(new HashSet<>(Set.of(Role.USER)));
+        userRepository.save(user);
+
+        HealthProfile profile = new HealthProfile();
+        profile.setUser(user);
+        profile.setHeight(170.0);
+        profile.setMedicalConditions(conditions(0, 30));
+        profile.setAllergies(new LinkedHashSet<>(Set.of("Peanuts", "Pollen")));
+        healthProfileRepository.save(profile);
+
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Should update long collections by difference instead of recreating them")
+    void shouldUpdateCollectionsByDifference() {
+        // Given: one condition dropped, one added, allergies unchanged
+        HealthProfile details = new HealthProfile();
+        details.setHeight(170.0);
+        details.setMedicalConditions(conditions(1, 31));
+        details.setAllergies(new LinkedHashSet<>(Set.of("Pollen", "Peanuts")));
+
+        // When
+        userProfileService.createOrUpdateHealthProfile(user.getId(), details);
+        entityManager.flush();
+
+        // Then
+        assertEquals(0, statistics.getCollectionRecreateCount());
+        assertEquals(0, statistics.getCollectionRemoveCount());
+        assertEquals(1, statistics.getCollectionUpdateCount());
+
+        entityManager.clear();
+        HealthProfile reloaded = healthProfileRepository.findByUserId(user.getId()).orElseThrow();
+        assertEquals(conditions(1, 31), reloaded.getMedicalConditions());
+        assertEquals(Set.of("Peanuts", "Pollen"), reloaded.getAllergies());
+    }
+
+    private static Set<String> conditions(int from, int to) {
+        return IntStream.range(from, to)
+                .mapToObj(i -> "Condition " + i)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+}
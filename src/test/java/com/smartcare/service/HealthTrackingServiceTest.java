@@ -0,0 +1,109 @@
+package com.smartcare.service;
+
+import com.smartcare.dto.healthtracking.HealthGoalDto;
+import com.smartcare.dto.healthtracking.HealthTrackingOverviewDto;
+import com.smartcare.model.HealthGoal;
+import com.smartcare.model.HealthTracking;
+import com.smartcare.model.Role;
+import com.smartcare.model.User;
+import com.smartcare.repository.HealthTrackingRepository;
+import com.smartcare.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("HealthTrackingService Tests")
+class HealthTrackingServiceTest {
+
+    @Autowired
+    private HealthTrackingService healthTrackingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HealthTrackingRepository healthTrackingRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        user = new User("tracker", "tracker@example.com", "hashed-password");
+        user.setFirstName("Track");
+        user.setLastName("Er");
+        user.setRoles(new HashSet<>(Set.of(Role.USER)));
+        userRepository.save(user);
+
+        HealthTracking tracking = new HealthTracking();
+        tracking.setUser(user);
+        tracking.setHealthScore(80);
+        tracking.setGoals(new ArrayList<>());
+        HealthGoal goal = new HealthGoal();
+        goal.setGoalType("Step");
+        goal.setTargetValue(10000);
+        goal.setHealthTracking(tracking);
+        tracking.getGoals().add(goal);
+        healthTrackingRepository.save(tracking);
+
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Should load the overview and its goals in a single query")
+    void shouldLoadOverviewInSingleQuery() {
+        // When
+        HealthTrackingOverviewDto overview = healthTrackingService.getOverview(user.getId());
+
+        // Then
+        assertEquals(80, overview.healthScore);
+        assertEquals(1, overview.goals.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Should add a goal without loading the user or the tracking row")
+    void shouldAddGoalWithoutLoadingUser() {
+        // Given
+        HealthGoalDto request = new HealthGoalDto();
+        request.goalType = "Sleep";
+        request.targetValue = 8;
+
+        // When
+        HealthGoalDto created = healthTrackingService.addGoal(user.getId(), request);
+        entityManager.flush();
+
+        // Then
+        assertNotNull(created.id);
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(2, healthTrackingService.getGoals(user.getId()).size());
+    }
+}
@@ -0,0 +1,198 @@
+package com.smartcare.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcare.model.Doctor;
+import com.smartcare.model.Role;
+import com.smartcare.model.User;
+import com.smartcare.repository.DoctorRepository;
+import com.smartcare.repository.UserRepository;
+import com.smartcare.security.UserPrincipal;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.smartcare.service.MergePatchTest$SqlCapture")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("Merge patch Tests")
+class MergePatchTest {
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Doctor doctor;
+
+    @BeforeEach
+    void setUp() {
+        doctor = new Doctor();
+        doctor.setFirstName("Dr. Patch");
+        doctor.setLastName("Diff");
+        doctor.setSpecialization("Neurology");
+        doctor.setPhoneNumber("+15550000");
+        doctor.setBio("Original bio");
+        doctor.setLanguages(new LinkedHashSet<>(List.of("English", "Spanish", "German")));
+        doctorRepository.save(doctor);
+
+        entityManager.flush();
+        entityManager.clear();
+        SqlCapture.STATEMENTS.clear();
+    }
+
+    @Test
+    @DisplayName("Should update only the patched column")
+    void shouldUpdateOnlyPatchedColumn() throws Exception {
+        // When
+        doctorService.patchDoctor(doctor.getId(), objectMapper.readTree("{\"phoneNumber\": \"+15559999\"}"));
+        entityManager.flush();
+
+        // Then
+        List<String> updates = statements("update doctors");
+        assertEquals(1, updates.size());
+        assertTrue(updates.get(0).contains("phone_number"));
+        assertFalse(updates.get(0).contains("first_name"));
+        assertFalse(updates.get(0).contains("bio"));
+        assertTrue(writes("doctor_languages").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should update languages by difference")
+    void shouldUpdateLanguagesByDifference() throws Exception {
+        // When
+        doctorService.patchDoctor(doctor.getId(),
+                objectMapper.readTree("{\"languages\": [\"English\", \"German\", \"French\"]}"));
+        entityManager.flush();
+
+        // Then
+        List<String> deletes = statements("delete from doctor_languages");
+        List<String> inserts = statements("insert into doctor_languages");
+        assertEquals(1, deletes.size());
+        assertTrue(deletes.get(0).contains("language"), "single element delete, not a collection wipe");
+        assertEquals(1, inserts.size());
+
+        entityManager.clear();
+        assertEquals(Set.of("English", "German", "French"),
+                doctorRepository.findById(doctor.getId()).orElseThrow().getLanguages());
+    }
+
+    @Test
+    @DisplayName("Should write nothing for a patch that changes nothing")
+    void shouldWriteNothingForNoOpPatch() throws Exception {
+        // When
+        doctorService.patchDoctor(doctor.getId(),
+                objectMapper.readTree("{\"bio\": \"Original bio\", \"languages\": [\"German\", \"English\", \"Spanish\"]}"));
+        entityManager.flush();
+
+        // Then
+        assertTrue(writes("").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject fields outside the whitelist and invalid values")
+    void shouldRejectNonPatchableFields() {
+        assertThrows(RuntimeException.class, () ->
+                doctorService.patchDoctor(doctor.getId(), objectMapper.readTree("{\"rating\": 5.0}")));
+        assertThrows(RuntimeException.class, () ->
+                doctorService.patchDoctor(doctor.getId(), objectMapper.readTree("{\"lastName\": null}")));
+        assertThrows(RuntimeException.class, () ->
+                doctorService.patchDoctor(doctor.getId(), objectMapper.readTree("[]")));
+    }
+
+    @Test
+    @DisplayName("Should accept merge patch documents on the profile endpoint")
+    void shouldPatchProfileOverHttp() throws Exception {
+        // Given
+        User patient = new User("patcher", "patcher@example.com", "hashed-password");
+        patient.setFirstName("Pat");
+        patient.setLastName("Cher");
+        patient.setRoles(new HashSet<>(Set.of(Role.USER)));
+        userRepository.save(patient);
+        entityManager.flush();
+
+        // When / Then
+        mockMvc.perform(patch("/profile")
+                        .with(user(UserPrincipal.create(patient)))
+                        .contentType("application/merge-patch+json")
+                        .content("{\"phoneNumber\": \"+15551234\", \"gender\": \"FEMALE\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.phoneNumber").value("+15551234"))
+                .andExpect(jsonPath("$.data.gender").value("FEMALE"))
+                .andExpect(jsonPath("$.data.firstName").value("Pat"));
+
+        mockMvc.perform(patch("/profile")
+                        .with(user(UserPrincipal.create(patient)))
+                        .contentType("application/merge-patch+json")
+                        .content("{\"password\": \"hijack\"}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(patch("/profile")
+                        .with(user(UserPrincipal.create(patient)))
+                        .contentType("application/merge-patch+json")
+                        .content("{\"profilePicture\": \"/profile-pictures/other.png\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static List<String> statements(String prefix) {
+        return normalizedStatements().stream().filter(sql -> sql.startsWith(prefix)).toList();
+    }
+
+    private static List<String> writes(String table) {
+        return normalizedStatements().stream()
+                .filter(sql -> !sql.startsWith("select") && sql.contains(table))
+                .toList();
+    }
+
+    private static List<String> normalizedStatements() {
+        return SqlCapture.STATEMENTS.stream()
+                .map(sql -> sql.toLowerCase(Locale.ROOT).replaceAll("\\s+", " ").trim())
+                .toList();
+    }
+
+    public static class SqlCapture implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.smartcare.service;
+
+import com.smartcare.dto.auth.TokenRefreshResponse;
+import com.smartcare.model.Role;
+import com.smartcare.model.User;
+import com.smartcare.repository.RefreshTokenRepository;
+import com.smartcare.repository.UserRepository;
+import com.smartcare.security.InvalidRefreshTokenException;
+import com.smartcare.security.JwtTokenProvider;
+import com.smartcare.security.UserPrincipal;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("RefreshTokenService Tests")
+class RefreshTokenServiceTest {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private UserPrincipal principal;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User("refreshuser", "refreshuser@example.com", "hash");
+        user.setFirstName("Refresh");
+        user.setLastName("User");
+        user.setRoles(new HashSet<>(Set.of(Role.USER)));
+        principal = UserPrincipal.create(userRepository.save(user));
+
+        // Tokens issued in the same second as the last change are treated as stale
+        entityManager.flush();
+        entityManager.createQuery("UPDATE User u SET u.updatedAt = :updatedAt WHERE u.id = :id")
+                .setParameter("updatedAt", LocalDateTime.now().minusMinutes(1))
+                .setParameter("id", principal.getId())
+                .executeUpdate();
+    }
+
+    @Test
+    @DisplayName("Should rotate refresh token without loading the user")
+    void shouldRotateRefreshTokenWithoutLoadingUser() {
+        // Given
+        String refreshToken = refreshTokenService.issue(principal);
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        TokenRefreshResponse response = refreshTokenService.rotate(refreshToken);
+        entityManager.flush();
+
+        // Then
+        assertNotNull(response.getAccessToken());
+        assertNotEquals(refreshToken, response.getRefreshToken());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(2, refreshTokenRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should not query users when refreshing an unchanged principal")
+    void shouldNotQueryUsersOnRepeatedRefresh() {
+        // Given
+        String refreshToken = refreshTokenService.issue(principal);
+        String successor = refreshTokenService.rotate(refreshToken).getRefreshToken();
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        TokenRefreshResponse response = refreshTokenService.rotate(successor);
+        entityManager.flush();
+
+        // Then
+        // Marking the token used and inserting its successor, nothing else
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertTrue(Arrays.stream(statistics.getQueries()).noneMatch(query -> query.contains("User")));
+        assertEquals(tokenProvider.getPrincipalIssuedAt(tokenProvider.parseRefreshToken(refreshToken).getClaims()),
+                tokenProvider.getPrincipalIssuedAt(
+                        tokenProvider.parseRefreshToken(response.getRefreshToken()).getClaims()));
+    }
+
+    @Test
+    @DisplayName("Should carry over the roles of a changed user and keep the family expiry")
+    void shouldReloadChangedUserAndKeepFamilyExpiry() {
+        // Given
+        String refreshToken = refreshTokenService.issue(principal);
+        User user = userRepository.findById(principal.getId()).orElseThrow();
+        user.setRoles(new HashSet<>(Set.of(Role.USER, Role.ADMIN)));
+        userRepository.saveAndFlush(user);
+        // A later second than the token's iat, as a change after sign-in would have
+        entityManager.createQuery("UPDATE User u SET u.updatedAt = :updatedAt WHERE u.id = :id")
+                .setParameter("updatedAt", LocalDateTime.now().plusMinutes(1))
+                .setParameter("id", principal.getId())
+                .executeUpdate();
+        entityManager.clear();
+
+        // When
+        TokenRefreshResponse response = refreshTokenService.rotate(refreshToken);
+
+        // Then
+        UserPrincipal rotated = tokenProvider.getUserPrincipalFromClaims(
+                tokenProvider.parseRefreshToken(response.getRefreshToken()).getClaims());
+        assertTrue(rotated.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN")));
+        assertEquals(tokenProvider.parseRefreshToken(refreshToken).getClaims().getExpiration(),
+                tokenProvider.parseRefreshToken(response.getRefreshToken()).getClaims().getExpiration());
+    }
+
+    @Test
+    @DisplayName("Should revoke the whole family when a refresh token is reused")
+    void shouldRevokeFamilyOnReuse() {
+        // Given
+        String refreshToken = refreshTokenService.issue(principal);
+        TokenRefreshResponse rotated = refreshTokenService.rotate(refreshToken);
+
+        // When & Then
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(refreshToken));
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(rotated.getRefreshToken()));
+        assertEquals(0, refreshTokenRepository.count());
+    }
+}
@@ -0,0 +1,147 @@
+package com.smartcare.service;
+
+import com.smartcare.dto.admin.UserImportResult;
+import com.smartcare.dto.admin.UserImportRowResult;
+import com.smartcare.dto.admin.UserImportRowResult.Status;
+import com.smartcare.model.Role;
+import com.smartcare.model.User;
+import com.smartcare.repository.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.spy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("UserImportService Tests")
+class UserImportServiceTest {
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Should import CSV rows and report every row")
+    void shouldImportCsvRowsAndReportEveryRow() {
+        // Given
+        String csv = """
+                username,email,password,firstName,lastName,phoneNumber
+                clinic1,clinic1@example.com,secret123,Ann,"Smith, Jr",5550001
+                clinic2,not-an-email,secret123,Bob,Jones,
+                clinic1,other@example.com,secret123,Ann,Smith,
+                admin,someone@example.com,secret123,Ad,Min,
+                """;
+
+        // When
+        UserImportResult result = userImportService.importCsv(stream(csv));
+
+        // Then
+        assertEquals(4, result.getTotal());
+        assertEquals(1, result.getCreated());
+        assertEquals(1, result.getInvalid());
+        assertEquals(2, result.getDuplicate());
+
+        List<UserImportRowResult> rows = result.getRows();
+        assertEquals(Status.CREATED, rows.get(0).getStatus());
+        assertEquals(2, rows.get(0).getRow());
+        assertEquals(Status.INVALID, rows.get(1).getStatus());
+        assertEquals(Status.DUPLICATE, rows.get(2).getStatus());
+        assertEquals(Status.DUPLICATE, rows.get(3).getStatus());
+
+        User imported = userRepository.findById(rows.get(0).getUserId()).orElseThrow();
+        assertEquals("Smith, Jr", imported.getLastName());
+        assertEquals(Set.of(Role.USER), imported.getRoles());
+        assertTrue(passwordEncoder.matches("secret123", imported.getPassword()));
+    }
+
+    @Test
+    @DisplayName("Should import NDJSON rows and flag unparseable lines")
+    void shouldImportNdjsonRowsAndFlagUnparseableLines() {
+        // Given
+        String ndjson = """
+                {"username":"ndjson1","email":"ndjson1@example.com","password":"secret123","firstName":"N","lastName":"One"}
+                {not json
+                {"username":"ndjson2","email":"ndjson2@example.com","password":"secret123","firstName":"N","lastName":"Two"}
+                """;
+
+        // When
+        UserImportResult result = userImportService.importNdjson(stream(ndjson));
+
+        // Then
+        assertEquals(3, result.getTotal());
+        assertEquals(2, result.getCreated());
+        assertEquals(Status.INVALID, result.getRows().get(1).getStatus());
+        assertTrue(userRepository.existsByUsername("ndjson2"));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Should retry a failed chunk row by row and report only the offending row")
+    void shouldRetryFailedChunkRowByRow() {
+        // Given: the username check misses "admin", as if it were claimed after the check ran
+        NamedParameterJdbcTemplate racingTemplate = spy(jdbcTemplate);
+        doNothing().when(racingTemplate).query(startsWith("SELECT username FROM users"), anyMap(),
+                any(RowCallbackHandler.class));
+        ReflectionTestUtils.setField(userImportService, "jdbcTemplate", racingTemplate);
+        String csv = """
+                username,email,password,firstName,lastName
+                retry1,retry1@example.com,secret123,Ann,One
+                admin,retry-admin@example.com,secret123,Ad,Min
+                retry2,retry2@example.com,secret123,Ann,Two
+                """;
+
+        // When
+        UserImportResult result;
+        try {
+            result = userImportService.importCsv(stream(csv));
+        } finally {
+            ReflectionTestUtils.setField(userImportService, "jdbcTemplate", jdbcTemplate);
+        }
+
+        // Then
+        try {
+            List<UserImportRowResult> rows = result.getRows();
+            assertEquals(2, result.getCreated());
+            assertEquals(Status.CREATED, rows.get(0).getStatus());
+            assertEquals(Status.DUPLICATE, rows.get(1).getStatus());
+            assertEquals(Status.CREATED, rows.get(2).getStatus());
+            assertTrue(userRepository.existsByUsername("retry1"));
+            assertTrue(userRepository.existsByUsername("retry2"));
+            assertFalse(userRepository.existsByEmail("retry-admin@example.com"));
+        } finally {
+            // Chunks commit on their own here, as they do outside tests
+            userRepository.findByUsername("retry1").ifPresent(userRepository::delete);
+            userRepository.findByUsername("retry2").ifPresent(userRepository::delete);
+        }
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
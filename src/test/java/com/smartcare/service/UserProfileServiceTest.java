@@ -1,16 +1,26 @@
 package com.smartcare.service;
 
+import com.smartcare.dto.profile.UserProfileDto;
+import com.smartcare.model.HealthProfile;
+import com.smartcare.model.Role;
 import com.smartcare.model.User;
+import com.smartcare.repository.HealthProfileRepository;
 import com.smartcare.repository.UserRepository;
+import com.smartcare.security.PrincipalChangeRegistry;
+import com.smartcare.security.UserPrincipalCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -23,6 +33,18 @@ class UserProfileServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private HealthProfileRepository healthProfileRepository;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private UserPrincipalCache userPrincipalCache;
+
+    @Mock
+    private PrincipalChangeRegistry principalChangeRegistry;
+
     @InjectMocks
     private UserProfileService userProfileService;
 
@@ -44,17 +66,18 @@ class UserProfileServiceTest {
     @DisplayName("Should get user profile")
     void shouldGetUserProfile() {
         // Given
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.findProfileById(1L)).thenReturn(Optional.of(UserProfileDto.from(user)));
 
         // When
-        User result = userProfileService.getUserProfile(1L);
+        UserProfileDto result = userProfileService.getUserProfile(1L);
 
         // Then
         assertNotNull(result);
         assertEquals("testuser", result.getUsername());
         assertEquals("test@example.com", result.getEmail());
 
-        verify(userRepository).findById(1L);
+        verify(userRepository).findProfileById(1L);
+        verify(userRepository, never()).findById(any());
     }
 
     @Test
@@ -72,5 +95,61 @@ class UserProfileServiceTest {
         assertTrue(user.isTourCompleted());
         verify(userRepository).findById(1L);
         verify(userRepository).save(user);
+        verify(userPrincipalCache).evict(1L);
+    }
+
+    @Test
+    @DisplayName("Should invalidate the cached principal only once the change commits")
+    void shouldInvalidatePrincipalAfterCommit() {
+        // Given
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.save(any(User.class))).thenReturn(user);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            userProfileService.updateUserRoles(1L, Set.of(Role.ADMIN));
+
+            // Then
+            verifyNoInteractions(userPrincipalCache, principalChangeRegistry);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(principalChangeRegistry).markChanged(1L);
+            verify(userPrincipalCache).evict(1L);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should delete the health profile along with the user")
+    void shouldDeleteHealthProfileWithUser() {
+        // Given
+        HealthProfile healthProfile = new HealthProfile();
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(healthProfileRepository.findByUserId(1L)).thenReturn(Optional.of(healthProfile));
+
+        // When
+        userProfileService.deleteUser(1L);
+
+        // Then
+        InOrder inOrder = inOrder(healthProfileRepository, userRepository);
+        inOrder.verify(healthProfileRepository).delete(healthProfile);
+        inOrder.verify(userRepository).deleteById(1L);
+        verify(refreshTokenService).revokeAllForUser(1L);
+    }
+
+    @Test
+    @DisplayName("Should report a missing user when creating a health profile")
+    void shouldRejectHealthProfileForMissingUser() {
+        // Given
+        when(healthProfileRepository.findByUserId(99L)).thenReturn(Optional.empty());
+        when(userRepository.existsById(99L)).thenReturn(false);
+
+        // When
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> userProfileService.createOrUpdateHealthProfile(99L, new HealthProfile()));
+
+        // Then
+        assertEquals("User not found", exception.getMessage());
+        verify(healthProfileRepository, never()).save(any());
     }
 }